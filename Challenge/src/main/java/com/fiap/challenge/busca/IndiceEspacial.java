@@ -0,0 +1,333 @@
+package com.fiap.challenge.busca;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice espacial em memória para consultas de vizinhos mais próximos e por raio
+ * Cada ponto é convertido para um vetor unitário 3D (x, y, z) sobre a esfera terrestre, de forma
+ * que a distância euclidiana (corda) cresce junto com a distância pela superfície e não há
+ * distorção perto dos polos nem na linha de data. Os pontos ficam em uma k-d tree balanceada
+ * armazenada em arrays; inclusões e alterações vão para uma lista pendente percorrida
+ * linearmente, e a árvore é reconstruída quando as pendências passam de uma fração do total.
+ */
+public class IndiceEspacial {
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+    private static final int MINIMO_PENDENTES = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Coordenadas atuais de cada ponto (fonte para reconstruir a árvore)
+    private final Map<Long, double[]> pontos = new HashMap<>();
+
+    // Árvore: o nó de uma faixa [inicio, fim) é o elemento do meio, dividido pelo eixo (profundidade % 3)
+    private long[] ids = new long[0];
+    private double[][] coordenadas = new double[3][0];
+
+    // Pontos incluídos ou movidos desde a última construção, e IDs da árvore que não valem mais
+    private final Map<Long, double[]> pendentes = new HashMap<>();
+    private final Set<Long> desatualizados = new HashSet<>();
+
+    /**
+     * Ponto encontrado e sua distância até a origem da consulta, em km
+     */
+    public record Vizinho(Long id, double distanciaKm) {
+    }
+
+    /**
+     * Inclui ou move um ponto
+     * @param id ID do ponto
+     * @param latitude Latitude em graus
+     * @param longitude Longitude em graus
+     */
+    public void indexar(Long id, double latitude, double longitude) {
+        double[] vetor = vetor(latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            if (pontos.put(id, vetor) != null) {
+                desatualizados.add(id);
+            }
+            pendentes.put(id, vetor);
+            reconstruirSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui um ponto sem reorganizar a árvore, para a carga inicial
+     * Após carregar todos os pontos, chame {@link #reconstruir()}
+     */
+    public void carregar(Long id, double latitude, double longitude) {
+        double[] vetor = vetor(latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            pontos.put(id, vetor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um ponto do índice
+     * @param id ID do ponto
+     */
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (pontos.remove(id) != null) {
+                desatualizados.add(id);
+                pendentes.remove(id);
+                reconstruirSeNecessario();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os pontos mais próximos de uma coordenada, do mais próximo ao mais distante
+     * @param latitude Latitude da origem em graus
+     * @param longitude Longitude da origem em graus
+     * @param quantidade Quantidade máxima de pontos
+     * @param raioKm Distância máxima em km, ou null para não limitar
+     * @return Pontos encontrados ordenados pela distância
+     */
+    public List<Vizinho> buscar(double latitude, double longitude, int quantidade, Double raioKm) {
+        if (quantidade <= 0) {
+            return List.of();
+        }
+        double[] origem = vetor(latitude, longitude);
+        // Distâncias são comparadas pelo quadrado da corda, que preserva a ordem da distância na superfície
+        double limite = raioKm != null ? Math.pow(corda(raioKm), 2) : Double.POSITIVE_INFINITY;
+
+        lock.readLock().lock();
+        try {
+            Busca busca = new Busca(origem, quantidade, limite);
+
+            buscarNo(busca, 0, ids.length, 0);
+            for (Map.Entry<Long, double[]> pendente : pendentes.entrySet()) {
+                busca.considerar(pendente.getKey(), distancia2(origem, pendente.getValue()));
+            }
+
+            List<Vizinho> vizinhos = new ArrayList<>(busca.melhores.size());
+            for (Candidato candidato : busca.melhores) {
+                vizinhos.add(new Vizinho(candidato.id(), distanciaKm(candidato.distancia2())));
+            }
+            vizinhos.sort(Comparator.comparingDouble(Vizinho::distanciaKm).thenComparing(Vizinho::id));
+            return vizinhos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return pontos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstrói a árvore com todos os pontos atuais
+     */
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            construirArvore();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void buscarNo(Busca busca, int inicio, int fim, int profundidade) {
+        if (inicio >= fim) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        int eixo = profundidade % 3;
+
+        long id = ids[meio];
+        if (!desatualizados.contains(id)) {
+            busca.considerar(id, distancia2(busca.origem, coordenadas[0][meio], coordenadas[1][meio], coordenadas[2][meio]));
+        }
+
+        double diferenca = busca.origem[eixo] - coordenadas[eixo][meio];
+        boolean esquerdaPrimeiro = diferenca < 0;
+        if (esquerdaPrimeiro) {
+            buscarNo(busca, inicio, meio, profundidade + 1);
+        } else {
+            buscarNo(busca, meio + 1, fim, profundidade + 1);
+        }
+        // O outro lado só pode ter pontos mais próximos se o plano de divisão estiver dentro do raio atual
+        if (diferenca * diferenca <= busca.pior()) {
+            if (esquerdaPrimeiro) {
+                buscarNo(busca, meio + 1, fim, profundidade + 1);
+            } else {
+                buscarNo(busca, inicio, meio, profundidade + 1);
+            }
+        }
+    }
+
+    private void reconstruirSeNecessario() {
+        int alteracoes = pendentes.size() + desatualizados.size();
+        if (alteracoes >= Math.max(MINIMO_PENDENTES, pontos.size() / 8)) {
+            construirArvore();
+        }
+    }
+
+    private void construirArvore() {
+        int tamanho = pontos.size();
+        long[] novosIds = new long[tamanho];
+        double[][] novasCoordenadas = new double[3][tamanho];
+        int i = 0;
+        for (Map.Entry<Long, double[]> ponto : pontos.entrySet()) {
+            novosIds[i] = ponto.getKey();
+            for (int eixo = 0; eixo < 3; eixo++) {
+                novasCoordenadas[eixo][i] = ponto.getValue()[eixo];
+            }
+            i++;
+        }
+        ids = novosIds;
+        coordenadas = novasCoordenadas;
+        organizar(0, tamanho, 0);
+        pendentes.clear();
+        desatualizados.clear();
+    }
+
+    /**
+     * Organiza a faixa como subárvore: mediana do eixo no meio, menores à esquerda e maiores à direita
+     */
+    private void organizar(int inicio, int fim, int profundidade) {
+        if (fim - inicio <= 1) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        selecionar(inicio, fim - 1, meio, profundidade % 3);
+        organizar(inicio, meio, profundidade + 1);
+        organizar(meio + 1, fim, profundidade + 1);
+    }
+
+    /**
+     * Seleção de Hoare: posiciona no índice k o elemento que estaria ali se a faixa fosse ordenada pelo eixo
+     */
+    private void selecionar(int esquerda, int direita, int k, int eixo) {
+        double[] valores = coordenadas[eixo];
+        while (esquerda < direita) {
+            double pivo = valores[(esquerda + direita) >>> 1];
+            int i = esquerda;
+            int j = direita;
+            while (i <= j) {
+                while (valores[i] < pivo) {
+                    i++;
+                }
+                while (valores[j] > pivo) {
+                    j--;
+                }
+                if (i <= j) {
+                    trocar(i++, j--);
+                }
+            }
+            if (k <= j) {
+                direita = j;
+            } else if (k >= i) {
+                esquerda = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void trocar(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        for (double[] eixo : coordenadas) {
+            double valor = eixo[a];
+            eixo[a] = eixo[b];
+            eixo[b] = valor;
+        }
+    }
+
+    private static double[] vetor(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[]{Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double distancia2(double[] origem, double[] ponto) {
+        return distancia2(origem, ponto[0], ponto[1], ponto[2]);
+    }
+
+    private static double distancia2(double[] origem, double x, double y, double z) {
+        double dx = origem[0] - x;
+        double dy = origem[1] - y;
+        double dz = origem[2] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Corda (na esfera unitária) correspondente a uma distância pela superfície
+     */
+    private static double corda(double distanciaKm) {
+        double angulo = Math.min(distanciaKm / RAIO_TERRA_KM, Math.PI);
+        return 2 * Math.sin(angulo / 2);
+    }
+
+    private static double distanciaKm(double corda2) {
+        double corda = Math.min(Math.sqrt(corda2), 2.0);
+        return Math.round(2 * Math.asin(corda / 2) * RAIO_TERRA_KM * 1000) / 1000.0;
+    }
+
+    private record Candidato(long id, double distancia2) {
+    }
+
+    /**
+     * Estado de uma consulta: origem, limite de distância e os k melhores candidatos
+     */
+    private static final class Busca {
+        private final double[] origem;
+        private final int quantidade;
+        private final double limite;
+        // Max-heap: a raiz é o pior entre os k candidatos atuais
+        private final PriorityQueue<Candidato> melhores;
+
+        Busca(double[] origem, int quantidade, double limite) {
+            this.origem = origem;
+            this.quantidade = quantidade;
+            this.limite = limite;
+            this.melhores = new PriorityQueue<>(Math.min(quantidade, 1024) + 1,
+                    Comparator.comparingDouble(Candidato::distancia2).reversed());
+        }
+
+        void considerar(long id, double distancia2) {
+            if (distancia2 > limite) {
+                return;
+            }
+            if (melhores.size() < quantidade) {
+                melhores.add(new Candidato(id, distancia2));
+            } else if (distancia2 < melhores.peek().distancia2()) {
+                melhores.poll();
+                melhores.add(new Candidato(id, distancia2));
+            }
+        }
+
+        /**
+         * Maior distância (ao quadrado) que ainda pode entrar no resultado
+         */
+        double pior() {
+            return melhores.size() < quantidade ? limite : Math.min(limite, melhores.peek().distancia2());
+        }
+    }
+}
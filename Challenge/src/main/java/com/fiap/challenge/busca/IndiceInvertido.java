@@ -0,0 +1,294 @@
+package com.fiap.challenge.busca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória com ranqueamento BM25 e pesos por campo
+ * Cada documento ocupa um slot interno; as listas de postagens guardam apenas
+ * arrays primitivos de slots e pesos, mantendo o consumo de memória baixo.
+ * Alterações marcam o slot antigo como removido e o índice é compactado
+ * quando a proporção de slots removidos fica alta.
+ */
+public class IndiceInvertido {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PESO_PREFIXO = 0.8f;
+    private static final int MAXIMO_EXPANSOES_PREFIXO = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postagens> termos = new TreeMap<>();
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private long[] ids = new long[64];
+    private float[] comprimentos = new float[64];
+    private final BitSet removidos = new BitSet();
+    private int slots;
+    private double somaComprimentos;
+
+    /**
+     * Campo de um documento e seu peso no ranqueamento
+     */
+    public record Campo(String texto, float peso) {
+    }
+
+    /**
+     * Resultado de uma busca: total de documentos encontrados e IDs da página, por relevância
+     */
+    public record Resultado(int total, List<Long> ids) {
+    }
+
+    /**
+     * Indexa (ou reindexa) um documento
+     * @param id ID do documento
+     * @param campos Campos do documento com seus pesos
+     */
+    public void indexar(Long id, List<Campo> campos) {
+        Map<String, Float> pesos = new LinkedHashMap<>();
+        float comprimento = 0;
+        for (Campo campo : campos) {
+            for (String termo : NormalizadorTexto.termos(campo.texto())) {
+                pesos.merge(termo, campo.peso(), Float::sum);
+                comprimento += campo.peso();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removerSlot(id);
+            int slot = novoSlot(id, comprimento);
+            pesos.forEach((termo, peso) -> termos.computeIfAbsent(termo, t -> new Postagens()).adicionar(slot, peso));
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um documento do índice
+     * @param id ID do documento
+     */
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerSlot(id);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca documentos que contenham todos os termos da consulta
+     * O último termo também casa por prefixo, permitindo busca enquanto o usuário digita
+     * @param consulta Texto digitado
+     * @param inicio Posição do primeiro resultado da página
+     * @param limite Quantidade máxima de resultados da página
+     * @return Total encontrado e IDs da página, do mais para o menos relevante
+     */
+    public Resultado buscar(String consulta, int inicio, int limite) {
+        List<String> termosConsulta = NormalizadorTexto.termos(consulta);
+        if (termosConsulta.isEmpty()) {
+            return new Resultado(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            int vivos = slotPorId.size();
+            if (vivos == 0) {
+                return new Resultado(0, List.of());
+            }
+            float comprimentoMedio = (float) (somaComprimentos / vivos);
+
+            float[] pontuacao = new float[slots];
+            int[] acertos = new int[slots];
+
+            for (int i = 0; i < termosConsulta.size(); i++) {
+                boolean ultimo = i == termosConsulta.size() - 1;
+                float[] melhor = pontuarTermo(termosConsulta.get(i), ultimo, vivos, comprimentoMedio);
+                for (int slot = 0; slot < slots; slot++) {
+                    if (melhor[slot] > 0) {
+                        pontuacao[slot] += melhor[slot];
+                        acertos[slot]++;
+                    }
+                }
+            }
+
+            int esperado = termosConsulta.size();
+            List<Integer> encontrados = new ArrayList<>();
+            for (int slot = 0; slot < slots; slot++) {
+                if (acertos[slot] == esperado && !removidos.get(slot)) {
+                    encontrados.add(slot);
+                }
+            }
+
+            encontrados.sort((a, b) -> {
+                int comparacao = Float.compare(pontuacao[b], pontuacao[a]);
+                return comparacao != 0 ? comparacao : Long.compare(ids[a], ids[b]);
+            });
+
+            List<Long> pagina = new ArrayList<>();
+            for (int i = inicio; i < encontrados.size() && pagina.size() < limite; i++) {
+                pagina.add(ids[encontrados.get(i)]);
+            }
+            return new Resultado(encontrados.size(), pagina);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return slotPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Melhor pontuação de cada slot para um termo da consulta (exato ou, no último termo, por prefixo)
+     */
+    private float[] pontuarTermo(String termo, boolean prefixo, int vivos, float comprimentoMedio) {
+        float[] melhor = new float[slots];
+
+        Map<String, Postagens> candidatos;
+        if (prefixo) {
+            NavigableMap<String, Postagens> faixa = termos.subMap(termo, true, termo + Character.MAX_VALUE, false);
+            candidatos = new LinkedHashMap<>();
+            for (Map.Entry<String, Postagens> entrada : faixa.entrySet()) {
+                if (candidatos.size() >= MAXIMO_EXPANSOES_PREFIXO) {
+                    break;
+                }
+                candidatos.put(entrada.getKey(), entrada.getValue());
+            }
+        } else {
+            Postagens exatas = termos.get(termo);
+            candidatos = exatas != null ? Map.of(termo, exatas) : Map.of();
+        }
+
+        for (Map.Entry<String, Postagens> entrada : candidatos.entrySet()) {
+            Postagens postagens = entrada.getValue();
+            float fator = entrada.getKey().equals(termo) ? 1f : PESO_PREFIXO;
+
+            // A frequência conta apenas documentos vivos: até a compactação, as postagens ainda
+            // guardam os slots antigos de documentos removidos ou reindexados
+            int frequencia = 0;
+            for (int i = 0; i < postagens.tamanho; i++) {
+                if (!removidos.get(postagens.slots[i])) {
+                    frequencia++;
+                }
+            }
+            if (frequencia == 0) {
+                continue;
+            }
+            double idf = Math.log(1 + (vivos - frequencia + 0.5) / (frequencia + 0.5));
+
+            for (int i = 0; i < postagens.tamanho; i++) {
+                int slot = postagens.slots[i];
+                if (removidos.get(slot)) {
+                    continue;
+                }
+                float peso = postagens.pesos[i];
+                float normalizacao = K1 * (1 - B + B * comprimentos[slot] / comprimentoMedio);
+                float valor = (float) (idf * (peso * (K1 + 1)) / (peso + normalizacao)) * fator;
+                if (valor > melhor[slot]) {
+                    melhor[slot] = valor;
+                }
+            }
+        }
+        return melhor;
+    }
+
+    private int novoSlot(Long id, float comprimento) {
+        if (slots == ids.length) {
+            ids = Arrays.copyOf(ids, slots * 2);
+            comprimentos = Arrays.copyOf(comprimentos, slots * 2);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        comprimentos[slot] = comprimento;
+        slotPorId.put(id, slot);
+        somaComprimentos += comprimento;
+        return slot;
+    }
+
+    private void removerSlot(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot != null) {
+            removidos.set(slot);
+            somaComprimentos -= comprimentos[slot];
+        }
+    }
+
+    /**
+     * Reescreve as postagens sem os slots removidos quando eles passam de metade do índice
+     */
+    private void compactarSeNecessario() {
+        int quantidadeRemovidos = removidos.cardinality();
+        if (quantidadeRemovidos < 1024 || quantidadeRemovidos * 2 < slots) {
+            return;
+        }
+
+        int[] novoSlot = new int[slots];
+        int proximo = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (removidos.get(slot)) {
+                novoSlot[slot] = -1;
+            } else {
+                novoSlot[slot] = proximo;
+                ids[proximo] = ids[slot];
+                comprimentos[proximo] = comprimentos[slot];
+                slotPorId.put(ids[proximo], proximo);
+                proximo++;
+            }
+        }
+
+        termos.values().removeIf(postagens -> postagens.remapear(novoSlot) == 0);
+        slots = proximo;
+        removidos.clear();
+    }
+
+    /**
+     * Lista de postagens de um termo: slots em ordem crescente e o peso do termo em cada um
+     */
+    private static final class Postagens {
+        private int[] slots = new int[4];
+        private float[] pesos = new float[4];
+        private int tamanho;
+
+        void adicionar(int slot, float peso) {
+            if (tamanho == slots.length) {
+                slots = Arrays.copyOf(slots, tamanho * 2);
+                pesos = Arrays.copyOf(pesos, tamanho * 2);
+            }
+            slots[tamanho] = slot;
+            pesos[tamanho] = peso;
+            tamanho++;
+        }
+
+        int remapear(int[] novoSlot) {
+            int escrita = 0;
+            for (int i = 0; i < tamanho; i++) {
+                int destino = novoSlot[slots[i]];
+                if (destino >= 0) {
+                    slots[escrita] = destino;
+                    pesos[escrita] = pesos[i];
+                    escrita++;
+                }
+            }
+            tamanho = escrita;
+            return tamanho;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.fiap.challenge.busca;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de prefixos em memória para autocompletar
+ * Cada texto é registrado a partir do início de cada palavra, de forma que "inspi"
+ * sugira "Notebook Dell Inspiron". As chaves ficam ordenadas (TreeMap), e um prefixo
+ * vira uma faixa contígua percorrida sem varrer o restante do índice.
+ */
+public class IndiceSugestoes {
+
+    private static final char SEPARADOR = '\u0001';
+    private static final int MAXIMO_VARREDURA = 2000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // chave: sufixo normalizado + separador + tipo + separador + texto original
+    private final TreeMap<String, Entrada> chaves = new TreeMap<>();
+    // ocorrências de cada sugestão (a mesma cidade pode vir de vários PDVs)
+    private final Map<Sugestao, Integer> ocorrencias = new HashMap<>();
+    // sugestões geradas por cada registro (ex: "produto:10"), para atualizações incrementais
+    private final Map<String, List<Sugestao>> contribuicoes = new HashMap<>();
+
+    /**
+     * Texto sugerido e sua origem (produto, codigo, pdv, cidade, venda)
+     */
+    public record Sugestao(String tipo, String texto) {
+    }
+
+    /**
+     * Sugestão encontrada com a quantidade de registros que a originaram
+     */
+    public record Resultado(String tipo, String texto, int ocorrencias) {
+    }
+
+    private record Entrada(Sugestao sugestao, boolean inicioDoTexto) {
+    }
+
+    /**
+     * Substitui as sugestões geradas por um registro (cadastro ou alteração)
+     * @param origem Identificador do registro, ex: "produto:10"
+     * @param sugestoes Novas sugestões do registro (vazio na remoção)
+     */
+    public void substituir(String origem, List<Sugestao> sugestoes) {
+        lock.writeLock().lock();
+        try {
+            List<Sugestao> anteriores = contribuicoes.remove(origem);
+            if (anteriores != null) {
+                anteriores.forEach(sugestao -> alterarOcorrencias(sugestao, -1));
+            }
+            List<Sugestao> validas = sugestoes.stream().filter(s -> s.texto() != null && !s.texto().isBlank()).toList();
+            if (!validas.isEmpty()) {
+                validas.forEach(sugestao -> alterarOcorrencias(sugestao, 1));
+                contribuicoes.put(origem, validas);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Soma (ou subtrai) ocorrências de uma sugestão sem origem individual, como o produto das vendas
+     * @param sugestao Sugestão afetada
+     * @param quantidade Ocorrências a somar (negativo para remover)
+     */
+    public void alterar(Sugestao sugestao, int quantidade) {
+        if (sugestao.texto() == null || sugestao.texto().isBlank() || quantidade == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            alterarOcorrencias(sugestao, quantidade);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sugere textos que começam com o prefixo (no início do texto ou de qualquer palavra)
+     * Ordena por início do texto, depois por ocorrências e por tamanho
+     * @param prefixo Texto digitado
+     * @param limite Quantidade máxima de sugestões
+     * @return Melhores sugestões
+     */
+    public List<Resultado> sugerir(String prefixo, int limite) {
+        String normalizado = NormalizadorTexto.normalizar(prefixo).trim().replaceAll("\\s+", " ");
+        if (normalizado.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            SortedMap<String, Entrada> faixa = chaves.subMap(normalizado, normalizado + Character.MAX_VALUE);
+            Map<Sugestao, Boolean> encontradas = new LinkedHashMap<>();
+            int varridas = 0;
+            for (Entrada entrada : faixa.values()) {
+                if (++varridas > MAXIMO_VARREDURA) {
+                    break;
+                }
+                encontradas.merge(entrada.sugestao(), entrada.inicioDoTexto(), Boolean::logicalOr);
+            }
+
+            return encontradas.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<Sugestao, Boolean>, Boolean>comparing(Map.Entry::getValue).reversed()
+                            .thenComparing(e -> -ocorrencias.getOrDefault(e.getKey(), 0))
+                            .thenComparing(e -> e.getKey().texto().length())
+                            .thenComparing(e -> e.getKey().texto()))
+                    .limit(limite)
+                    .map(e -> new Resultado(e.getKey().tipo(), e.getKey().texto(), ocorrencias.getOrDefault(e.getKey(), 0)))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void alterarOcorrencias(Sugestao sugestao, int quantidade) {
+        int total = ocorrencias.getOrDefault(sugestao, 0) + quantidade;
+        if (total > 0) {
+            if (ocorrencias.put(sugestao, total) == null) {
+                registrarChaves(sugestao, true);
+            }
+        } else if (ocorrencias.remove(sugestao) != null) {
+            registrarChaves(sugestao, false);
+        }
+    }
+
+    private void registrarChaves(Sugestao sugestao, boolean adicionar) {
+        List<String> palavras = new ArrayList<>(List.of(NormalizadorTexto.normalizar(sugestao.texto()).trim().split("\\s+")));
+        for (int i = 0; i < palavras.size(); i++) {
+            if (palavras.get(i).isEmpty()) {
+                continue;
+            }
+            String sufixo = String.join(" ", palavras.subList(i, palavras.size()));
+            String chave = sufixo + SEPARADOR + sugestao.tipo() + SEPARADOR + sugestao.texto();
+            if (adicionar) {
+                chaves.put(chave, new Entrada(sugestao, i == 0));
+            } else {
+                chaves.remove(chave);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.fiap.challenge.busca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas em memória para busca por trecho e tolerante a erros de digitação
+ * Segue a ideia do pg_trgm: cada palavra gera trigramas com espaços de borda, e a
+ * similaridade é a fração dos trigramas da consulta encontrada no campo, combinada
+ * com a similaridade de Jaccard. Trechos contidos literalmente recebem pontuação máxima.
+ */
+public class IndiceTrigramas {
+
+    private final int quantidadeCampos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Uma lista de postagens por campo, para permitir buscas restritas a um campo
+    private final List<Map<String, Postagens>> postagensPorCampo = new ArrayList<>();
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private long[] ids = new long[64];
+    private String[][] textos = new String[64][];
+    private int[][] totalTrigramas = new int[64][];
+    private final BitSet removidos = new BitSet();
+    private int slots;
+
+    /**
+     * Documento encontrado e sua similaridade com a consulta (0 a 1)
+     */
+    public record Acerto(Long id, double similaridade) {
+    }
+
+    /**
+     * Resultado de uma busca: total encontrado e acertos da página, do mais similar ao menos similar
+     */
+    public record Resultado(int total, List<Acerto> acertos) {
+    }
+
+    /**
+     * @param quantidadeCampos Quantidade de campos textuais de cada documento
+     */
+    public IndiceTrigramas(int quantidadeCampos) {
+        this.quantidadeCampos = quantidadeCampos;
+        for (int i = 0; i < quantidadeCampos; i++) {
+            postagensPorCampo.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Indexa (ou reindexa) um documento
+     * @param id ID do documento
+     * @param campos Textos dos campos, na ordem definida na construção do índice
+     */
+    public void indexar(Long id, String... campos) {
+        String[] normalizados = new String[quantidadeCampos];
+        List<Set<String>> trigramas = new ArrayList<>();
+        for (int campo = 0; campo < quantidadeCampos; campo++) {
+            normalizados[campo] = NormalizadorTexto.normalizar(campo < campos.length ? campos[campo] : null);
+            trigramas.add(trigramas(normalizados[campo]));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removerSlot(id);
+            int slot = novoSlot(id, normalizados, trigramas);
+            for (int campo = 0; campo < quantidadeCampos; campo++) {
+                Map<String, Postagens> postagens = postagensPorCampo.get(campo);
+                for (String trigrama : trigramas.get(campo)) {
+                    postagens.computeIfAbsent(trigrama, t -> new Postagens()).adicionar(slot);
+                }
+            }
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um documento do índice
+     * @param id ID do documento
+     */
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerSlot(id);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca documentos similares à consulta
+     * @param consulta Texto digitado
+     * @param campo Índice do campo a pesquisar, ou null para todos
+     * @param similaridadeMinima Similaridade mínima para um documento ser retornado
+     * @param inicio Posição do primeiro resultado da página
+     * @param limite Quantidade máxima de resultados da página
+     * @return Total encontrado e acertos da página
+     */
+    public Resultado buscar(String consulta, Integer campo, double similaridadeMinima, int inicio, int limite) {
+        String normalizada = NormalizadorTexto.normalizar(consulta).trim();
+        if (normalizada.isEmpty()) {
+            return new Resultado(0, List.of());
+        }
+        Set<String> trigramasConsulta = trigramas(normalizada);
+
+        lock.readLock().lock();
+        try {
+            double[] melhor = new double[slots];
+            int primeiro = campo != null ? campo : 0;
+            int ultimo = campo != null ? campo : quantidadeCampos - 1;
+
+            for (int c = primeiro; c <= ultimo; c++) {
+                int[] comuns = new int[slots];
+                Map<String, Postagens> postagens = postagensPorCampo.get(c);
+                for (String trigrama : trigramasConsulta) {
+                    Postagens lista = postagens.get(trigrama);
+                    if (lista != null) {
+                        for (int i = 0; i < lista.tamanho; i++) {
+                            comuns[lista.slots[i]]++;
+                        }
+                    }
+                }
+
+                for (int slot = 0; slot < slots; slot++) {
+                    // Apenas candidatos com trigramas em comum; slots removidos são ignorados
+                    if (comuns[slot] == 0 || removidos.get(slot)) {
+                        continue;
+                    }
+                    double similaridade;
+                    if (textos[slot][c].contains(normalizada)) {
+                        similaridade = 1.0;
+                    } else {
+                        double porTrecho = (double) comuns[slot] / trigramasConsulta.size();
+                        double jaccard = (double) comuns[slot]
+                                / (trigramasConsulta.size() + totalTrigramas[slot][c] - comuns[slot]);
+                        similaridade = 0.8 * porTrecho + 0.2 * jaccard;
+                    }
+                    melhor[slot] = Math.max(melhor[slot], similaridade);
+                }
+            }
+
+            List<Integer> encontrados = new ArrayList<>();
+            for (int slot = 0; slot < slots; slot++) {
+                if (melhor[slot] > 0 && melhor[slot] >= similaridadeMinima) {
+                    encontrados.add(slot);
+                }
+            }
+            encontrados.sort((a, b) -> {
+                int comparacao = Double.compare(melhor[b], melhor[a]);
+                return comparacao != 0 ? comparacao : Long.compare(ids[a], ids[b]);
+            });
+
+            List<Acerto> pagina = new ArrayList<>();
+            for (int i = inicio; i < encontrados.size() && pagina.size() < limite; i++) {
+                int slot = encontrados.get(i);
+                pagina.add(new Acerto(ids[slot], Math.round(melhor[slot] * 1000) / 1000.0));
+            }
+            return new Resultado(encontrados.size(), pagina);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Trigramas de cada palavra do texto, com dois espaços antes e um depois (como no pg_trgm)
+     */
+    static Set<String> trigramas(String normalizado) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (String palavra : normalizado.split("[^a-z0-9]+")) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            String comBordas = "  " + palavra + " ";
+            for (int i = 0; i + 3 <= comBordas.length(); i++) {
+                trigramas.add(comBordas.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+
+    private int novoSlot(Long id, String[] normalizados, List<Set<String>> trigramas) {
+        if (slots == ids.length) {
+            ids = Arrays.copyOf(ids, slots * 2);
+            textos = Arrays.copyOf(textos, slots * 2);
+            totalTrigramas = Arrays.copyOf(totalTrigramas, slots * 2);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        textos[slot] = normalizados;
+        totalTrigramas[slot] = trigramas.stream().mapToInt(Set::size).toArray();
+        slotPorId.put(id, slot);
+        return slot;
+    }
+
+    private void removerSlot(Long id) {
+        Integer slot = slotPorId.remove(id);
+        if (slot != null) {
+            removidos.set(slot);
+        }
+    }
+
+    /**
+     * Reescreve as postagens sem os slots removidos quando eles passam de metade do índice
+     */
+    private void compactarSeNecessario() {
+        int quantidadeRemovidos = removidos.cardinality();
+        if (quantidadeRemovidos < 256 || quantidadeRemovidos * 2 < slots) {
+            return;
+        }
+
+        int[] novoSlot = new int[slots];
+        int proximo = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (removidos.get(slot)) {
+                novoSlot[slot] = -1;
+                continue;
+            }
+            novoSlot[slot] = proximo;
+            ids[proximo] = ids[slot];
+            textos[proximo] = textos[slot];
+            totalTrigramas[proximo] = totalTrigramas[slot];
+            slotPorId.put(ids[proximo], proximo);
+            proximo++;
+        }
+        Arrays.fill(textos, proximo, slots, null);
+
+        for (Map<String, Postagens> postagens : postagensPorCampo) {
+            postagens.values().removeIf(lista -> lista.remapear(novoSlot) == 0);
+        }
+        slots = proximo;
+        removidos.clear();
+    }
+
+    /**
+     * Slots (em ordem crescente) que contêm um trigrama
+     */
+    private static final class Postagens {
+        private int[] slots = new int[4];
+        private int tamanho;
+
+        void adicionar(int slot) {
+            if (tamanho == slots.length) {
+                slots = Arrays.copyOf(slots, tamanho * 2);
+            }
+            slots[tamanho++] = slot;
+        }
+
+        int remapear(int[] novoSlot) {
+            int escrita = 0;
+            for (int i = 0; i < tamanho; i++) {
+                int destino = novoSlot[slots[i]];
+                if (destino >= 0) {
+                    slots[escrita++] = destino;
+                }
+            }
+            tamanho = escrita;
+            return tamanho;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.fiap.challenge.busca;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mantém um índice em memória por usuário, construído sob demanda a partir do banco
+ * Índices de usuários ociosos são descartados e reconstruídos no próximo acesso
+ */
+public class IndiceUsuarioCache<I> {
+
+    private final Cache<Long, I> indices;
+    private final Function<Long, I> construtor;
+
+    /**
+     * @param nome Nome usado nas métricas do cache
+     * @param maximoUsuarios Quantidade máxima de índices mantidos em memória
+     * @param ociosidade Tempo sem acesso após o qual o índice é descartado
+     * @param construtor Função que constrói o índice completo de um usuário
+     * @param meterRegistry Registro de métricas
+     */
+    public IndiceUsuarioCache(String nome, long maximoUsuarios, Duration ociosidade,
+                              Function<Long, I> construtor, MeterRegistry meterRegistry) {
+        this.construtor = construtor;
+        this.indices = Caffeine.newBuilder()
+                .maximumSize(maximoUsuarios)
+                .expireAfterAccess(ociosidade)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indices, nome);
+    }
+
+    /**
+     * Recupera o índice do usuário, construindo-o se ainda não estiver em memória
+     * Chamadas concorrentes para o mesmo usuário aguardam uma única construção
+     */
+    public I obter(Long usuarioId) {
+        return indices.get(usuarioId, construtor);
+    }
+
+    /**
+     * Aplica uma alteração incremental ao índice, apenas se ele já estiver em memória
+     * Se houver uma construção em andamento, a alteração é aplicada logo após ela terminar
+     */
+    public void atualizar(Long usuarioId, Consumer<I> alteracao) {
+        indices.asMap().computeIfPresent(usuarioId, (id, indice) -> {
+            alteracao.accept(indice);
+            return indice;
+        });
+    }
+
+    /**
+     * Descarta o índice do usuário, forçando reconstrução no próximo acesso
+     */
+    public void invalidar(Long usuarioId) {
+        indices.invalidate(usuarioId);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fiap.challenge.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto para os índices de busca em memória
+ * Remove acentos e caixa, de forma que "Eletrônicos" e "eletronicos" gerem o mesmo termo
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    // Palavras muito frequentes em português que não ajudam a ranquear resultados
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "com", "para", "por", "um", "uma"
+    );
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * @param texto Texto original
+     * @return Texto sem acentos e em minúsculas (vazio se nulo)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Quebra o texto em termos normalizados, descartando stopwords
+     * @param texto Texto original
+     * @return Termos na ordem em que aparecem
+     */
+    public static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (!termo.isEmpty() && !STOPWORDS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+}
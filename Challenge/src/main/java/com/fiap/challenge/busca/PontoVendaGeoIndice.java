@@ -0,0 +1,81 @@
+package com.fiap.challenge.busca;
+
+import com.fiap.challenge.event.PontoVendaAlteradoEvent;
+import com.fiap.challenge.event.PontosVendaRemovidosEmLoteEvent;
+import com.fiap.challenge.repository.PontoVendaRepository;
+import com.fiap.challenge.repository.PontoVendaRepository.PontoVendaCoordenada;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Índice espacial dos PDVs georreferenciados, um por usuário
+ * Construído no primeiro acesso e mantido em sincronia pelos eventos de alteração de PDV
+ */
+@Component
+@RequiredArgsConstructor
+public class PontoVendaGeoIndice {
+
+    private final PontoVendaRepository pontoVendaRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${busca.indice.max-usuarios:1000}")
+    private long maximoUsuarios;
+
+    @Value("${busca.indice.ociosidade:30m}")
+    private Duration ociosidade;
+
+    private IndiceUsuarioCache<IndiceEspacial> indices;
+
+    @PostConstruct
+    void init() {
+        this.indices = new IndiceUsuarioCache<>("busca.pdv.geo", maximoUsuarios, ociosidade, this::construir, meterRegistry);
+    }
+
+    /**
+     * Busca os PDVs do usuário mais próximos de uma coordenada
+     * @param usuarioId ID do usuário proprietário
+     * @param latitude Latitude da origem
+     * @param longitude Longitude da origem
+     * @param quantidade Quantidade máxima de PDVs
+     * @param raioKm Distância máxima em km, ou null para não limitar
+     * @return PDVs encontrados, do mais próximo ao mais distante
+     */
+    public List<IndiceEspacial.Vizinho> buscar(Long usuarioId, double latitude, double longitude,
+                                               int quantidade, Double raioKm) {
+        return indices.obter(usuarioId).buscar(latitude, longitude, quantidade, raioKm);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPontoVendaAlterado(PontoVendaAlteradoEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> {
+            if (event.removido() || event.latitude() == null || event.longitude() == null) {
+                indice.remover(event.pontoVendaId());
+            } else {
+                indice.indexar(event.pontoVendaId(), event.latitude(), event.longitude());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPontosVendaRemovidosEmLote(PontosVendaRemovidosEmLoteEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> event.pontoVendaIds().forEach(indice::remover));
+    }
+
+    private IndiceEspacial construir(Long usuarioId) {
+        IndiceEspacial indice = new IndiceEspacial();
+        List<PontoVendaCoordenada> coordenadas = pontoVendaRepository.findCoordenadasByUsuarioId(usuarioId);
+        for (PontoVendaCoordenada coordenada : coordenadas) {
+            indice.carregar(coordenada.getId(), coordenada.getLatitude(), coordenada.getLongitude());
+        }
+        indice.reconstruir();
+        return indice;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fiap.challenge.busca;
+
+import com.fiap.challenge.event.PontoVendaAlteradoEvent;
+import com.fiap.challenge.event.PontosVendaRemovidosEmLoteEvent;
+import com.fiap.challenge.repository.PontoVendaRepository;
+import com.fiap.challenge.repository.PontoVendaRepository.PontoVendaTexto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Índice de trigramas dos PDVs (nome, endereço e bairro), um por usuário
+ * Construído no primeiro acesso e mantido em sincronia pelos eventos de alteração de PDV
+ */
+@Component
+@RequiredArgsConstructor
+public class PontoVendaIndice {
+
+    /**
+     * Campos pesquisáveis, na ordem em que são indexados
+     */
+    public enum Campo {
+        NOME, ENDERECO, BAIRRO
+    }
+
+    private final PontoVendaRepository pontoVendaRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${busca.indice.max-usuarios:1000}")
+    private long maximoUsuarios;
+
+    @Value("${busca.indice.ociosidade:30m}")
+    private Duration ociosidade;
+
+    @Value("${busca.pdv.similaridade-minima:0.3}")
+    private double similaridadeMinima;
+
+    private IndiceUsuarioCache<IndiceTrigramas> indices;
+
+    @PostConstruct
+    void init() {
+        this.indices = new IndiceUsuarioCache<>("busca.pdv", maximoUsuarios, ociosidade, this::construir, meterRegistry);
+    }
+
+    /**
+     * Busca PDVs do usuário por similaridade
+     * @param usuarioId ID do usuário proprietário
+     * @param consulta Texto digitado
+     * @param campo Campo a pesquisar, ou null para nome, endereço e bairro
+     * @param inicio Posição do primeiro resultado
+     * @param limite Quantidade máxima de resultados
+     * @return Total encontrado e acertos da página
+     */
+    public IndiceTrigramas.Resultado buscar(Long usuarioId, String consulta, Campo campo, int inicio, int limite) {
+        return indices.obter(usuarioId).buscar(consulta, campo != null ? campo.ordinal() : null,
+                similaridadeMinima, inicio, limite);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPontoVendaAlterado(PontoVendaAlteradoEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> {
+            if (event.removido()) {
+                indice.remover(event.pontoVendaId());
+            } else {
+                indice.indexar(event.pontoVendaId(), event.nome(), event.endereco(), event.bairro());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPontosVendaRemovidosEmLote(PontosVendaRemovidosEmLoteEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> event.pontoVendaIds().forEach(indice::remover));
+    }
+
+    private IndiceTrigramas construir(Long usuarioId) {
+        IndiceTrigramas indice = new IndiceTrigramas(Campo.values().length);
+        List<PontoVendaTexto> pontosVenda = pontoVendaRepository.findTextosByUsuarioId(usuarioId);
+        for (PontoVendaTexto pontoVenda : pontosVenda) {
+            indice.indexar(pontoVenda.getId(), pontoVenda.getNome(), pontoVenda.getEndereco(), pontoVenda.getBairro());
+        }
+        return indice;
+    }
+}
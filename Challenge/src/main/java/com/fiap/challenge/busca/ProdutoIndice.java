@@ -0,0 +1,96 @@
+package com.fiap.challenge.busca;
+
+import com.fiap.challenge.event.ProdutoAlteradoEvent;
+import com.fiap.challenge.event.ProdutosRemovidosEmLoteEvent;
+import com.fiap.challenge.repository.ProdutoRepository;
+import com.fiap.challenge.repository.ProdutoRepository.ProdutoTexto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Índice de busca textual dos produtos (nome, descrição e fabricante), um por usuário
+ * Construído no primeiro acesso e mantido em sincronia pelos eventos de alteração de produto
+ */
+@Component
+@RequiredArgsConstructor
+public class ProdutoIndice {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoIndice.class);
+
+    private static final float PESO_NOME = 3f;
+    private static final float PESO_FABRICANTE = 2f;
+    private static final float PESO_DESCRICAO = 1f;
+
+    private final ProdutoRepository produtoRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${busca.indice.max-usuarios:1000}")
+    private long maximoUsuarios;
+
+    @Value("${busca.indice.ociosidade:30m}")
+    private Duration ociosidade;
+
+    private IndiceUsuarioCache<IndiceInvertido> indices;
+
+    @PostConstruct
+    void init() {
+        this.indices = new IndiceUsuarioCache<>("busca.produtos", maximoUsuarios, ociosidade, this::construir, meterRegistry);
+    }
+
+    /**
+     * Busca produtos do usuário por relevância
+     * @param usuarioId ID do usuário proprietário
+     * @param consulta Texto digitado
+     * @param inicio Posição do primeiro resultado
+     * @param limite Quantidade máxima de resultados
+     * @return Total encontrado e IDs da página
+     */
+    public IndiceInvertido.Resultado buscar(Long usuarioId, String consulta, int inicio, int limite) {
+        return indices.obter(usuarioId).buscar(consulta, inicio, limite);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> {
+            if (event.removido()) {
+                indice.remover(event.produtoId());
+            } else {
+                indice.indexar(event.produtoId(), campos(event.nome(), event.descricao(), event.fabricante()));
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProdutosRemovidosEmLote(ProdutosRemovidosEmLoteEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> event.produtoIds().forEach(indice::remover));
+    }
+
+    private IndiceInvertido construir(Long usuarioId) {
+        long inicio = System.nanoTime();
+        IndiceInvertido indice = new IndiceInvertido();
+        for (ProdutoTexto produto : produtoRepository.findTextosByUsuarioId(usuarioId)) {
+            indice.indexar(produto.getId(), campos(produto.getNome(), produto.getDescricao(), produto.getFabricante()));
+        }
+        log.debug("Índice de produtos do usuário {} construído com {} itens em {} ms",
+                usuarioId, indice.tamanho(), (System.nanoTime() - inicio) / 1_000_000);
+        return indice;
+    }
+
+    private static List<IndiceInvertido.Campo> campos(String nome, String descricao, String fabricante) {
+        return List.of(
+                new IndiceInvertido.Campo(nome, PESO_NOME),
+                new IndiceInvertido.Campo(fabricante, PESO_FABRICANTE),
+                new IndiceInvertido.Campo(descricao, PESO_DESCRICAO)
+        );
+    }
+}
@@ -0,0 +1,144 @@
+package com.fiap.challenge.busca;
+
+import com.fiap.challenge.busca.IndiceSugestoes.Sugestao;
+import com.fiap.challenge.event.PontoVendaAlteradoEvent;
+import com.fiap.challenge.event.PontosVendaRemovidosEmLoteEvent;
+import com.fiap.challenge.event.ProdutoAlteradoEvent;
+import com.fiap.challenge.event.ProdutosRemovidosEmLoteEvent;
+import com.fiap.challenge.event.VendaAlteradaEvent;
+import com.fiap.challenge.event.VendasAlteradasEmLoteEvent;
+import com.fiap.challenge.repository.PontoVendaRepository;
+import com.fiap.challenge.repository.ProdutoRepository;
+import com.fiap.challenge.repository.VendaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Índice de autocompletar por usuário sobre nomes e códigos de produtos,
+ * nomes e cidades de PDVs e produtos das vendas
+ * Construído no primeiro acesso e mantido pelos eventos de alteração de cada entidade
+ */
+@Component
+@RequiredArgsConstructor
+public class SugestaoIndice {
+
+    public static final String TIPO_PRODUTO = "produto";
+    public static final String TIPO_CODIGO = "codigo";
+    public static final String TIPO_PDV = "pdv";
+    public static final String TIPO_CIDADE = "cidade";
+    public static final String TIPO_VENDA = "venda";
+
+    private final ProdutoRepository produtoRepository;
+    private final PontoVendaRepository pontoVendaRepository;
+    private final VendaRepository vendaRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${busca.indice.max-usuarios:1000}")
+    private long maximoUsuarios;
+
+    @Value("${busca.indice.ociosidade:30m}")
+    private Duration ociosidade;
+
+    private IndiceUsuarioCache<IndiceSugestoes> indices;
+
+    @PostConstruct
+    void init() {
+        this.indices = new IndiceUsuarioCache<>("busca.sugestoes", maximoUsuarios, ociosidade, this::construir, meterRegistry);
+    }
+
+    /**
+     * @param usuarioId ID do usuário proprietário
+     * @param prefixo Texto digitado
+     * @param limite Quantidade máxima de sugestões
+     * @return Melhores sugestões para o prefixo
+     */
+    public List<IndiceSugestoes.Resultado> sugerir(Long usuarioId, String prefixo, int limite) {
+        return indices.obter(usuarioId).sugerir(prefixo, limite);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProdutoAlterado(ProdutoAlteradoEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> indice.substituir(origemProduto(event.produtoId()),
+                event.removido() ? List.of() : sugestoesProduto(event.nome(), event.codigo())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPontoVendaAlterado(PontoVendaAlteradoEvent event) {
+        indices.atualizar(event.usuarioId(), indice -> indice.substituir(origemPontoVenda(event.pontoVendaId()),
+                event.removido() ? List.of() : sugestoesPontoVenda(event.nome(), event.cidade())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProdutosRemovidosEmLote(ProdutosRemovidosEmLoteEvent event) {
+        indices.atualizar(event.usuarioId(), indice ->
+                event.produtoIds().forEach(id -> indice.substituir(origemProduto(id), List.of())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPontosVendaRemovidosEmLote(PontosVendaRemovidosEmLoteEvent event) {
+        indices.atualizar(event.usuarioId(), indice ->
+                event.pontoVendaIds().forEach(id -> indice.substituir(origemPontoVenda(id), List.of())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        String anterior = event.anterior() != null ? event.anterior().produto() : null;
+        String atual = event.atual() != null ? event.atual().produto() : null;
+        if (Objects.equals(anterior, atual)) {
+            return;
+        }
+        indices.atualizar(event.usuarioId(), indice -> {
+            if (anterior != null) {
+                indice.alterar(new Sugestao(TIPO_VENDA, anterior), -1);
+            }
+            if (atual != null) {
+                indice.alterar(new Sugestao(TIPO_VENDA, atual), 1);
+            }
+        });
+    }
+
+    /**
+     * Alterações em lote descartam o índice do usuário, que é reconstruído no próximo acesso
+     * fallbackExecution: a importação grava vários lotes, cada um em sua transação, e publica fora delas
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasAlteradasEmLote(VendasAlteradasEmLoteEvent event) {
+        indices.invalidar(event.usuarioId());
+    }
+
+    private IndiceSugestoes construir(Long usuarioId) {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        produtoRepository.findTextosByUsuarioId(usuarioId).forEach(produto ->
+                indice.substituir(origemProduto(produto.getId()), sugestoesProduto(produto.getNome(), produto.getCodigo())));
+        pontoVendaRepository.findTextosByUsuarioId(usuarioId).forEach(pontoVenda ->
+                indice.substituir(origemPontoVenda(pontoVenda.getId()), sugestoesPontoVenda(pontoVenda.getNome(), pontoVenda.getCidade())));
+        vendaRepository.contarProdutosByUsuarioId(usuarioId).forEach(contagem ->
+                indice.alterar(new Sugestao(TIPO_VENDA, contagem.getProduto()), Math.toIntExact(contagem.getQuantidade())));
+        return indice;
+    }
+
+    private static String origemProduto(Long id) {
+        return TIPO_PRODUTO + ":" + id;
+    }
+
+    private static String origemPontoVenda(Long id) {
+        return TIPO_PDV + ":" + id;
+    }
+
+    private static List<Sugestao> sugestoesProduto(String nome, String codigo) {
+        return List.of(new Sugestao(TIPO_PRODUTO, nome), new Sugestao(TIPO_CODIGO, codigo));
+    }
+
+    private static List<Sugestao> sugestoesPontoVenda(String nome, String cidade) {
+        return List.of(new Sugestao(TIPO_PDV, nome), new Sugestao(TIPO_CIDADE, cidade));
+    }
+}
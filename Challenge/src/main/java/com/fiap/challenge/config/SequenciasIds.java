@@ -0,0 +1,113 @@
+package com.fiap.challenge.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Sequências de IDs das entidades (SEQUENCE com otimizador pooled-lo)
+ * Na inicialização, avança cada sequência para depois do maior ID da tabela, o que cobre bancos
+ * criados quando as colunas eram IDENTITY. Também reserva blocos de IDs para gravações feitas
+ * direto via JDBC, com a mesma convenção do Hibernate (cada valor da sequência é o início de um bloco).
+ */
+@Component
+@RequiredArgsConstructor
+public class SequenciasIds {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenciasIds.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Class<?>, Sequencia> sequencias = new HashMap<>();
+    private Dialect dialect;
+
+    private record Sequencia(String tabela, String nome, int alocacao) {
+    }
+
+    @PostConstruct
+    void init() {
+        // Injetar o EntityManagerFactory garante que o schema (e as sequências) já foi atualizado
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        for (EntityType<?> entidade : entityManagerFactory.getMetamodel().getEntities()) {
+            Sequencia sequencia = sequencia(entidade.getJavaType());
+            if (sequencia != null) {
+                sequencias.put(entidade.getJavaType(), sequencia);
+                ajustar(sequencia);
+            }
+        }
+    }
+
+    /**
+     * Cria um gerador de IDs para inserções JDBC de uma entidade
+     * Cada chamada à sequência reserva um bloco de allocationSize IDs, consumidos em memória
+     * @param entidade Classe da entidade
+     * @return Gerador de IDs (não é thread-safe; use um por operação)
+     */
+    public LongSupplier reservar(Class<?> entidade) {
+        Sequencia sequencia = sequencias.get(entidade);
+        if (sequencia == null) {
+            throw new IllegalArgumentException("Entidade sem sequência de IDs: " + entidade.getSimpleName());
+        }
+        String proximoValor = dialect.getSequenceSupport().getSequenceNextValString(sequencia.nome());
+
+        return new LongSupplier() {
+            private long proximo;
+            private long limite;
+
+            @Override
+            public long getAsLong() {
+                if (proximo >= limite) {
+                    proximo = jdbcTemplate.queryForObject(proximoValor, Long.class);
+                    limite = proximo + sequencia.alocacao();
+                }
+                return proximo++;
+            }
+        };
+    }
+
+    /**
+     * Reinicia a sequência após o maior ID existente, se ela estiver atrás dele
+     * Consulta o próximo valor (descartando um bloco) para nunca mover a sequência para trás
+     */
+    private void ajustar(Sequencia sequencia) {
+        Long maiorId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM " + sequencia.tabela(), Long.class);
+        if (maiorId == null || maiorId == 0) {
+            return;
+        }
+        Long proximo = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequencia.nome()), Long.class);
+        if (proximo != null && proximo <= maiorId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequencia.nome() + " RESTART WITH " + (maiorId + 1));
+            log.info("Sequência {} reiniciada em {} (maior ID de {}: {})",
+                    sequencia.nome(), maiorId + 1, sequencia.tabela(), maiorId);
+        }
+    }
+
+    private static Sequencia sequencia(Class<?> classe) {
+        Table tabela = classe.getAnnotation(Table.class);
+        for (Field campo : classe.getDeclaredFields()) {
+            SequenceGenerator gerador = campo.getAnnotation(SequenceGenerator.class);
+            if (campo.isAnnotationPresent(Id.class) && gerador != null && tabela != null) {
+                return new Sequencia(tabela.name(), gerador.sequenceName(), gerador.allocationSize());
+            }
+        }
+        return null;
+    }
+}
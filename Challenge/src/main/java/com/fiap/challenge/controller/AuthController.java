@@ -2,11 +2,17 @@ package com.fiap.challenge.controller;
 
 import com.fiap.challenge.dto.LoginRequest;
 import com.fiap.challenge.dto.LoginResponse;
+import com.fiap.challenge.dto.RefreshTokenRequest;
 import com.fiap.challenge.dto.RegisterRequest;
 import com.fiap.challenge.dto.UserResponse;
+import com.fiap.challenge.exception.ServicoSobrecarregadoException;
+import com.fiap.challenge.security.AuthRateLimiter;
+import com.fiap.challenge.security.TokenBucketLimiter;
 import com.fiap.challenge.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     /**
      * Endpoint de login
@@ -27,10 +34,18 @@ public class AuthController {
      * @return LoginResponse com token JWT e dados do usuário
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+                                               HttpServletRequest request) {
+        TokenBucketLimiter.Resultado limite = authRateLimiter.verificarLogin(request.getRemoteAddr(), loginRequest.getEmail());
+        if (!limite.permitido()) {
+            return limiteExcedido(limite);
+        }
+
         try {
             LoginResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (ServicoSobrecarregadoException e) {
+            return servicoIndisponivel(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -44,15 +59,81 @@ public class AuthController {
      * @return UserResponse com os dados do usuário criado
      */
     @PostMapping("/register")
-    public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest registerRequest,
+                                                 HttpServletRequest request) {
+        TokenBucketLimiter.Resultado limite = authRateLimiter.verificarRegistro(request.getRemoteAddr());
+        if (!limite.permitido()) {
+            return limiteExcedido(limite);
+        }
+
         try {
             UserResponse response = authService.register(registerRequest);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ServicoSobrecarregadoException e) {
+            return servicoIndisponivel(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    /**
+     * Endpoint de renovação de tokens
+     * POST /api/auth/refresh
+     *
+     * Troca um refresh token válido por um novo access token e um novo refresh token
+     *
+     * @param request Refresh token atual
+     * @return LoginResponse com o novo par de tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            LoginResponse response = authService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /**
+     * Endpoint de logout
+     * POST /api/auth/logout
+     *
+     * Revoga o refresh token informado e o access token enviado no header Authorization
+     *
+     * @param request Refresh token da sessão
+     * @param authorizationHeader Header Authorization (opcional)
+     * @return Status 204 No Content
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorizationHeader) {
+        String accessToken = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : null;
+        authService.logout(request.getRefreshToken(), accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint de logout de todas as sessões
+     * POST /api/auth/logout-all
+     *
+     * Requer autenticação (token JWT no header Authorization)
+     * Revoga todos os refresh tokens e access tokens já emitidos para o usuário
+     *
+     * @return Status 204 No Content
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutTodos() {
+        try {
+            authService.logoutTodos();
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
     /**
      * Endpoint para recuperar o usuário logado
      * GET /api/auth/me
@@ -81,4 +162,18 @@ public class AuthController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("API está funcionando!");
     }
+
+    private <T> ResponseEntity<T> limiteExcedido(TokenBucketLimiter.Resultado limite) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(limite.retryAfterSegundos()))
+                .header("X-RateLimit-Limit", String.valueOf(limite.limite()))
+                .header("X-RateLimit-Remaining", String.valueOf(limite.restantes()))
+                .build();
+    }
+
+    private <T> ResponseEntity<T> servicoIndisponivel(ServicoSobrecarregadoException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSegundos()))
+                .build();
+    }
 }
@@ -2,15 +2,21 @@ package com.fiap.challenge.controller;
 
 import com.fiap.challenge.dto.CardInfoResponse;
 import com.fiap.challenge.dto.CreateVendaRequest;
+import com.fiap.challenge.dto.PaginaResponse;
+import com.fiap.challenge.dto.SerieResponse;
 import com.fiap.challenge.dto.VendaPorTipoResponse;
 import com.fiap.challenge.dto.VendaResponse;
+import com.fiap.challenge.dto.VerificacaoResumoResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.service.DashboardService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -32,14 +38,20 @@ public class DashboardController {
      * - Vendas por status (concluídas, pendentes, canceladas)
      * - Ticket médio
      *
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
      * @return CardInfoResponse com as estatísticas
      */
     @GetMapping("/cards")
-    public ResponseEntity<CardInfoResponse> getCardInfo() {
+    public ResponseEntity<CardInfoResponse> getCardInfo(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
         try {
-            CardInfoResponse response = dashboardService.getCardInfo();
+            CardInfoResponse response = dashboardService.getCardInfo(de, ate);
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -50,14 +62,95 @@ public class DashboardController {
      *
      * Retorna a lista completa de vendas ordenadas por data (mais recente primeiro)
      *
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
      * @return Lista de VendaResponse
      */
     @GetMapping("/vendas")
-    public ResponseEntity<List<VendaResponse>> getVendas() {
+    public ResponseEntity<List<VendaResponse>> getVendas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
         try {
-            List<VendaResponse> vendas = dashboardService.getVendasUsuario();
+            List<VendaResponse> vendas = dashboardService.getVendasUsuario(de, ate);
             return ResponseEntity.ok(vendas);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para recuperar as vendas do usuário logado em páginas
+     * GET /api/dashboard/vendas/pagina?cursor=...&limite=20
+     *
+     * Paginação por cursor, da venda mais recente para a mais antiga
+     *
+     * @param cursor Cursor da página anterior (omitir na primeira página)
+     * @param limite Quantidade máxima de itens da página (máximo 100)
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @return PaginaResponse de VendaResponse
+     */
+    @GetMapping("/vendas/pagina")
+    public ResponseEntity<PaginaResponse<VendaResponse>> getVendasPaginadas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return paginar(null, null, cursor, limite, de, ate);
+    }
+
+    /**
+     * Endpoint para recuperar vendas filtradas por tipo em páginas
+     * GET /api/dashboard/vendas/tipo/{tipo}/pagina?cursor=...&limite=20
+     *
+     * @param tipo Tipo da venda para filtrar
+     * @param cursor Cursor da página anterior (omitir na primeira página)
+     * @param limite Quantidade máxima de itens da página (máximo 100)
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @return PaginaResponse de VendaResponse filtradas por tipo
+     */
+    @GetMapping("/vendas/tipo/{tipo}/pagina")
+    public ResponseEntity<PaginaResponse<VendaResponse>> getVendasPorTipoPaginadas(
+            @PathVariable String tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return paginar(tipo, null, cursor, limite, de, ate);
+    }
+
+    /**
+     * Endpoint para recuperar vendas filtradas por status em páginas
+     * GET /api/dashboard/vendas/status/{status}/pagina?cursor=...&limite=20
+     *
+     * @param status Status da venda para filtrar
+     * @param cursor Cursor da página anterior (omitir na primeira página)
+     * @param limite Quantidade máxima de itens da página (máximo 100)
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @return PaginaResponse de VendaResponse filtradas por status
+     */
+    @GetMapping("/vendas/status/{status}/pagina")
+    public ResponseEntity<PaginaResponse<VendaResponse>> getVendasPorStatusPaginadas(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return paginar(null, status, cursor, limite, de, ate);
+    }
+
+    private ResponseEntity<PaginaResponse<VendaResponse>> paginar(String tipo, String status, String cursor, Integer limite,
+                                                                  LocalDate de, LocalDate ate) {
+        try {
+            PaginaResponse<VendaResponse> pagina = dashboardService.getVendasPaginadas(tipo, status, cursor, limite, de, ate);
+            return ResponseEntity.ok(pagina);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -69,14 +162,21 @@ public class DashboardController {
      * Exemplos de tipos: Eletrônicos, Roupas, Alimentos, Livros, etc.
      *
      * @param tipo Tipo da venda para filtrar
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
      * @return Lista de VendaResponse filtradas por tipo
      */
     @GetMapping("/vendas/tipo/{tipo}")
-    public ResponseEntity<List<VendaResponse>> getVendasPorTipo(@PathVariable String tipo) {
+    public ResponseEntity<List<VendaResponse>> getVendasPorTipo(
+            @PathVariable String tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
         try {
-            List<VendaResponse> vendas = dashboardService.getVendasPorTipo(tipo);
+            List<VendaResponse> vendas = dashboardService.getVendasPorTipo(tipo, de, ate);
             return ResponseEntity.ok(vendas);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -88,14 +188,21 @@ public class DashboardController {
      * Status possíveis: Concluída, Pendente, Cancelada
      *
      * @param status Status da venda para filtrar
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
      * @return Lista de VendaResponse filtradas por status
      */
     @GetMapping("/vendas/status/{status}")
-    public ResponseEntity<List<VendaResponse>> getVendasPorStatus(@PathVariable String status) {
+    public ResponseEntity<List<VendaResponse>> getVendasPorStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
         try {
-            List<VendaResponse> vendas = dashboardService.getVendasPorStatus(status);
+            List<VendaResponse> vendas = dashboardService.getVendasPorStatus(status, de, ate);
             return ResponseEntity.ok(vendas);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -104,16 +211,27 @@ public class DashboardController {
      * Endpoint para recuperar estatísticas de vendas agrupadas por tipo
      * GET /api/dashboard/vendas/por-tipo
      *
-     * Retorna valor total e quantidade de vendas para cada tipo
+     * Retorna valor total e quantidade de vendas para cada tipo, calculados em uma única consulta
+     * Com porStatus=true, cada tipo é detalhado por status (campo status preenchido)
      *
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param status Considera apenas vendas com este status (opcional)
+     * @param porStatus Detalha cada tipo por status (opcional, padrão false)
      * @return Lista de VendaPorTipoResponse
      */
     @GetMapping("/vendas/por-tipo")
-    public ResponseEntity<List<VendaPorTipoResponse>> getVendasAgrupadasPorTipo() {
+    public ResponseEntity<List<VendaPorTipoResponse>> getVendasAgrupadasPorTipo(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean porStatus) {
         try {
-            List<VendaPorTipoResponse> vendas = dashboardService.getVendasAgrupadasPorTipo();
+            List<VendaPorTipoResponse> vendas = dashboardService.getVendasAgrupadasPorTipo(de, ate, status, porStatus);
             return ResponseEntity.ok(vendas);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -150,4 +268,63 @@ public class DashboardController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Endpoint para recuperar a série temporal de faturamento e quantidade de vendas
+     * GET /api/dashboard/serie?granularidade=dia|semana|mes&por=tipo|status&de=&ate=
+     *
+     * Calculada a partir do resumo diário; intervalos sem vendas são retornados zerados
+     *
+     * @param granularidade dia (padrão), semana ou mes
+     * @param por tipo ou status para separar uma série por grupo (opcional)
+     * @param de Primeiro dia do período, inclusivo (opcional, padrão: primeiro dia com vendas)
+     * @param ate Último dia do período, inclusivo (opcional, padrão: hoje)
+     * @return SerieResponse com as séries
+     */
+    @GetMapping("/serie")
+    public ResponseEntity<SerieResponse> getSerie(
+            @RequestParam(required = false) String granularidade,
+            @RequestParam(required = false) String por,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        try {
+            return ResponseEntity.ok(dashboardService.getSerie(granularidade, por, de, ate));
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para verificar o resumo diário de vendas do usuário logado
+     * GET /api/dashboard/resumo-diario/verificacao
+     *
+     * Compara o resumo usado pelos cards e agrupamentos com os totais calculados a partir das vendas
+     *
+     * @return VerificacaoResumoResponse com as linhas divergentes
+     */
+    @GetMapping("/resumo-diario/verificacao")
+    public ResponseEntity<VerificacaoResumoResponse> verificarResumoDiario() {
+        try {
+            return ResponseEntity.ok(dashboardService.verificarResumoDiario());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para reconstruir o resumo diário de vendas do usuário logado a partir das vendas
+     * POST /api/dashboard/resumo-diario/reconstrucao
+     *
+     * @return VerificacaoResumoResponse com as divergências corrigidas
+     */
+    @PostMapping("/resumo-diario/reconstrucao")
+    public ResponseEntity<VerificacaoResumoResponse> reconstruirResumoDiario() {
+        try {
+            return ResponseEntity.ok(dashboardService.reconstruirResumoDiario());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 }
@@ -1,8 +1,16 @@
 package com.fiap.challenge.controller;
 
+import com.fiap.challenge.dto.AlteracaoAtivoLoteRequest;
 import com.fiap.challenge.dto.ColunaPDVResponse;
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaResponse;
 import com.fiap.challenge.dto.CreatePDVRequest;
+import com.fiap.challenge.dto.ExclusaoLoteRequest;
+import com.fiap.challenge.dto.OperacaoLoteResponse;
+import com.fiap.challenge.dto.PDVBuscaResponse;
+import com.fiap.challenge.dto.PDVProximoResponse;
 import com.fiap.challenge.dto.PDVResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.service.PontoVendaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -55,6 +63,26 @@ public class PontoVendaController {
         }
     }
 
+    /**
+     * Endpoint para consultar pontos de venda com filtros, ordenação e paginação no servidor
+     * POST /api/pdv/consulta
+     *
+     * Os filtros são combinados com AND e aceitam apenas os campos de /api/pdv/colunas
+     * Operadores: igual, diferente, contem, comeca_com, maior, maior_igual, menor, menor_igual, entre, em
+     * A ordenação aceita apenas colunas ordenáveis; tamanho máximo de página 100
+     *
+     * Exemplo de corpo:
+     * {"filtros": [{"campo": "cidade", "operador": "igual", "valor": "São Paulo"}, {"campo": "bairro", "operador": "contem", "valor": "jardim"}], "ordenarPor": "nome"}
+     *
+     * @param request Filtros, ordenação e página desejada
+     * @return ConsultaResponse com a página de PDVResponse
+     */
+    @PostMapping("/consulta")
+    public ResponseEntity<ConsultaResponse<PDVResponse>> consultar(@Valid @RequestBody ConsultaRequest request) {
+        ConsultaResponse<PDVResponse> response = pontoVendaService.consultar(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint para buscar um PDV específico por ID
      * GET /api/pdv/{id}
@@ -77,11 +105,68 @@ public class PontoVendaController {
         }
     }
 
+    /**
+     * Endpoint para busca aproximada de PDVs (localizador de lojas)
+     * GET /api/pdv/busca?q={texto}&campo={nome|endereco|bairro}&pagina=0&tamanho=20
+     *
+     * Encontra trechos e tolera erros de digitação usando um índice de trigramas
+     * Sem o parâmetro campo, pesquisa em nome, endereço e bairro ao mesmo tempo
+     *
+     * @param q Texto da busca
+     * @param campo Campo a pesquisar (opcional)
+     * @param pagina Página desejada, começando em 0
+     * @param tamanho Quantidade de itens por página (máximo 100)
+     * @return ConsultaResponse com os PDVs e a similaridade de cada um
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<ConsultaResponse<PDVBuscaResponse>> buscar(
+            @RequestParam(name = "q") String q,
+            @RequestParam(required = false) String campo,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            ConsultaResponse<PDVBuscaResponse> response = pontoVendaService.buscar(q, campo, pagina, tamanho);
+            return ResponseEntity.ok(response);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para buscar os PDVs mais próximos de uma coordenada
+     * GET /api/pdv/proximos?lat={latitude}&lon={longitude}&k=10&raioKm=5
+     *
+     * Considera apenas PDVs com latitude e longitude cadastradas
+     *
+     * @param lat Latitude da origem
+     * @param lon Longitude da origem
+     * @param k Quantidade máxima de PDVs (padrão 10, máximo 100)
+     * @param raioKm Distância máxima em km (opcional)
+     * @return Lista de PDVProximoResponse ordenada pela distância
+     */
+    @GetMapping("/proximos")
+    public ResponseEntity<List<PDVProximoResponse>> getPDVsProximos(
+            @RequestParam Double lat,
+            @RequestParam Double lon,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) Double raioKm) {
+        try {
+            List<PDVProximoResponse> pdvs = pontoVendaService.getPDVsProximos(lat, lon, k, raioKm);
+            return ResponseEntity.ok(pdvs);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Endpoint para filtrar PDVs por endereço
      * GET /api/pdv/filtrar/endereco?endereco={endereco}
      *
-     * Busca PDVs que contenham o texto informado no endereço (case-insensitive)
+     * Atalho para /api/pdv/busca?campo=endereco, retornando todos os resultados por similaridade
      *
      * @param endereco Endereço ou parte do endereço
      * @return Lista de PDVResponse filtradas por endereço
@@ -300,4 +385,36 @@ public class PontoVendaController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Endpoint para ativar ou desativar vários PDVs de uma vez
+     * PATCH /api/pdv/lote
+     *
+     * Executa um único UPDATE restrito aos PDVs do usuário logado
+     * Exemplo de corpo: {"ids": [1, 2, 3], "ativo": false}
+     *
+     * @param request IDs (máximo 1000) e novo valor de ativo
+     * @return OperacaoLoteResponse com a quantidade alterada e os IDs não encontrados ou de outro usuário
+     */
+    @PatchMapping("/lote")
+    public ResponseEntity<OperacaoLoteResponse> atualizarAtivoEmLote(@Valid @RequestBody AlteracaoAtivoLoteRequest request) {
+        OperacaoLoteResponse response = pontoVendaService.atualizarAtivoEmLote(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para excluir vários PDVs de uma vez
+     * DELETE /api/pdv/lote
+     *
+     * Executa um único DELETE restrito aos PDVs do usuário logado
+     * Exemplo de corpo: {"ids": [1, 2, 3]}
+     *
+     * @param request IDs a excluir (máximo 1000)
+     * @return OperacaoLoteResponse com a quantidade excluída e os IDs não encontrados ou de outro usuário
+     */
+    @DeleteMapping("/lote")
+    public ResponseEntity<OperacaoLoteResponse> deletePDVsEmLote(@Valid @RequestBody ExclusaoLoteRequest request) {
+        OperacaoLoteResponse response = pontoVendaService.deletePDVsEmLote(request);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,8 +1,14 @@
 package com.fiap.challenge.controller;
 
+import com.fiap.challenge.dto.AlteracaoAtivoLoteRequest;
 import com.fiap.challenge.dto.ColunaProdutoResponse;
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaResponse;
 import com.fiap.challenge.dto.CreateProdutoRequest;
+import com.fiap.challenge.dto.ExclusaoLoteRequest;
+import com.fiap.challenge.dto.OperacaoLoteResponse;
 import com.fiap.challenge.dto.ProdutoResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.service.ProdutoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -55,6 +61,26 @@ public class ProdutoController {
         }
     }
 
+    /**
+     * Endpoint para consultar produtos com filtros, ordenação e paginação no servidor
+     * POST /api/produtos/consulta
+     *
+     * Os filtros são combinados com AND e aceitam apenas os campos de /api/produtos/colunas
+     * Operadores: igual, diferente, contem, comeca_com, maior, maior_igual, menor, menor_igual, entre, em
+     * A ordenação aceita apenas colunas ordenáveis; tamanho máximo de página 100
+     *
+     * Exemplo de corpo:
+     * {"filtros": [{"campo": "categoria", "operador": "igual", "valor": "Eletrônicos"}, {"campo": "estoque", "operador": "menor", "valor": 10}], "ordenarPor": "preco", "direcao": "desc", "pagina": 0, "tamanho": 20}
+     *
+     * @param request Filtros, ordenação e página desejada
+     * @return ConsultaResponse com a página de ProdutoResponse
+     */
+    @PostMapping("/consulta")
+    public ResponseEntity<ConsultaResponse<ProdutoResponse>> consultar(@Valid @RequestBody ConsultaRequest request) {
+        ConsultaResponse<ProdutoResponse> response = produtoService.consultar(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint para buscar um produto específico por ID
      * GET /api/produtos/{id}
@@ -77,11 +103,38 @@ public class ProdutoController {
         }
     }
 
+    /**
+     * Endpoint para busca textual de produtos
+     * GET /api/produtos/busca?q={texto}&pagina=0&tamanho=20
+     *
+     * Pesquisa em nome, descrição e fabricante ignorando acentos e maiúsculas
+     * Resultados ordenados por relevância; o último termo também casa por prefixo
+     *
+     * @param q Texto da busca
+     * @param pagina Página desejada, começando em 0
+     * @param tamanho Quantidade de itens por página (máximo 100)
+     * @return ConsultaResponse com os produtos encontrados
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<ConsultaResponse<ProdutoResponse>> buscar(
+            @RequestParam(name = "q") String q,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            ConsultaResponse<ProdutoResponse> response = produtoService.buscar(q, pagina, tamanho);
+            return ResponseEntity.ok(response);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Endpoint para filtrar produtos por nome
      * GET /api/produtos/filtrar/nome?nome={nome}
      *
-     * Busca produtos que contenham o texto informado no nome (case-insensitive)
+     * Busca produtos pelo índice textual (nome, descrição e fabricante), ignorando acentos
      *
      * @param nome Nome ou parte do nome do produto
      * @return Lista de ProdutoResponse filtradas por nome
@@ -250,4 +303,36 @@ public class ProdutoController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Endpoint para ativar ou desativar vários produtos de uma vez
+     * PATCH /api/produtos/lote
+     *
+     * Executa um único UPDATE restrito aos produtos do usuário logado
+     * Exemplo de corpo: {"ids": [1, 2, 3], "ativo": false}
+     *
+     * @param request IDs (máximo 1000) e novo valor de ativo
+     * @return OperacaoLoteResponse com a quantidade alterada e os IDs não encontrados ou de outro usuário
+     */
+    @PatchMapping("/lote")
+    public ResponseEntity<OperacaoLoteResponse> atualizarAtivoEmLote(@Valid @RequestBody AlteracaoAtivoLoteRequest request) {
+        OperacaoLoteResponse response = produtoService.atualizarAtivoEmLote(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para excluir vários produtos de uma vez
+     * DELETE /api/produtos/lote
+     *
+     * Executa um único DELETE restrito aos produtos do usuário logado
+     * Exemplo de corpo: {"ids": [1, 2, 3]}
+     *
+     * @param request IDs a excluir (máximo 1000)
+     * @return OperacaoLoteResponse com a quantidade excluída e os IDs não encontrados ou de outro usuário
+     */
+    @DeleteMapping("/lote")
+    public ResponseEntity<OperacaoLoteResponse> deleteProdutosEmLote(@Valid @RequestBody ExclusaoLoteRequest request) {
+        OperacaoLoteResponse response = produtoService.deleteProdutosEmLote(request);
+        return ResponseEntity.ok(response);
+    }
 }
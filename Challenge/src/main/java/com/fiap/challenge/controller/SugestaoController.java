@@ -0,0 +1,45 @@
+package com.fiap.challenge.controller;
+
+import com.fiap.challenge.dto.SugestaoResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+import com.fiap.challenge.service.SugestaoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SugestaoController {
+
+    private final SugestaoService sugestaoService;
+
+    /**
+     * Endpoint de autocompletar global
+     * GET /api/search/suggest?q={texto}&limite=10
+     *
+     * Sugere nomes e códigos de produtos, nomes e cidades de PDVs e produtos vendidos
+     * que começam com o texto digitado, no início do texto ou de qualquer palavra
+     *
+     * @param q Texto digitado
+     * @param limite Quantidade máxima de sugestões (padrão 10, máximo 50)
+     * @return Lista de SugestaoResponse
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SugestaoResponse>> sugerir(
+            @RequestParam(name = "q") String q,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            List<SugestaoResponse> sugestoes = sugestaoService.sugerir(q, limite);
+            return ResponseEntity.ok(sugestoes);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
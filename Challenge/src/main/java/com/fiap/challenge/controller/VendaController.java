@@ -1,13 +1,35 @@
 package com.fiap.challenge.controller;
 
+import com.fiap.challenge.dto.AlteracaoVendasLoteRequest;
 import com.fiap.challenge.dto.ColunaVendaResponse;
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaResponse;
+import com.fiap.challenge.dto.CreateVendaRequest;
+import com.fiap.challenge.dto.ExclusaoLoteRequest;
+import com.fiap.challenge.dto.ImportacaoResponse;
+import com.fiap.challenge.dto.OperacaoLoteResponse;
+import com.fiap.challenge.dto.PaginaResponse;
 import com.fiap.challenge.dto.VendaDetalhadaResponse;
+import com.fiap.challenge.dto.VendaLoteResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+import com.fiap.challenge.service.VendaExportService;
+import com.fiap.challenge.service.VendaImportService;
 import com.fiap.challenge.service.VendaService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,6 +39,8 @@ import java.util.List;
 public class VendaController {
 
     private final VendaService vendaService;
+    private final VendaExportService vendaExportService;
+    private final VendaImportService vendaImportService;
 
     /**
      * Endpoint para recuperar as colunas da tabela de vendas
@@ -43,14 +67,179 @@ public class VendaController {
      *
      * Retorna todas as vendas com informações detalhadas
      *
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
      * @return Lista de VendaDetalhadaResponse
      */
     @GetMapping
-    public ResponseEntity<List<VendaDetalhadaResponse>> getAllVendas() {
+    public ResponseEntity<List<VendaDetalhadaResponse>> getAllVendas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
         try {
-            List<VendaDetalhadaResponse> vendas = vendaService.getAllVendas();
+            List<VendaDetalhadaResponse> vendas = vendaService.getAllVendas(de, ate);
             return ResponseEntity.ok(vendas);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para consultar vendas com filtros, ordenação e paginação no servidor
+     * POST /api/vendas/consulta
+     *
+     * Os filtros são combinados com AND e aceitam apenas os campos de /api/vendas/colunas
+     * Operadores: igual, diferente, contem, comeca_com, maior, maior_igual, menor, menor_igual, entre, em
+     * A ordenação aceita apenas colunas ordenáveis; tamanho máximo de página 100
+     *
+     * Exemplo de corpo:
+     * {"filtros": [{"campo": "status", "operador": "em", "valor": ["Concluída", "Pendente"]}, {"campo": "dataVenda", "operador": "entre", "valor": ["2025-10-01", "2025-11-01"]}], "ordenarPor": "valorTotal", "direcao": "desc"}
+     *
+     * @param request Filtros, ordenação e página desejada
+     * @return ConsultaResponse com a página de VendaDetalhadaResponse
+     */
+    @PostMapping("/consulta")
+    public ResponseEntity<ConsultaResponse<VendaDetalhadaResponse>> consultar(@Valid @RequestBody ConsultaRequest request) {
+        ConsultaResponse<VendaDetalhadaResponse> response = vendaService.consultar(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para recuperar as vendas do usuário logado em páginas
+     * GET /api/vendas/pagina?cursor=...&limite=20
+     *
+     * Paginação por cursor: envie o proximoCursor da resposta anterior para obter a página seguinte
+     * O limite é limitado a 100 itens por página
+     *
+     * @param cursor Cursor da página anterior (omitir na primeira página)
+     * @param limite Quantidade máxima de itens da página
+     * @param de Primeiro dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @param ate Último dia do período, inclusivo (opcional, formato yyyy-MM-dd)
+     * @return PaginaResponse de VendaDetalhadaResponse
+     */
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaResponse<VendaDetalhadaResponse>> getVendasPaginadas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        try {
+            PaginaResponse<VendaDetalhadaResponse> pagina = vendaService.getVendasPaginadas(cursor, limite, de, ate);
+            return ResponseEntity.ok(pagina);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para criar várias vendas em uma única requisição
+     * POST /api/vendas/lote?modo={atomico|parcial}
+     *
+     * O corpo é um array de vendas no mesmo formato de POST /api/dashboard/vendas,
+     * gravadas em uma única transação (até 1000 vendas por lote, configurável em vendas.lote.maximo)
+     * No modo atomico (padrão), qualquer venda inválida rejeita o lote inteiro com 400 e a lista de erros
+     * No modo parcial, as vendas válidas são criadas e as inválidas são listadas nos erros
+     *
+     * @param modo Modo do lote: atomico (padrão) ou parcial
+     * @param vendas Vendas a criar
+     * @return VendaLoteResponse com os IDs na ordem do lote (null nas posições rejeitadas)
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<VendaLoteResponse> criarVendasEmLote(
+            @RequestParam(required = false) String modo,
+            @RequestBody List<CreateVendaRequest> vendas) {
+        boolean parcial;
+        if (modo == null || modo.equalsIgnoreCase("atomico")) {
+            parcial = false;
+        } else if (modo.equalsIgnoreCase("parcial")) {
+            parcial = true;
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        try {
+            VendaLoteResponse response = vendaService.criarVendasEmLote(vendas, parcial);
+            if (!parcial && response.getRejeitadas() > 0) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+            return ResponseEntity.status(response.getCriadas() > 0 ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para exportar as vendas do usuário logado
+     * GET /api/vendas/export?format={csv|ndjson}&de=2025-10-01&ate=2025-10-31&tipo=&status=
+     *
+     * O arquivo é gerado enquanto é enviado, lendo as vendas do banco em lotes,
+     * de forma que o consumo de memória não depende da quantidade de vendas
+     *
+     * @param format Formato do arquivo: csv (padrão) ou ndjson
+     * @param de Primeiro dia do período (opcional)
+     * @param ate Último dia do período (opcional)
+     * @param tipo Tipo da venda (opcional)
+     * @param status Status da venda (opcional)
+     * @return Arquivo com as vendas, das mais recentes para as mais antigas
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarVendas(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String status) {
+        VendaExportService.Exportacao exportacao;
+        try {
+            exportacao = vendaExportService.preparar(format, de, ate, tipo, status);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+
+        StreamingResponseBody corpo = saida -> vendaExportService.escrever(exportacao, saida);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportacao.formato().getTipoConteudo()),
+                        StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportacao.nomeArquivo()).build().toString())
+                .body(corpo);
+    }
+
+    /**
+     * Endpoint para importar vendas em lote
+     * POST /api/vendas/importar?format={csv|ndjson}
+     *
+     * O corpo é lido em streaming: CSV com cabeçalho ou NDJSON (um objeto por linha), com os campos
+     * produto, quantidade, valor, tipo, status e, opcionalmente, dataVenda e observacoes
+     * Content-Type aceito: text/csv, text/plain, application/x-ndjson ou application/octet-stream
+     * Sem o parâmetro format, o formato é escolhido pelo Content-Type (NDJSON para application/x-ndjson)
+     * Linhas inválidas não interrompem a importação e são listadas no relatório
+     *
+     * @param format Formato do corpo (opcional)
+     * @param request Requisição com o arquivo no corpo
+     * @return ImportacaoResponse com totais e erros por linha
+     */
+    @PostMapping(value = "/importar", consumes = {"text/csv", "text/plain", "application/x-ndjson",
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportacaoResponse> importarVendas(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        try {
+            VendaImportService.Formato formato = VendaImportService.Formato.de(format, request.getContentType());
+            ImportacaoResponse response = vendaImportService.importar(formato, request.getInputStream());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -83,8 +272,8 @@ public class VendaController {
      * Endpoint para filtrar vendas por lista de IDs
      * GET /api/vendas/filtrar?ids=1,2,3
      *
-     * Busca múltiplas vendas de uma vez usando uma lista de IDs
-     * Útil para filtros e seleções múltiplas
+     * Busca múltiplas vendas de uma vez usando uma lista de IDs (máximo 1000)
+     * Útil para filtros e seleções múltiplas; IDs de outros usuários são ignorados
      *
      * @param ids Lista de IDs separados por vírgula
      * @return Lista de VendaDetalhadaResponse filtradas
@@ -95,7 +284,9 @@ public class VendaController {
         try {
             List<VendaDetalhadaResponse> vendas = vendaService.getVendasByIds(ids);
             return ResponseEntity.ok(vendas);
-        } catch (Exception e) {
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -155,6 +346,44 @@ public class VendaController {
         }
     }
 
+    /**
+     * Endpoint para alterar status e/ou tipo de várias vendas de uma vez
+     * PATCH /api/vendas/lote
+     *
+     * Executa um único UPDATE restrito às vendas do usuário logado
+     * Exemplo de corpo: {"ids": [1, 2, 3], "status": "Cancelada"}
+     *
+     * @param request IDs (máximo 1000) e campos a alterar (status e/ou tipo)
+     * @return OperacaoLoteResponse com a quantidade alterada e os IDs não encontrados ou de outro usuário
+     */
+    @PatchMapping("/lote")
+    public ResponseEntity<OperacaoLoteResponse> atualizarVendasEmLote(@Valid @RequestBody AlteracaoVendasLoteRequest request) {
+        try {
+            OperacaoLoteResponse response = vendaService.atualizarVendasEmLote(request);
+            return ResponseEntity.ok(response);
+        } catch (RequisicaoInvalidaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Endpoint para excluir várias vendas de uma vez
+     * DELETE /api/vendas/lote
+     *
+     * Executa um único DELETE restrito às vendas do usuário logado
+     * Exemplo de corpo: {"ids": [1, 2, 3]}
+     *
+     * @param request IDs a excluir (máximo 1000)
+     * @return OperacaoLoteResponse com a quantidade excluída e os IDs não encontrados ou de outro usuário
+     */
+    @DeleteMapping("/lote")
+    public ResponseEntity<OperacaoLoteResponse> deleteVendasEmLote(@Valid @RequestBody ExclusaoLoteRequest request) {
+        OperacaoLoteResponse response = vendaService.deleteVendasEmLote(request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Inner class para requisição de atualização de venda
      */
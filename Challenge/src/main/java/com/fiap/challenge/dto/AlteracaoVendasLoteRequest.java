@@ -0,0 +1,32 @@
+package com.fiap.challenge.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Alteração em lote de vendas: os campos informados (status e/ou tipo) são aplicados a todas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracaoVendasLoteRequest {
+
+    @NotEmpty(message = "Informe ao menos um ID")
+    @Size(max = 1000, message = "Máximo de 1000 IDs por lote")
+    private List<@NotNull(message = "ID não pode ser nulo") Long> ids;
+
+    @Pattern(regexp = ".*\\S.*", message = "Status não pode ser vazio")
+    @Size(max = 30, message = "Status deve ter no máximo 30 caracteres")
+    private String status;
+
+    @Pattern(regexp = ".*\\S.*", message = "Tipo não pode ser vazio")
+    @Size(max = 50, message = "Tipo deve ter no máximo 50 caracteres")
+    private String tipo;
+}
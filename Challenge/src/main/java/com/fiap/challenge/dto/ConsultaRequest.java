@@ -0,0 +1,45 @@
+package com.fiap.challenge.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consulta dinâmica com filtros combinados (AND), ordenação e paginação
+ * Os campos aceitos são os declarados em Coluna*Response de cada recurso
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaRequest {
+
+    @Valid
+    private List<Filtro> filtros = new ArrayList<>();
+
+    private String ordenarPor;
+
+    private String direcao; // "asc" ou "desc"
+
+    private Integer pagina;
+
+    private Integer tamanho;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filtro {
+
+        @NotBlank(message = "Campo do filtro é obrigatório")
+        private String campo;
+
+        @NotBlank(message = "Operador do filtro é obrigatório")
+        private String operador; // Ex: "igual", "contem", "maior_igual", "entre", "em"
+
+        private Object valor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Página de resultados de uma consulta dinâmica
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaResponse<T> {
+
+    private List<T> itens;
+    private Integer pagina;
+    private Integer tamanho;
+    private Long totalItens;
+    private Integer totalPaginas;
+
+    public ConsultaResponse(Page<T> page) {
+        this.itens = page.getContent();
+        this.pagina = page.getNumber();
+        this.tamanho = page.getSize();
+        this.totalItens = page.getTotalElements();
+        this.totalPaginas = page.getTotalPages();
+    }
+}
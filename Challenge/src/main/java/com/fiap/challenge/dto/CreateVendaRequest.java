@@ -1,9 +1,11 @@
 package com.fiap.challenge.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,6 +18,7 @@ import java.math.BigDecimal;
 public class CreateVendaRequest {
 
     @NotBlank(message = "Nome do produto é obrigatório")
+    @Size(max = 200, message = "Nome do produto deve ter no máximo 200 caracteres")
     private String produto;
 
     @NotNull(message = "Quantidade é obrigatória")
@@ -24,13 +27,17 @@ public class CreateVendaRequest {
 
     @NotNull(message = "Valor é obrigatório")
     @DecimalMin(value = "0.01", message = "Valor deve ser maior que zero")
+    @Digits(integer = 8, fraction = 2, message = "Valor deve ter até 8 dígitos e 2 casas decimais")
     private BigDecimal valor;
 
     @NotBlank(message = "Tipo é obrigatório")
+    @Size(max = 50, message = "Tipo deve ter no máximo 50 caracteres")
     private String tipo;
 
     @NotBlank(message = "Status é obrigatório")
+    @Size(max = 30, message = "Status deve ter no máximo 30 caracteres")
     private String status;
 
+    @Size(max = 500, message = "Observações devem ter no máximo 500 caracteres")
     private String observacoes;
 }
@@ -0,0 +1,23 @@
+package com.fiap.challenge.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * IDs dos registros a excluir em lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExclusaoLoteRequest {
+
+    @NotEmpty(message = "Informe ao menos um ID")
+    @Size(max = 1000, message = "Máximo de 1000 IDs por lote")
+    private List<@NotNull(message = "ID não pode ser nulo") Long> ids;
+}
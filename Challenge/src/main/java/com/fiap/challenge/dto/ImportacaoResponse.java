@@ -0,0 +1,33 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório de uma importação em lote
+ * Apenas as primeiras linhas rejeitadas são detalhadas em erros (errosOmitidos indica o restante)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoResponse {
+
+    private Long linhasLidas;
+    private Long importadas;
+    private Long rejeitadas;
+    private List<Erro> erros = new ArrayList<>();
+    private Long errosOmitidos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erro {
+
+        private Integer linha; // Linha do arquivo, contando o cabeçalho no CSV
+        private String mensagem;
+    }
+}
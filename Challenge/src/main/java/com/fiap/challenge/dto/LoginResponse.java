@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 public class LoginResponse {
 
     private String token;
+    private String refreshToken;
     private String tipo = "Bearer";
     private UserResponse usuario;
 
@@ -17,4 +18,10 @@ public class LoginResponse {
         this.token = token;
         this.usuario = usuario;
     }
+
+    public LoginResponse(String token, String refreshToken, UserResponse usuario) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.usuario = usuario;
+    }
 }
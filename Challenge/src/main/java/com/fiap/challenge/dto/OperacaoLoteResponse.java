@@ -0,0 +1,35 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resultado de uma alteração ou exclusão em lote
+ * naoEncontrados lista os IDs que não existem ou não pertencem ao usuário logado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperacaoLoteResponse {
+
+    private Integer afetados;
+    private List<Long> naoEncontrados = new ArrayList<>();
+
+    /**
+     * @param solicitados IDs enviados, sem repetições, na ordem da requisição
+     * @param encontrados IDs do usuário encontrados entre os solicitados
+     * @param afetados Quantidade de registros alterados ou excluídos
+     */
+    public static OperacaoLoteResponse de(Collection<Long> solicitados, Collection<Long> encontrados, int afetados) {
+        Set<Long> existentes = new HashSet<>(encontrados);
+        List<Long> naoEncontrados = solicitados.stream().filter(id -> !existentes.contains(id)).toList();
+        return new OperacaoLoteResponse(afetados, naoEncontrados);
+    }
+}
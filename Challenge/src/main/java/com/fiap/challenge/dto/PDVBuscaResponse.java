@@ -0,0 +1,20 @@
+package com.fiap.challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PDV encontrado na busca aproximada, com os mesmos campos de PDVResponse e a similaridade (0 a 1)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PDVBuscaResponse {
+
+    @JsonUnwrapped
+    private PDVResponse pontoVenda;
+
+    private Double similaridade;
+}
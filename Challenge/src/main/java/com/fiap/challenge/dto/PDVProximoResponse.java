@@ -0,0 +1,20 @@
+package com.fiap.challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PDV encontrado na busca por proximidade, com os mesmos campos de PDVResponse e a distância em km
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PDVProximoResponse {
+
+    @JsonUnwrapped
+    private PDVResponse pontoVenda;
+
+    private Double distanciaKm;
+}
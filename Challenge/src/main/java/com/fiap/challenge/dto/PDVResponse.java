@@ -19,6 +19,8 @@ public class PDVResponse {
     private String cidade;
     private String estado;
     private String cep;
+    private Double latitude;
+    private Double longitude;
     private String telefone;
     private String email;
     private Boolean ativo;
@@ -36,6 +38,8 @@ public class PDVResponse {
         this.cidade = pontoVenda.getCidade();
         this.estado = pontoVenda.getEstado();
         this.cep = pontoVenda.getCep();
+        this.latitude = pontoVenda.getLatitude();
+        this.longitude = pontoVenda.getLongitude();
         this.telefone = pontoVenda.getTelefone();
         this.email = pontoVenda.getEmail();
         this.ativo = pontoVenda.getAtivo();
@@ -0,0 +1,21 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados da paginação por cursor
+ * proximoCursor é nulo quando não há mais itens
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+
+    private List<T> itens;
+    private String proximoCursor;
+    private Integer limite;
+}
@@ -0,0 +1,51 @@
+package com.fiap.challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Série temporal de faturamento e quantidade de vendas
+ * Todas as séries têm os mesmos intervalos, na mesma ordem, inclusive os sem vendas (zerados)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerieResponse {
+
+    private String granularidade; // dia, semana ou mes
+    private LocalDate de;
+    private LocalDate ate;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String agrupamento; // tipo ou status, quando a série é separada por grupo
+
+    private List<Serie> series = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Serie {
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String grupo; // Tipo ou status da série (ausente na série total)
+
+        private List<Ponto> pontos = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ponto {
+
+        private LocalDate inicio; // Primeiro dia do intervalo (segunda-feira na semana, dia 1 no mês)
+        private BigDecimal valorTotal;
+        private Long quantidade;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sugestão de autocompletar
+ * tipo indica a origem: produto, codigo, pdv, cidade ou venda
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugestaoResponse {
+
+    private String texto;
+    private String tipo;
+    private Integer ocorrencias;
+}
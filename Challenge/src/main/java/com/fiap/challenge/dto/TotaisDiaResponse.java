@@ -0,0 +1,11 @@
+package com.fiap.challenge.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de vendas de um dia, opcionalmente de um tipo ou status (grupo)
+ * Instanciado direto pelas consultas ao resumo diário (SELECT new), sem proxies de projeção por linha
+ */
+public record TotaisDiaResponse(LocalDate dia, String grupo, Long quantidadeVendas, BigDecimal valorTotal) {
+}
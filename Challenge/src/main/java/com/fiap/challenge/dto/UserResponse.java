@@ -1,6 +1,7 @@
 package com.fiap.challenge.dto;
 
 import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.security.UsuarioDetalhes;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -25,4 +26,12 @@ public class UserResponse {
         this.dataCriacao = usuario.getDataCriacao();
         this.ativo = usuario.getAtivo();
     }
+
+    public UserResponse(UsuarioDetalhes usuario) {
+        this.id = usuario.getId();
+        this.nome = usuario.getNome();
+        this.email = usuario.getEmail();
+        this.dataCriacao = usuario.getDataCriacao();
+        this.ativo = usuario.isAtivo();
+    }
 }
@@ -0,0 +1,32 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado da criação de vendas em lote
+ * ids segue a ordem do lote enviado, com null nas posições rejeitadas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendaLoteResponse {
+
+    private List<Long> ids = new ArrayList<>();
+    private Integer criadas;
+    private Integer rejeitadas;
+    private List<Erro> erros = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erro {
+
+        private Integer indice; // Posição da venda no lote, a partir de 0
+        private String mensagem;
+    }
+}
@@ -1,5 +1,6 @@
 package com.fiap.challenge.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,11 @@ public class VendaPorTipoResponse {
     private String tipo;
     private BigDecimal valorTotal;
     private Long quantidade;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String status; // Preenchido apenas no agrupamento por tipo e status
+
+    public VendaPorTipoResponse(String tipo, BigDecimal valorTotal, Long quantidade) {
+        this(tipo, valorTotal, quantidade, null);
+    }
 }
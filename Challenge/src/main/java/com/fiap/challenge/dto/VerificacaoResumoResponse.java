@@ -0,0 +1,47 @@
+package com.fiap.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado da comparação do resumo diário de vendas com as vendas
+ * Na reconstrução, as divergências listadas são as que foram corrigidas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerificacaoResumoResponse {
+
+    private Boolean consistente;
+    private Integer linhasEsperadas; // Linhas (dia, tipo, status) calculadas a partir das vendas
+    private Integer linhasResumo; // Linhas gravadas no resumo
+    private List<Divergencia> divergencias = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Divergencia {
+
+        private LocalDate dia;
+        private String tipo;
+        private String status;
+        private Totais esperado; // Nulo se o resumo tem uma linha sem vendas correspondentes
+        private Totais registrado; // Nulo se falta a linha no resumo
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totais {
+
+        private Long quantidadeVendas;
+        private Long quantidadeItens;
+        private BigDecimal valorTotal;
+    }
+}
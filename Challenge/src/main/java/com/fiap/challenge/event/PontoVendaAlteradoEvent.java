@@ -0,0 +1,31 @@
+package com.fiap.challenge.event;
+
+import com.fiap.challenge.model.PontoVenda;
+
+/**
+ * Publicado quando um ponto de venda é criado, alterado ou removido
+ * Carrega apenas os campos indexados, para ser consumido após o commit
+ * @param usuarioId ID do usuário proprietário do PDV
+ * @param pontoVendaId ID do PDV
+ * @param nome Nome do PDV (nulo se removido)
+ * @param endereco Endereço do PDV (nulo se removido)
+ * @param bairro Bairro do PDV (nulo se removido)
+ * @param cidade Cidade do PDV (nulo se removido)
+ * @param latitude Latitude do PDV (nula se removido ou não informada)
+ * @param longitude Longitude do PDV (nula se removido ou não informada)
+ * @param removido true se o PDV foi excluído
+ */
+public record PontoVendaAlteradoEvent(Long usuarioId, Long pontoVendaId, String nome, String endereco,
+                                      String bairro, String cidade, Double latitude, Double longitude,
+                                      boolean removido) {
+
+    public static PontoVendaAlteradoEvent salvo(PontoVenda pontoVenda) {
+        return new PontoVendaAlteradoEvent(pontoVenda.getUsuario().getId(), pontoVenda.getId(), pontoVenda.getNome(),
+                pontoVenda.getEndereco(), pontoVenda.getBairro(), pontoVenda.getCidade(), pontoVenda.getLatitude(),
+                pontoVenda.getLongitude(), false);
+    }
+
+    public static PontoVendaAlteradoEvent removido(Long usuarioId, Long pontoVendaId) {
+        return new PontoVendaAlteradoEvent(usuarioId, pontoVendaId, null, null, null, null, null, null, true);
+    }
+}
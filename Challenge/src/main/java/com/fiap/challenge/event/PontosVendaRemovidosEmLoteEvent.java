@@ -0,0 +1,12 @@
+package com.fiap.challenge.event;
+
+import java.util.List;
+
+/**
+ * Publicado uma vez por exclusão em lote de pontos de venda
+ * Os consumidores removem todos os IDs em uma única atualização do que mantêm do usuário
+ * @param usuarioId ID do usuário proprietário dos PDVs
+ * @param pontoVendaIds IDs dos PDVs excluídos
+ */
+public record PontosVendaRemovidosEmLoteEvent(Long usuarioId, List<Long> pontoVendaIds) {
+}
@@ -0,0 +1,27 @@
+package com.fiap.challenge.event;
+
+import com.fiap.challenge.model.Produto;
+
+/**
+ * Publicado quando um produto é criado, alterado ou removido
+ * Carrega apenas os campos textuais indexados, para ser consumido após o commit
+ * @param usuarioId ID do usuário proprietário do produto
+ * @param produtoId ID do produto
+ * @param codigo Código do produto (nulo se removido)
+ * @param nome Nome do produto (nulo se removido)
+ * @param descricao Descrição do produto (nulo se removido)
+ * @param fabricante Fabricante do produto (nulo se removido)
+ * @param removido true se o produto foi excluído
+ */
+public record ProdutoAlteradoEvent(Long usuarioId, Long produtoId, String codigo, String nome, String descricao,
+                                   String fabricante, boolean removido) {
+
+    public static ProdutoAlteradoEvent salvo(Produto produto) {
+        return new ProdutoAlteradoEvent(produto.getUsuario().getId(), produto.getId(), produto.getCodigo(),
+                produto.getNome(), produto.getDescricao(), produto.getFabricante(), false);
+    }
+
+    public static ProdutoAlteradoEvent removido(Long usuarioId, Long produtoId) {
+        return new ProdutoAlteradoEvent(usuarioId, produtoId, null, null, null, null, true);
+    }
+}
@@ -0,0 +1,12 @@
+package com.fiap.challenge.event;
+
+import java.util.List;
+
+/**
+ * Publicado uma vez por exclusão em lote de produtos
+ * Os consumidores removem todos os IDs em uma única atualização do que mantêm do usuário
+ * @param usuarioId ID do usuário proprietário dos produtos
+ * @param produtoIds IDs dos produtos excluídos
+ */
+public record ProdutosRemovidosEmLoteEvent(Long usuarioId, List<Long> produtoIds) {
+}
@@ -0,0 +1,44 @@
+package com.fiap.challenge.event;
+
+import com.fiap.challenge.model.Venda;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Publicado quando uma venda é criada, alterada ou removida
+ * Carrega o estado anterior e o atual, permitindo que os consumidores apliquem apenas a diferença
+ * @param usuarioId ID do usuário proprietário da venda
+ * @param anterior Dados antes da alteração (nulo na criação)
+ * @param atual Dados após a alteração (nulo na remoção)
+ */
+public record VendaAlteradaEvent(Long usuarioId, DadosVenda anterior, DadosVenda atual) {
+
+    /**
+     * Cópia imutável dos campos de uma venda relevantes para índices e agregações
+     */
+    public record DadosVenda(Long id, String produto, String tipo, String status,
+                             LocalDateTime dataVenda, Integer quantidade, BigDecimal valorTotal) {
+
+        public static DadosVenda de(Venda venda) {
+            // O valor total é recalculado só no flush; aqui ele é derivado dos campos atuais
+            BigDecimal valorTotal = venda.getValor() != null && venda.getQuantidade() != null
+                    ? venda.getValor().multiply(BigDecimal.valueOf(venda.getQuantidade()))
+                    : venda.getValorTotal();
+            return new DadosVenda(venda.getId(), venda.getProduto(), venda.getTipo(), venda.getStatus(),
+                    venda.getDataVenda(), venda.getQuantidade(), valorTotal);
+        }
+    }
+
+    public static VendaAlteradaEvent criada(Venda venda) {
+        return new VendaAlteradaEvent(venda.getUsuario().getId(), null, DadosVenda.de(venda));
+    }
+
+    public static VendaAlteradaEvent alterada(DadosVenda anterior, Venda venda) {
+        return new VendaAlteradaEvent(venda.getUsuario().getId(), anterior, DadosVenda.de(venda));
+    }
+
+    public static VendaAlteradaEvent removida(Long usuarioId, DadosVenda anterior) {
+        return new VendaAlteradaEvent(usuarioId, anterior, null);
+    }
+}
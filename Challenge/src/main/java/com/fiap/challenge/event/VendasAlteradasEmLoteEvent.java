@@ -0,0 +1,9 @@
+package com.fiap.challenge.event;
+
+/**
+ * Publicado após operações que alteram muitas vendas de uma vez (importação, alterações em lote)
+ * Os consumidores devem descartar ou recalcular o que mantêm do usuário, em vez de aplicar diferenças
+ * @param usuarioId ID do usuário proprietário das vendas
+ */
+public record VendasAlteradasEmLoteEvent(Long usuarioId) {
+}
@@ -0,0 +1,11 @@
+package com.fiap.challenge.exception;
+
+/**
+ * Lançada quando uma consulta dinâmica usa campo, operador ou valor não permitido
+ */
+public class ConsultaInvalidaException extends RequisicaoInvalidaException {
+
+    public ConsultaInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.fiap.challenge.exception;
+
+/**
+ * Lançada quando um parâmetro da requisição é inválido (período, cursor, formato, lote, termo de busca etc.)
+ * Mapeada para 400 Bad Request pelo GlobalExceptionHandler, com a mensagem no corpo da resposta
+ */
+public class RequisicaoInvalidaException extends RuntimeException {
+
+    public RequisicaoInvalidaException(String message) {
+        super(message);
+    }
+}
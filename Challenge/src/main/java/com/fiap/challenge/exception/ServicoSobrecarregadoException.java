@@ -0,0 +1,18 @@
+package com.fiap.challenge.exception;
+
+import lombok.Getter;
+
+/**
+ * Lançada quando uma operação é recusada por falta de capacidade
+ * Deve ser respondida com 503 e o cabeçalho Retry-After
+ */
+@Getter
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public ServicoSobrecarregadoException(String message, long retryAfterSegundos) {
+        super(message);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+}
@@ -0,0 +1,128 @@
+package com.fiap.challenge.importacao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV em streaming (RFC 4180), um registro por vez
+ * Aceita campos entre aspas com vírgulas, aspas duplicadas e quebras de linha, e detecta
+ * o separador (vírgula ou ponto e vírgula, comum em planilhas em português) no cabeçalho.
+ * Linhas em branco são ignoradas.
+ */
+public class LeitorCsv {
+
+    private static final int NENHUM = -2;
+
+    private final Reader reader;
+    private char separador;
+    private int devolvido = NENHUM;
+    private int linha = 1;
+    private int linhaRegistro;
+
+    /**
+     * @param reader Entrada já bufferizada
+     */
+    public LeitorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lê o próximo registro
+     * @return Campos do registro, ou null no fim da entrada
+     */
+    public List<String> proximo() throws IOException {
+        int c = ler();
+        if (linha == 1 && linhaRegistro == 0 && c == '\uFEFF') {
+            // BOM gravado por algumas planilhas
+            c = ler();
+        }
+        while (c == '\r' || c == '\n') {
+            consumirFimDeLinha(c);
+            c = ler();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        linhaRegistro = linha;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        boolean citado = false;
+
+        while (true) {
+            if (entreAspas) {
+                if (c == -1) {
+                    campos.add(campo.toString());
+                    return campos;
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        c = seguinte;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linha++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0 && !citado) {
+                entreAspas = true;
+                citado = true;
+            } else if (ehSeparador(c)) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                citado = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                consumirFimDeLinha(c);
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    /**
+     * Linha física em que começa o último registro lido (1 é a primeira linha da entrada)
+     */
+    public int getLinhaRegistro() {
+        return linhaRegistro;
+    }
+
+    private boolean ehSeparador(int c) {
+        if (separador == 0 && (c == ',' || c == ';')) {
+            separador = (char) c;
+        }
+        return c == separador;
+    }
+
+    private void consumirFimDeLinha(int c) throws IOException {
+        if (c == '\r') {
+            int seguinte = ler();
+            if (seguinte != '\n') {
+                devolvido = seguinte;
+            }
+        }
+        if (c != -1) {
+            linha++;
+        }
+    }
+
+    private int ler() throws IOException {
+        if (devolvido != NENHUM) {
+            int c = devolvido;
+            devolvido = NENHUM;
+            return c;
+        }
+        return reader.read();
+    }
+}
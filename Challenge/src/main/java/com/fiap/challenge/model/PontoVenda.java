@@ -1,6 +1,8 @@
 package com.fiap.challenge.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -19,7 +21,8 @@ import java.time.LocalDateTime;
 public class PontoVenda {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pontos_venda_seq")
+    @SequenceGenerator(name = "pontos_venda_seq", sequenceName = "pontos_venda_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome do PDV é obrigatório")
@@ -44,6 +47,14 @@ public class PontoVenda {
     @Column(length = 10)
     private String cep;
 
+    @DecimalMin(value = "-90.0", message = "Latitude deve estar entre -90 e 90")
+    @DecimalMax(value = "90.0", message = "Latitude deve estar entre -90 e 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude deve estar entre -180 e 180")
+    @DecimalMax(value = "180.0", message = "Longitude deve estar entre -180 e 180")
+    private Double longitude;
+
     @Column(length = 20)
     private String telefone;
 
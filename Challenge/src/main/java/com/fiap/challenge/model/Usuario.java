@@ -22,7 +22,8 @@ import java.util.Collections;
 public class Usuario implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -48,10 +49,17 @@ public class Usuario implements UserDetails {
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    // Incrementada para invalidar os tokens JWT já emitidos para o usuário
+    @Column(name = "token_versao")
+    private Integer tokenVersao = 0;
+
     @PrePersist
     protected void onCreate() {
         dataCriacao = LocalDateTime.now();
         dataAtualizacao = LocalDateTime.now();
+        if (tokenVersao == null) {
+            tokenVersao = 0;
+        }
     }
 
     @PreUpdate
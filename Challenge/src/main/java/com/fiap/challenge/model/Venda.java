@@ -12,14 +12,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "vendas")
+@Table(name = "vendas", indexes = {
+        // Índices da paginação por cursor (dataVenda, id) por usuário
+        @Index(name = "idx_vendas_usuario_data", columnList = "usuario_id, data_venda, id"),
+        @Index(name = "idx_vendas_usuario_tipo_data", columnList = "usuario_id, tipo, data_venda, id"),
+        @Index(name = "idx_vendas_usuario_status_data", columnList = "usuario_id, status, data_venda, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Venda {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendas_seq")
+    @SequenceGenerator(name = "vendas_seq", sequenceName = "vendas_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome do produto é obrigatório")
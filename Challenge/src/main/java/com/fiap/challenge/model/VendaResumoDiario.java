@@ -0,0 +1,61 @@
+package com.fiap.challenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumo diário das vendas de um usuário por (dia, tipo, status)
+ * Mantido de forma incremental na mesma transação de cada gravação de vendas, para que o dashboard
+ * leia algumas centenas de linhas do resumo em vez das vendas. A chave primária (usuario_id, dia,
+ * tipo, status) atende às consultas por usuário e período.
+ */
+@Entity
+@Table(name = "vendas_resumo_diario")
+@IdClass(VendaResumoDiario.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendaResumoDiario {
+
+    @Id
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia; // Data (sem hora) de data_venda
+
+    @Id
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    @Id
+    @Column(nullable = false, length = 30)
+    private String status;
+
+    @Column(name = "quantidade_vendas", nullable = false)
+    private Long quantidadeVendas; // Número de vendas
+
+    @Column(name = "quantidade_itens", nullable = false)
+    private Long quantidadeItens; // Soma das quantidades vendidas
+
+    @Column(name = "valor_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorTotal;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+
+        private Long usuarioId;
+        private LocalDate dia;
+        private String tipo;
+        private String status;
+    }
+}
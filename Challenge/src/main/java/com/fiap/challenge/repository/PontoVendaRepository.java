@@ -3,15 +3,19 @@ package com.fiap.challenge.repository;
 import com.fiap.challenge.model.PontoVenda;
 import com.fiap.challenge.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PontoVendaRepository extends JpaRepository<PontoVenda, Long> {
+public interface PontoVendaRepository extends JpaRepository<PontoVenda, Long>, JpaSpecificationExecutor<PontoVenda> {
 
     /**
      * Busca todos os pontos de venda de um usuário específico
@@ -36,15 +40,6 @@ public interface PontoVendaRepository extends JpaRepository<PontoVenda, Long> {
      */
     List<PontoVenda> findByUsuarioAndTipoOrderByDataCriacaoDesc(Usuario usuario, String tipo);
 
-    /**
-     * Busca PDVs por endereço (pesquisa parcial, case-insensitive)
-     * @param usuario Usuário proprietário dos PDVs
-     * @param endereco Endereço ou parte do endereço
-     * @return Lista de PDVs que contenham o texto no endereço
-     */
-    @Query("SELECT p FROM PontoVenda p WHERE p.usuario = :usuario AND LOWER(p.endereco) LIKE LOWER(CONCAT('%', :endereco, '%')) ORDER BY p.dataCriacao DESC")
-    List<PontoVenda> findByUsuarioAndEnderecoContainingIgnoreCase(@Param("usuario") Usuario usuario, @Param("endereco") String endereco);
-
     /**
      * Busca PDVs por cidade
      * @param usuario Usuário proprietário dos PDVs
@@ -61,24 +56,6 @@ public interface PontoVendaRepository extends JpaRepository<PontoVenda, Long> {
      */
     List<PontoVenda> findByUsuarioAndEstadoOrderByDataCriacaoDesc(Usuario usuario, String estado);
 
-    /**
-     * Busca PDVs por bairro
-     * @param usuario Usuário proprietário dos PDVs
-     * @param bairro Nome do bairro
-     * @return Lista de PDVs do bairro especificado
-     */
-    @Query("SELECT p FROM PontoVenda p WHERE p.usuario = :usuario AND LOWER(p.bairro) LIKE LOWER(CONCAT('%', :bairro, '%')) ORDER BY p.dataCriacao DESC")
-    List<PontoVenda> findByUsuarioAndBairroContainingIgnoreCase(@Param("usuario") Usuario usuario, @Param("bairro") String bairro);
-
-    /**
-     * Busca PDV por nome
-     * @param usuario Usuário proprietário dos PDVs
-     * @param nome Nome ou parte do nome do PDV
-     * @return Lista de PDVs que contenham o texto no nome
-     */
-    @Query("SELECT p FROM PontoVenda p WHERE p.usuario = :usuario AND LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY p.dataCriacao DESC")
-    List<PontoVenda> findByUsuarioAndNomeContainingIgnoreCase(@Param("usuario") Usuario usuario, @Param("nome") String nome);
-
     /**
      * Busca tipos únicos de PDVs do usuário
      * @param usuario Usuário proprietário dos PDVs
@@ -109,4 +86,91 @@ public interface PontoVendaRepository extends JpaRepository<PontoVenda, Long> {
      * @return Número de PDVs ativos
      */
     Long countByUsuarioAndAtivo(Usuario usuario, Boolean ativo);
+
+    /**
+     * Busca os campos textuais de todos os PDVs de um usuário, para montar o índice de busca
+     * @param usuarioId ID do usuário proprietário dos PDVs
+     * @return Projeções com id, nome, endereço, bairro e cidade
+     */
+    @Query("SELECT p.id AS id, p.nome AS nome, p.endereco AS endereco, p.bairro AS bairro, p.cidade AS cidade " +
+           "FROM PontoVenda p WHERE p.usuario.id = :usuarioId")
+    List<PontoVendaTexto> findTextosByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca o PDV pelo ID, apenas se pertencer ao usuário (um único acesso pela chave primária)
+     * @param id ID do PDV
+     * @param usuarioId ID do usuário proprietário
+     * @return PDV encontrado, ou vazio se não existir ou for de outro usuário
+     */
+    Optional<PontoVenda> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    /**
+     * Busca os PDVs com os IDs informados que pertencem ao usuário
+     * @param ids IDs pesquisados
+     * @param usuarioId ID do usuário proprietário
+     * @return Registros encontrados, sem ordem definida
+     */
+    List<PontoVenda> findAllByIdInAndUsuarioId(Collection<Long> ids, Long usuarioId);
+
+    /**
+     * Filtra, entre os IDs informados, os que existem e pertencem ao usuário
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs pesquisados
+     * @return IDs encontrados
+     */
+    @Query("SELECT p.id FROM PontoVenda p WHERE p.usuario.id = :usuarioId AND p.id IN :ids")
+    List<Long> findIdsByUsuarioIdAndIdIn(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Ativa ou desativa em um único comando os PDVs do usuário com os IDs informados
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs a alterar
+     * @param ativo Novo valor de ativo
+     * @param agora Data da alteração
+     * @return Quantidade de registros alterados
+     */
+    @Modifying
+    @Query("UPDATE PontoVenda p SET p.ativo = :ativo, p.dataAtualizacao = :agora " +
+           "WHERE p.usuario.id = :usuarioId AND p.id IN :ids")
+    int atualizarAtivoEmLote(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids,
+                             @Param("ativo") Boolean ativo, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Exclui em um único comando os PDVs do usuário com os IDs informados
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs a excluir
+     * @return Quantidade de registros excluídos
+     */
+    @Modifying
+    @Query("DELETE FROM PontoVenda p WHERE p.usuario.id = :usuarioId AND p.id IN :ids")
+    int deleteEmLote(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Projeção dos campos indexados pela busca aproximada e pelo autocompletar
+     */
+    interface PontoVendaTexto {
+        Long getId();
+        String getNome();
+        String getEndereco();
+        String getBairro();
+        String getCidade();
+    }
+
+    /**
+     * Busca as coordenadas dos PDVs georreferenciados de um usuário, para montar o índice espacial
+     * @param usuarioId ID do usuário proprietário dos PDVs
+     * @return Projeções com id, latitude e longitude
+     */
+    @Query("SELECT p.id AS id, p.latitude AS latitude, p.longitude AS longitude FROM PontoVenda p " +
+           "WHERE p.usuario.id = :usuarioId AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<PontoVendaCoordenada> findCoordenadasByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Projeção das coordenadas de um PDV
+     */
+    interface PontoVendaCoordenada {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+    }
 }
@@ -3,15 +3,19 @@ package com.fiap.challenge.repository;
 import com.fiap.challenge.model.Produto;
 import com.fiap.challenge.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto> {
 
     /**
      * Busca todos os produtos de um usuário específico
@@ -37,13 +41,13 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     List<Produto> findByUsuarioAndCategoriaOrderByDataCriacaoDesc(Usuario usuario, String categoria);
 
     /**
-     * Busca produtos por nome (pesquisa parcial, case-insensitive)
-     * @param usuario Usuário proprietário dos produtos
-     * @param nome Nome ou parte do nome do produto
-     * @return Lista de produtos que contenham o texto no nome
+     * Busca os campos textuais de todos os produtos de um usuário, para montar o índice de busca
+     * @param usuarioId ID do usuário proprietário dos produtos
+     * @return Projeções com id, código, nome, descrição e fabricante
      */
-    @Query("SELECT p FROM Produto p WHERE p.usuario = :usuario AND LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY p.dataCriacao DESC")
-    List<Produto> findByUsuarioAndNomeContainingIgnoreCase(@Param("usuario") Usuario usuario, @Param("nome") String nome);
+    @Query("SELECT p.id AS id, p.codigo AS codigo, p.nome AS nome, p.descricao AS descricao, p.fabricante AS fabricante " +
+           "FROM Produto p WHERE p.usuario.id = :usuarioId")
+    List<ProdutoTexto> findTextosByUsuarioId(@Param("usuarioId") Long usuarioId);
 
     /**
      * Busca produto por código
@@ -92,4 +96,64 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
      */
     @Query("SELECT p FROM Produto p WHERE p.usuario = :usuario AND p.estoque <= :limite ORDER BY p.estoque ASC")
     List<Produto> findProdutosComEstoqueBaixo(@Param("usuario") Usuario usuario, @Param("limite") Integer limite);
+
+    /**
+     * Busca o produto pelo ID, apenas se pertencer ao usuário (um único acesso pela chave primária)
+     * @param id ID do produto
+     * @param usuarioId ID do usuário proprietário
+     * @return Produto encontrado, ou vazio se não existir ou for de outro usuário
+     */
+    Optional<Produto> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    /**
+     * Busca os produtos com os IDs informados que pertencem ao usuário
+     * @param ids IDs pesquisados
+     * @param usuarioId ID do usuário proprietário
+     * @return Registros encontrados, sem ordem definida
+     */
+    List<Produto> findAllByIdInAndUsuarioId(Collection<Long> ids, Long usuarioId);
+
+    /**
+     * Filtra, entre os IDs informados, os que existem e pertencem ao usuário
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs pesquisados
+     * @return IDs encontrados
+     */
+    @Query("SELECT p.id FROM Produto p WHERE p.usuario.id = :usuarioId AND p.id IN :ids")
+    List<Long> findIdsByUsuarioIdAndIdIn(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Ativa ou desativa em um único comando os produtos do usuário com os IDs informados
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs a alterar
+     * @param ativo Novo valor de ativo
+     * @param agora Data da alteração
+     * @return Quantidade de registros alterados
+     */
+    @Modifying
+    @Query("UPDATE Produto p SET p.ativo = :ativo, p.dataAtualizacao = :agora " +
+           "WHERE p.usuario.id = :usuarioId AND p.id IN :ids")
+    int atualizarAtivoEmLote(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids,
+                             @Param("ativo") Boolean ativo, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Exclui em um único comando os produtos do usuário com os IDs informados
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs a excluir
+     * @return Quantidade de registros excluídos
+     */
+    @Modifying
+    @Query("DELETE FROM Produto p WHERE p.usuario.id = :usuarioId AND p.id IN :ids")
+    int deleteEmLote(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Projeção dos campos indexados pela busca textual e pelo autocompletar
+     */
+    interface ProdutoTexto {
+        Long getId();
+        String getCodigo();
+        String getNome();
+        String getDescricao();
+        String getFabricante();
+    }
 }
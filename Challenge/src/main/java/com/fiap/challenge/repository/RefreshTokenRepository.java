@@ -0,0 +1,60 @@
+package com.fiap.challenge.repository;
+
+import com.fiap.challenge.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Busca um refresh token pelo hash
+     * @param tokenHash Hash SHA-256 do token
+     * @return Optional contendo o refresh token se encontrado
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoga um refresh token na renovação, somente se ele ainda estiver ativo
+     * A condição no UPDATE garante que, entre requisições concorrentes com o mesmo token, apenas uma o consome
+     * @param tokenHash Hash SHA-256 do token
+     * @param agora Momento da rotação
+     * @return 1 se o token foi revogado por esta chamada, 0 se já estava revogado
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true, r.rotacionadoEm = :agora " +
+           "WHERE r.tokenHash = :tokenHash AND r.revogado = false")
+    int revogarSeAtivo(@Param("tokenHash") String tokenHash, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Busca quando o token foi consumido por uma renovação, lendo o valor atual no banco
+     * @param tokenHash Hash SHA-256 do token
+     * @return Momento da rotação, ou vazio se o token não foi rotacionado
+     */
+    @Query("SELECT r.rotacionadoEm FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    Optional<LocalDateTime> findRotacionadoEmByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Revoga todos os refresh tokens ativos de um usuário
+     * @param usuarioId ID do usuário
+     * @return Número de tokens revogados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.usuario.id = :usuarioId AND r.revogado = false")
+    int revogarTodosDoUsuario(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Remove refresh tokens expirados
+     * @param limite Data de corte
+     * @return Número de tokens removidos
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm < :limite")
+    int deleteExpirados(@Param("limite") LocalDateTime limite);
+}
@@ -2,6 +2,9 @@ package com.fiap.challenge.repository;
 
 import com.fiap.challenge.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -22,4 +25,29 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
      * @return true se o email já existe, false caso contrário
      */
     Boolean existsByEmail(String email);
+
+    /**
+     * Busca apenas o status e a versão de token de um usuário
+     * @param id ID do usuário
+     * @return Optional contendo o status se o usuário existir
+     */
+    @Query("SELECT u.ativo AS ativo, u.tokenVersao AS tokenVersao FROM Usuario u WHERE u.id = :id")
+    Optional<UsuarioStatus> findStatusById(@Param("id") Long id);
+
+    /**
+     * Incrementa a versão de token do usuário, invalidando os access tokens já emitidos
+     * @param id ID do usuário
+     * @return Número de usuários alterados
+     */
+    @Modifying
+    @Query("UPDATE Usuario u SET u.tokenVersao = COALESCE(u.tokenVersao, 0) + 1 WHERE u.id = :id")
+    int incrementarTokenVersao(@Param("id") Long id);
+
+    /**
+     * Projeção com os campos necessários para validar tokens JWT
+     */
+    interface UsuarioStatus {
+        Boolean getAtivo();
+        Integer getTokenVersao();
+    }
 }
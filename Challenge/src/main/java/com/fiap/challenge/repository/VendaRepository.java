@@ -2,85 +2,301 @@ package com.fiap.challenge.repository;
 
 import com.fiap.challenge.model.Usuario;
 import com.fiap.challenge.model.Venda;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface VendaRepository extends JpaRepository<Venda, Long> {
+public interface VendaRepository extends JpaRepository<Venda, Long>, JpaSpecificationExecutor<Venda> {
 
     /**
-     * Busca todas as vendas de um usuário específico
+     * Busca uma página de vendas de um usuário após o cursor (dataVenda, id)
      * @param usuario Usuário proprietário das vendas
-     * @return Lista de vendas do usuário
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @param dataVenda Data da venda do último item da página anterior
+     * @param id ID do último item da página anterior
+     * @param pageable Limite de itens da página
+     * @return Vendas seguintes ao cursor, da mais recente para a mais antiga
      */
-    List<Venda> findByUsuarioOrderByDataVendaDesc(Usuario usuario);
+    @Query("SELECT v FROM Venda v WHERE v.usuario = :usuario AND " +
+           "v.dataVenda >= :inicio AND v.dataVenda < :fim AND v.dataVenda <= :dataVenda " +
+           "AND (v.dataVenda < :dataVenda OR v.id < :id) ORDER BY v.dataVenda DESC, v.id DESC")
+    List<Venda> findPaginaByUsuario(@Param("usuario") Usuario usuario,
+                                    @Param("inicio") LocalDateTime inicio,
+                                    @Param("fim") LocalDateTime fim,
+                                    @Param("dataVenda") LocalDateTime dataVenda,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
 
     /**
-     * Busca vendas de um usuário filtradas por tipo
+     * Busca uma página de vendas de um usuário filtradas por tipo após o cursor (dataVenda, id)
      * @param usuario Usuário proprietário das vendas
-     * @param tipo Tipo da venda (Eletrônicos, Roupas, etc)
-     * @return Lista de vendas filtradas por tipo
+     * @param tipo Tipo da venda
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @param dataVenda Data da venda do último item da página anterior
+     * @param id ID do último item da página anterior
+     * @param pageable Limite de itens da página
+     * @return Vendas seguintes ao cursor, da mais recente para a mais antiga
      */
-    List<Venda> findByUsuarioAndTipoOrderByDataVendaDesc(Usuario usuario, String tipo);
+    @Query("SELECT v FROM Venda v WHERE v.usuario = :usuario AND v.tipo = :tipo AND " +
+           "v.dataVenda >= :inicio AND v.dataVenda < :fim AND v.dataVenda <= :dataVenda " +
+           "AND (v.dataVenda < :dataVenda OR v.id < :id) ORDER BY v.dataVenda DESC, v.id DESC")
+    List<Venda> findPaginaByUsuarioAndTipo(@Param("usuario") Usuario usuario,
+                                           @Param("tipo") String tipo,
+                                           @Param("inicio") LocalDateTime inicio,
+                                           @Param("fim") LocalDateTime fim,
+                                           @Param("dataVenda") LocalDateTime dataVenda,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
 
     /**
-     * Busca vendas de um usuário filtradas por status
+     * Busca uma página de vendas de um usuário filtradas por status após o cursor (dataVenda, id)
      * @param usuario Usuário proprietário das vendas
-     * @param status Status da venda (Concluída, Pendente, Cancelada)
-     * @return Lista de vendas filtradas por status
+     * @param status Status da venda
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @param dataVenda Data da venda do último item da página anterior
+     * @param id ID do último item da página anterior
+     * @param pageable Limite de itens da página
+     * @return Vendas seguintes ao cursor, da mais recente para a mais antiga
      */
-    List<Venda> findByUsuarioAndStatusOrderByDataVendaDesc(Usuario usuario, String status);
+    @Query("SELECT v FROM Venda v WHERE v.usuario = :usuario AND v.status = :status AND " +
+           "v.dataVenda >= :inicio AND v.dataVenda < :fim AND v.dataVenda <= :dataVenda " +
+           "AND (v.dataVenda < :dataVenda OR v.id < :id) ORDER BY v.dataVenda DESC, v.id DESC")
+    List<Venda> findPaginaByUsuarioAndStatus(@Param("usuario") Usuario usuario,
+                                             @Param("status") String status,
+                                             @Param("inicio") LocalDateTime inicio,
+                                             @Param("fim") LocalDateTime fim,
+                                             @Param("dataVenda") LocalDateTime dataVenda,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
 
     /**
-     * Calcula o total de vendas de um usuário
+     * Conta o número total de vendas de um usuário
      * @param usuario Usuário proprietário das vendas
-     * @return Valor total das vendas
+     * @return Número total de vendas
      */
-    @Query("SELECT COALESCE(SUM(v.valorTotal), 0) FROM Venda v WHERE v.usuario = :usuario")
-    BigDecimal calcularTotalVendas(@Param("usuario") Usuario usuario);
+    Long countByUsuario(Usuario usuario);
 
     /**
-     * Calcula o total de vendas concluídas de um usuário
+     * Busca tipos de vendas únicos de um usuário
      * @param usuario Usuário proprietário das vendas
-     * @return Valor total das vendas concluídas
+     * @return Lista de tipos únicos
      */
-    @Query("SELECT COALESCE(SUM(v.valorTotal), 0) FROM Venda v WHERE v.usuario = :usuario AND v.status = 'Concluída'")
-    BigDecimal calcularTotalVendasConcluidas(@Param("usuario") Usuario usuario);
+    @Query("SELECT DISTINCT v.tipo FROM Venda v WHERE v.usuario = :usuario ORDER BY v.tipo")
+    List<String> findDistinctTiposByUsuario(@Param("usuario") Usuario usuario);
 
     /**
-     * Conta o número total de vendas de um usuário
+     * Busca as vendas de um usuário em um período
      * @param usuario Usuário proprietário das vendas
-     * @return Número total de vendas
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @return Vendas do período, da mais recente para a mais antiga
      */
-    Long countByUsuario(Usuario usuario);
+    @Query("SELECT v FROM Venda v WHERE v.usuario = :usuario AND v.dataVenda >= :inicio AND v.dataVenda < :fim " +
+           "ORDER BY v.dataVenda DESC, v.id DESC")
+    List<Venda> findByUsuarioNoPeriodo(@Param("usuario") Usuario usuario,
+                                       @Param("inicio") LocalDateTime inicio,
+                                       @Param("fim") LocalDateTime fim);
 
     /**
-     * Conta vendas por status de um usuário
+     * Busca as vendas de um usuário filtradas por tipo em um período
      * @param usuario Usuário proprietário das vendas
-     * @param status Status da venda
-     * @return Número de vendas com o status especificado
+     * @param tipo Tipo da venda
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @return Vendas do período, da mais recente para a mais antiga
      */
-    Long countByUsuarioAndStatus(Usuario usuario, String status);
+    @Query("SELECT v FROM Venda v WHERE v.usuario = :usuario AND v.tipo = :tipo " +
+           "AND v.dataVenda >= :inicio AND v.dataVenda < :fim ORDER BY v.dataVenda DESC, v.id DESC")
+    List<Venda> findByUsuarioAndTipoNoPeriodo(@Param("usuario") Usuario usuario,
+                                              @Param("tipo") String tipo,
+                                              @Param("inicio") LocalDateTime inicio,
+                                              @Param("fim") LocalDateTime fim);
 
     /**
-     * Busca tipos de vendas únicos de um usuário
+     * Busca as vendas de um usuário filtradas por status em um período
      * @param usuario Usuário proprietário das vendas
-     * @return Lista de tipos únicos
+     * @param status Status da venda
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @return Vendas do período, da mais recente para a mais antiga
      */
-    @Query("SELECT DISTINCT v.tipo FROM Venda v WHERE v.usuario = :usuario ORDER BY v.tipo")
-    List<String> findDistinctTiposByUsuario(@Param("usuario") Usuario usuario);
+    @Query("SELECT v FROM Venda v WHERE v.usuario = :usuario AND v.status = :status " +
+           "AND v.dataVenda >= :inicio AND v.dataVenda < :fim ORDER BY v.dataVenda DESC, v.id DESC")
+    List<Venda> findByUsuarioAndStatusNoPeriodo(@Param("usuario") Usuario usuario,
+                                                @Param("status") String status,
+                                                @Param("inicio") LocalDateTime inicio,
+                                                @Param("fim") LocalDateTime fim);
 
     /**
-     * Calcula total de vendas por tipo
-     * @param usuario Usuário proprietário das vendas
-     * @param tipo Tipo da venda
-     * @return Valor total das vendas do tipo especificado
+     * Totaliza vendas de um usuário por dia, tipo e status, no formato do resumo diário
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param ids IDs das vendas a totalizar
+     * @return Totais por (dia, tipo, status)
+     */
+    @Query("SELECT CAST(v.dataVenda AS LocalDate) AS dia, v.tipo AS tipo, v.status AS status, " +
+           "COUNT(v) AS quantidadeVendas, SUM(v.quantidade) AS quantidadeItens, SUM(v.valorTotal) AS valorTotal " +
+           "FROM Venda v WHERE v.usuario.id = :usuarioId AND v.id IN :ids " +
+           "GROUP BY CAST(v.dataVenda AS LocalDate), v.tipo, v.status")
+    List<TotaisDiarios> totalizarPorDia(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Totaliza todas as vendas de um usuário por dia, tipo e status, para reconstruir ou verificar o resumo diário
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @return Totais por (dia, tipo, status)
+     */
+    @Query("SELECT CAST(v.dataVenda AS LocalDate) AS dia, v.tipo AS tipo, v.status AS status, " +
+           "COUNT(v) AS quantidadeVendas, SUM(v.quantidade) AS quantidadeItens, SUM(v.valorTotal) AS valorTotal " +
+           "FROM Venda v WHERE v.usuario.id = :usuarioId " +
+           "GROUP BY CAST(v.dataVenda AS LocalDate), v.tipo, v.status")
+    List<TotaisDiarios> totalizarPorDia(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca os IDs dos usuários que têm vendas
+     * @return IDs distintos de usuários
+     */
+    @Query("SELECT DISTINCT v.usuario.id FROM Venda v")
+    List<Long> findDistinctUsuarioIds();
+
+    /**
+     * Conta as vendas de um usuário por produto, para montar o índice de autocompletar
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @return Produto e quantidade de vendas de cada um
+     */
+    @Query("SELECT v.produto AS produto, COUNT(v) AS quantidade FROM Venda v " +
+           "WHERE v.usuario.id = :usuarioId GROUP BY v.produto")
+    List<ProdutoContagem> contarProdutosByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca a venda pelo ID, apenas se pertencer ao usuário (um único acesso pela chave primária)
+     * @param id ID da venda
+     * @param usuarioId ID do usuário proprietário
+     * @return Venda encontrada, ou vazio se não existir ou for de outro usuário
+     */
+    Optional<Venda> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    /**
+     * Busca a venda pelo ID, apenas se pertencer ao usuário, bloqueando a linha (SELECT ... FOR UPDATE)
+     * até o fim da transação
+     * Usada pelas alterações: o estado anterior usado no delta do resumo diário não muda até a gravação
+     * @param id ID da venda
+     * @param usuarioId ID do usuário proprietário
+     * @return Venda encontrada, ou vazio se não existir ou for de outro usuário
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Venda> findParaAlteracaoByIdAndUsuarioId(Long id, Long usuarioId);
+
+    /**
+     * Busca as vendas com os IDs informados que pertencem ao usuário
+     * @param ids IDs pesquisados
+     * @param usuarioId ID do usuário proprietário
+     * @return Registros encontrados, sem ordem definida
+     */
+    List<Venda> findAllByIdInAndUsuarioId(Collection<Long> ids, Long usuarioId);
+
+    /**
+     * Filtra, entre os IDs informados, os que existem e pertencem ao usuário, bloqueando as linhas
+     * encontradas (SELECT ... FOR UPDATE) até o fim da transação
+     * O bloqueio impede que outra transação altere as vendas entre a totalização do resumo diário
+     * e o UPDATE/DELETE em lote; a ordenação por ID evita deadlock entre lotes concorrentes
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs pesquisados
+     * @return IDs encontrados
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v.id FROM Venda v WHERE v.usuario.id = :usuarioId AND v.id IN :ids ORDER BY v.id")
+    List<Long> findIdsByUsuarioIdAndIdIn(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Altera status e/ou tipo, em um único comando, das vendas do usuário com os IDs informados
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs a alterar
+     * @param status Novo status, ou null para manter
+     * @param tipo Novo tipo, ou null para manter
+     * @param agora Data da alteração
+     * @return Quantidade de vendas alteradas
+     */
+    @Modifying
+    @Query("UPDATE Venda v SET v.status = COALESCE(CAST(:status AS String), v.status), " +
+           "v.tipo = COALESCE(CAST(:tipo AS String), v.tipo), v.dataAtualizacao = :agora " +
+           "WHERE v.usuario.id = :usuarioId AND v.id IN :ids")
+    int atualizarEmLote(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids,
+                        @Param("status") String status, @Param("tipo") String tipo,
+                        @Param("agora") LocalDateTime agora);
+
+    /**
+     * Exclui em um único comando as vendas do usuário com os IDs informados
+     * @param usuarioId ID do usuário proprietário
+     * @param ids IDs a excluir
+     * @return Quantidade de registros excluídos
+     */
+    @Modifying
+    @Query("DELETE FROM Venda v WHERE v.usuario.id = :usuarioId AND v.id IN :ids")
+    int deleteEmLote(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Projeção do produto vendido e da quantidade de vendas
+     */
+    interface ProdutoContagem {
+        String getProduto();
+        Long getQuantidade();
+    }
+
+    /**
+     * Percorre as vendas de um usuário para exportação, sem carregar o resultado inteiro em memória
+     * Lê em lotes pelo cursor do banco (fetch size) e sem snapshot de alterações (somente leitura);
+     * deve ser consumido dentro de uma transação e fechado ao final
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param tipo Tipo da venda, ou null para todos
+     * @param status Status da venda, ou null para todos
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @return Stream de vendas, das mais recentes para as mais antigas
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT v FROM Venda v WHERE v.usuario.id = :usuarioId " +
+           "AND (:tipo IS NULL OR v.tipo = :tipo) AND (:status IS NULL OR v.status = :status) " +
+           "AND v.dataVenda >= :inicio AND v.dataVenda < :fim " +
+           "ORDER BY v.dataVenda DESC, v.id DESC")
+    Stream<Venda> streamParaExportacao(@Param("usuarioId") Long usuarioId,
+                                       @Param("tipo") String tipo,
+                                       @Param("status") String status,
+                                       @Param("inicio") LocalDateTime inicio,
+                                       @Param("fim") LocalDateTime fim);
+
+    /**
+     * Projeção dos totais de vendas de um dia, tipo e status
      */
-    @Query("SELECT COALESCE(SUM(v.valorTotal), 0) FROM Venda v WHERE v.usuario = :usuario AND v.tipo = :tipo")
-    BigDecimal calcularTotalVendasPorTipo(@Param("usuario") Usuario usuario, @Param("tipo") String tipo);
+    interface TotaisDiarios {
+        LocalDate getDia();
+        String getTipo();
+        String getStatus();
+        Long getQuantidadeVendas();
+        Long getQuantidadeItens();
+        BigDecimal getValorTotal();
+    }
 }
@@ -0,0 +1,149 @@
+package com.fiap.challenge.repository;
+
+import com.fiap.challenge.dto.TotaisDiaResponse;
+import com.fiap.challenge.dto.VendaPorTipoResponse;
+import com.fiap.challenge.model.VendaResumoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VendaResumoDiarioRepository extends JpaRepository<VendaResumoDiario, VendaResumoDiario.Chave> {
+
+    /**
+     * Calcula todas as métricas dos cards do dashboard a partir do resumo diário
+     * Cada métrica por status é uma agregação condicional (SUM com CASE) sobre as linhas do período
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param inicio Primeiro dia do período (inclusivo)
+     * @param fim Dia seguinte ao último do período (exclusivo)
+     * @return Totais e contagens do período (zero quando não há vendas)
+     */
+    @Query("SELECT COALESCE(SUM(r.valorTotal), 0) AS totalVendas, " +
+           "COALESCE(SUM(CASE WHEN r.status = 'Concluída' THEN r.valorTotal ELSE 0 END), 0) AS totalVendasConcluidas, " +
+           "COALESCE(SUM(r.quantidadeVendas), 0) AS quantidadeVendas, " +
+           "COALESCE(SUM(CASE WHEN r.status = 'Concluída' THEN r.quantidadeVendas ELSE 0 END), 0) AS vendasConcluidas, " +
+           "COALESCE(SUM(CASE WHEN r.status = 'Pendente' THEN r.quantidadeVendas ELSE 0 END), 0) AS vendasPendentes, " +
+           "COALESCE(SUM(CASE WHEN r.status = 'Cancelada' THEN r.quantidadeVendas ELSE 0 END), 0) AS vendasCanceladas " +
+           "FROM VendaResumoDiario r WHERE r.usuarioId = :usuarioId AND r.dia >= :inicio AND r.dia < :fim")
+    ResumoCards calcularResumoCards(@Param("usuarioId") Long usuarioId,
+                                    @Param("inicio") LocalDate inicio,
+                                    @Param("fim") LocalDate fim);
+
+    /**
+     * Agrupa o resumo diário de um usuário por tipo, com soma e quantidade de vendas de cada tipo
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param status Status da venda, ou null para todos
+     * @param inicio Primeiro dia do período (inclusivo)
+     * @param fim Dia seguinte ao último do período (exclusivo)
+     * @return Totais por tipo, ordenados pelo tipo
+     */
+    @Query("SELECT new com.fiap.challenge.dto.VendaPorTipoResponse(r.tipo, COALESCE(SUM(r.valorTotal), 0), SUM(r.quantidadeVendas)) " +
+           "FROM VendaResumoDiario r WHERE r.usuarioId = :usuarioId AND (:status IS NULL OR r.status = :status) " +
+           "AND r.dia >= :inicio AND r.dia < :fim " +
+           "GROUP BY r.tipo ORDER BY r.tipo")
+    List<VendaPorTipoResponse> agruparPorTipo(@Param("usuarioId") Long usuarioId,
+                                              @Param("status") String status,
+                                              @Param("inicio") LocalDate inicio,
+                                              @Param("fim") LocalDate fim);
+
+    /**
+     * Agrupa o resumo diário de um usuário por tipo e status
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param status Status da venda, ou null para todos
+     * @param inicio Primeiro dia do período (inclusivo)
+     * @param fim Dia seguinte ao último do período (exclusivo)
+     * @return Totais por tipo e status, ordenados pelo tipo e pelo status
+     */
+    @Query("SELECT new com.fiap.challenge.dto.VendaPorTipoResponse(r.tipo, COALESCE(SUM(r.valorTotal), 0), SUM(r.quantidadeVendas), r.status) " +
+           "FROM VendaResumoDiario r WHERE r.usuarioId = :usuarioId AND (:status IS NULL OR r.status = :status) " +
+           "AND r.dia >= :inicio AND r.dia < :fim " +
+           "GROUP BY r.tipo, r.status ORDER BY r.tipo, r.status")
+    List<VendaPorTipoResponse> agruparPorTipoEStatus(@Param("usuarioId") Long usuarioId,
+                                                     @Param("status") String status,
+                                                     @Param("inicio") LocalDate inicio,
+                                                     @Param("fim") LocalDate fim);
+
+    /**
+     * Totaliza o resumo diário de um usuário por dia, para séries temporais
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param inicio Primeiro dia (inclusivo)
+     * @param fim Dia seguinte ao último (exclusivo)
+     * @return Totais de cada dia com vendas (grupo nulo)
+     */
+    @Query("SELECT new com.fiap.challenge.dto.TotaisDiaResponse(r.dia, CAST(NULL AS String), SUM(r.quantidadeVendas), SUM(r.valorTotal)) " +
+           "FROM VendaResumoDiario r " +
+           "WHERE r.usuarioId = :usuarioId AND r.dia >= :inicio AND r.dia < :fim GROUP BY r.dia")
+    List<TotaisDiaResponse> totalizarPorDia(@Param("usuarioId") Long usuarioId,
+                                    @Param("inicio") LocalDate inicio,
+                                    @Param("fim") LocalDate fim);
+
+    /**
+     * Totaliza o resumo diário de um usuário por dia e tipo, para séries temporais
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param inicio Primeiro dia (inclusivo)
+     * @param fim Dia seguinte ao último (exclusivo)
+     * @return Totais de cada dia e tipo com vendas (grupo = tipo)
+     */
+    @Query("SELECT new com.fiap.challenge.dto.TotaisDiaResponse(r.dia, r.tipo, SUM(r.quantidadeVendas), SUM(r.valorTotal)) " +
+           "FROM VendaResumoDiario r " +
+           "WHERE r.usuarioId = :usuarioId AND r.dia >= :inicio AND r.dia < :fim GROUP BY r.dia, r.tipo")
+    List<TotaisDiaResponse> totalizarPorDiaETipo(@Param("usuarioId") Long usuarioId,
+                                         @Param("inicio") LocalDate inicio,
+                                         @Param("fim") LocalDate fim);
+
+    /**
+     * Totaliza o resumo diário de um usuário por dia e status, para séries temporais
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param inicio Primeiro dia (inclusivo)
+     * @param fim Dia seguinte ao último (exclusivo)
+     * @return Totais de cada dia e status com vendas (grupo = status)
+     */
+    @Query("SELECT new com.fiap.challenge.dto.TotaisDiaResponse(r.dia, r.status, SUM(r.quantidadeVendas), SUM(r.valorTotal)) " +
+           "FROM VendaResumoDiario r " +
+           "WHERE r.usuarioId = :usuarioId AND r.dia >= :inicio AND r.dia < :fim GROUP BY r.dia, r.status")
+    List<TotaisDiaResponse> totalizarPorDiaEStatus(@Param("usuarioId") Long usuarioId,
+                                           @Param("inicio") LocalDate inicio,
+                                           @Param("fim") LocalDate fim);
+
+    /**
+     * Busca o primeiro dia com vendas de um usuário
+     * @param usuarioId ID do usuário
+     * @return Primeiro dia, ou null se o usuário não tem vendas
+     */
+    @Query("SELECT MIN(r.dia) FROM VendaResumoDiario r WHERE r.usuarioId = :usuarioId")
+    LocalDate findPrimeiroDia(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Busca todas as linhas do resumo de um usuário, para verificação
+     * @param usuarioId ID do usuário
+     * @return Linhas do resumo
+     */
+    List<VendaResumoDiario> findByUsuarioId(Long usuarioId);
+
+    /**
+     * Remove todas as linhas do resumo de um usuário, antes de reconstruí-lo
+     * @param usuarioId ID do usuário
+     * @return Quantidade de linhas removidas
+     */
+    @Modifying
+    @Query("DELETE FROM VendaResumoDiario r WHERE r.usuarioId = :usuarioId")
+    int deleteByUsuario(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Projeção das métricas dos cards do dashboard
+     */
+    interface ResumoCards {
+        BigDecimal getTotalVendas();
+        BigDecimal getTotalVendasConcluidas();
+        Long getQuantidadeVendas();
+        Long getVendasConcluidas();
+        Long getVendasPendentes();
+        Long getVendasCanceladas();
+    }
+}
@@ -0,0 +1,66 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.security.TokenBucketLimiter.Resultado;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limites de requisições para os endpoints públicos de autenticação
+ * Login é limitado por IP e por email; registro é limitado por IP
+ */
+@Component
+public class AuthRateLimiter {
+
+    @Value("${rate-limit.login.ip.capacidade:20}")
+    private int loginIpCapacidade;
+
+    @Value("${rate-limit.login.ip.periodo:1m}")
+    private Duration loginIpPeriodo;
+
+    @Value("${rate-limit.login.email.capacidade:5}")
+    private int loginEmailCapacidade;
+
+    @Value("${rate-limit.login.email.periodo:1m}")
+    private Duration loginEmailPeriodo;
+
+    @Value("${rate-limit.register.ip.capacidade:5}")
+    private int registroIpCapacidade;
+
+    @Value("${rate-limit.register.ip.periodo:10m}")
+    private Duration registroIpPeriodo;
+
+    private TokenBucketLimiter loginPorIp;
+    private TokenBucketLimiter loginPorEmail;
+    private TokenBucketLimiter registroPorIp;
+
+    @PostConstruct
+    void init() {
+        this.loginPorIp = new TokenBucketLimiter(loginIpCapacidade, loginIpPeriodo);
+        this.loginPorEmail = new TokenBucketLimiter(loginEmailCapacidade, loginEmailPeriodo);
+        this.registroPorIp = new TokenBucketLimiter(registroIpCapacidade, registroIpPeriodo);
+    }
+
+    public Resultado verificarLogin(String ip, String email) {
+        Resultado porIp = loginPorIp.tentarConsumir(ip);
+        if (!porIp.permitido() || email == null) {
+            return porIp;
+        }
+        return loginPorEmail.tentarConsumir(email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public Resultado verificarRegistro(String ip) {
+        return registroPorIp.tentarConsumir(ip);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.limpeza-intervalo-ms:60000}")
+    void removerInativos() {
+        loginPorIp.removerInativos();
+        loginPorEmail.removerInativos();
+        registroPorIp.removerInativos();
+    }
+}
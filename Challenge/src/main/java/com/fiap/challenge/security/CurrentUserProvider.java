@@ -0,0 +1,63 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Resolve o usuário logado uma única vez por requisição
+ * O ID vem do principal montado pelo JwtAuthenticationFilter, sem consultar o banco
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private final UsuarioRepository usuarioRepository;
+
+    private Long usuarioId;
+
+    /**
+     * Recupera o ID do usuário logado
+     * @return ID do usuário autenticado na requisição atual
+     */
+    public Long getUsuarioId() {
+        if (usuarioId == null) {
+            usuarioId = resolverUsuarioId();
+        }
+        return usuarioId;
+    }
+
+    /**
+     * Recupera uma referência (proxy não inicializado) ao usuário logado
+     * Suficiente para filtros e associações por usuário, sem SELECT adicional
+     * @return Referência ao Usuario logado
+     */
+    public Usuario getUsuario() {
+        return usuarioRepository.getReferenceById(getUsuarioId());
+    }
+
+    private Long resolverUsuarioId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("Usuário não autenticado");
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UsuarioAutenticado usuarioAutenticado) {
+            return usuarioAutenticado.getId();
+        }
+        if (principal instanceof Usuario usuario) {
+            return usuario.getId();
+        }
+
+        return usuarioRepository.findByEmail(authentication.getName())
+                .map(Usuario::getId)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    }
+}
@@ -21,6 +21,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UsuarioStatusCache usuarioStatusCache;
+    private final TokenRevogadoRegistry tokenRevogadoRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,22 +31,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        JwtToken token = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                token = jwtUtil.parseToken(authorizationHeader.substring(7));
             } catch (Exception e) {
-                logger.error("Erro ao extrair username do token JWT", e);
+                logger.error("Erro ao validar o token JWT", e);
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (token != null && tokenRevogadoRegistry.isRevogado(token.getId())) {
+            token = null;
+        }
+
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolverPrincipal(token);
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && jwtUtil.validateToken(token, userDetails)) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -58,4 +62,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Monta o principal a partir dos claims do token, sem acessar o banco
+     * Tokens emitidos antes da inclusão dos claims ainda carregam o usuário pelo email
+     */
+    private UserDetails resolverPrincipal(JwtToken token) {
+        Long usuarioId = token.getUsuarioId();
+
+        if (usuarioId == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(token.getSubject());
+            return userDetails.isEnabled() ? userDetails : null;
+        }
+
+        if (!usuarioStatusCache.isTokenValido(usuarioId, token.getVersao())) {
+            return null;
+        }
+
+        return new UsuarioAutenticado(usuarioId, token.getSubject(), token.getNome());
+    }
 }
@@ -0,0 +1,67 @@
+package com.fiap.challenge.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Representação imutável de um token JWT já verificado
+ * Criada uma única vez por JwtUtil.parseToken, evitando novas verificações de assinatura
+ */
+@Getter
+public final class JwtToken {
+
+    public static final String CLAIM_USUARIO_ID = "uid";
+    public static final String CLAIM_NOME = "nome";
+    public static final String CLAIM_VERSAO = "ver";
+
+    private final String id;
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Map<String, Object> claims;
+
+    JwtToken(Claims claims) {
+        this.id = claims.getId();
+        this.subject = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+        this.claims = Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+    }
+
+    /**
+     * Recupera um claim customizado do token
+     * @param nome Nome do claim
+     * @param tipo Tipo esperado do valor
+     * @return Valor do claim ou null se ausente
+     */
+    public <T> T getClaim(String nome, Class<T> tipo) {
+        Object valor = claims.get(nome);
+        return tipo.isInstance(valor) ? tipo.cast(valor) : null;
+    }
+
+    /**
+     * @return ID do usuário embutido no token ou null para tokens sem o claim
+     */
+    public Long getUsuarioId() {
+        Number valor = getClaim(CLAIM_USUARIO_ID, Number.class);
+        return valor != null ? valor.longValue() : null;
+    }
+
+    public String getNome() {
+        return getClaim(CLAIM_NOME, String.class);
+    }
+
+    public int getVersao() {
+        Number valor = getClaim(CLAIM_VERSAO, Number.class);
+        return valor != null ? valor.intValue() : 0;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
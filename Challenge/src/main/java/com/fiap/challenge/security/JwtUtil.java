@@ -1,9 +1,18 @@
 package com.fiap.challenge.security;
 
-import io.jsonwebtoken.Claims;
+import com.fiap.challenge.model.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -13,50 +22,81 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    @Value("${jwt.cache.max-size:1000}")
+    private int cacheMaxSize;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    // Tokens já verificados, evita revalidar a assinatura a cada requisição
+    // Sem lock global nas leituras; cada entrada expira no máximo junto com o token (claim exp)
+    private Cache<String, JwtToken> tokensVerificados;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ExpiraComOToken(expiration))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "jwt.tokens");
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser() // novo método
-                .verifyWith(getSigningKey()) // substitui setSigningKey()
-                .build()
-                .parseSignedClaims(token) // substitui parseClaimsJws()
-                .getPayload();
+    /**
+     * Verifica a assinatura e a expiração do token uma única vez
+     * @param token Token JWT recebido
+     * @return JwtToken imutável com subject, expiração e claims
+     * @throws JwtException se o token for inválido ou estiver expirado
+     */
+    public JwtToken parseToken(String token) {
+        JwtToken cached = tokensVerificados.getIfPresent(token);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        JwtToken parsed = new JwtToken(jwtParser.parseSignedClaims(token).getPayload());
+        tokensVerificados.put(token, parsed);
+        return parsed;
     }
 
+    public String extractUsername(String token) {
+        return parseToken(token).getSubject();
+    }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Date extractExpiration(String token) {
+        return parseToken(token).getExpiration();
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof Usuario usuario) {
+            userDetails = UsuarioDetalhes.de(usuario);
+        }
+        if (userDetails instanceof UsuarioDetalhes usuario) {
+            claims.put(JwtToken.CLAIM_USUARIO_ID, usuario.getId());
+            claims.put(JwtToken.CLAIM_NOME, usuario.getNome());
+            claims.put(JwtToken.CLAIM_VERSAO, usuario.getTokenVersao());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -67,14 +107,43 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .id(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expirationDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public Boolean validateToken(JwtToken token, UserDetails userDetails) {
+        return token.getSubject().equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails);
+    }
+
+    /**
+     * Expiração de cada entrada do cache: o tempo restante até o exp do token,
+     * limitado à validade dos tokens emitidos (tokens sem exp não ficam indefinidamente)
+     */
+    private record ExpiraComOToken(long validadeMaximaMs) implements Expiry<String, JwtToken> {
+
+        @Override
+        public long expireAfterCreate(String token, JwtToken jwt, long agora) {
+            long restanteMs = jwt.getExpiration() != null
+                    ? Math.min(jwt.getExpiration().getTime() - System.currentTimeMillis(), validadeMaximaMs)
+                    : validadeMaximaMs;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, restanteMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, JwtToken jwt, long agora, long duracaoAtual) {
+            return expireAfterCreate(token, jwt, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String token, JwtToken jwt, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
     }
 }
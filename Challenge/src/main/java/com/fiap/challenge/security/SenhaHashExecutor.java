@@ -0,0 +1,115 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executor dedicado e limitado para operações de hash de senha (BCrypt)
+ * Mantém o custo de CPU do login fora das threads do Tomcat e recusa
+ * novas tarefas quando a fila está cheia, em vez de acumular requisições
+ */
+@Component
+@RequiredArgsConstructor
+public class SenhaHashExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.login.threads:0}")
+    private int threads;
+
+    @Value("${security.login.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.login.timeout:10s}")
+    private Duration timeout;
+
+    @Value("${security.login.retry-after:5}")
+    private long retryAfterSegundos;
+
+    private ThreadPoolExecutor executor;
+    private Timer latenciaHash;
+
+    @PostConstruct
+    void init() {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                tamanho,
+                tamanho,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "senha-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.latenciaHash = Timer.builder("auth.hash.latencia")
+                .description("Tempo de execução das operações de hash de senha")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.fila", executor, e -> e.getQueue().size())
+                .description("Operações de hash aguardando execução")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de hash em execução")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executa a operação no pool dedicado e aguarda o resultado
+     * @param operacao Operação que envolve hash de senha
+     * @return Resultado da operação
+     * @throws ServicoSobrecarregadoException se a fila estiver cheia ou o tempo limite for excedido
+     */
+    public <T> T executar(Supplier<T> operacao) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> latenciaHash.record(operacao));
+        } catch (RejectedExecutionException e) {
+            throw new ServicoSobrecarregadoException("Muitas autenticações simultâneas, tente novamente", retryAfterSegundos);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServicoSobrecarregadoException("Tempo limite de autenticação excedido, tente novamente", retryAfterSegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Autenticação interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.fiap.challenge.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador token bucket por chave, sem locks
+ * Cada chave guarda apenas o instante teórico em que o balde volta a ficar cheio
+ * (algoritmo GCRA); consumir um token é um único compareAndSet. O mapa
+ * concorrente distribui as chaves em segmentos independentes e baldes cheios
+ * são removidos por removerInativos, mantendo a memória limitada
+ */
+public class TokenBucketLimiter {
+
+    private final int capacidade;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final LongSupplier relogio;
+    private final ConcurrentMap<String, AtomicLong> baldes = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacidade Número de requisições permitidas em rajada
+     * @param periodo Tempo para o balde voltar a ficar cheio
+     */
+    public TokenBucketLimiter(int capacidade, Duration periodo) {
+        this(capacidade, periodo, System::nanoTime);
+    }
+
+    /**
+     * @param relogio Fonte do instante atual em nanossegundos (System.nanoTime, ou um relógio controlado nos testes)
+     */
+    TokenBucketLimiter(int capacidade, Duration periodo, LongSupplier relogio) {
+        this.capacidade = capacidade;
+        this.relogio = relogio;
+        this.intervaloNanos = Math.max(1, periodo.toNanos() / capacidade);
+        this.toleranciaNanos = intervaloNanos * capacidade;
+    }
+
+    /**
+     * Tenta consumir um token do balde da chave
+     * @param chave Chave do balde (IP, email, etc)
+     * @return Resultado com a decisão e os dados para os cabeçalhos de limite
+     */
+    public Resultado tentarConsumir(String chave) {
+        long agora = relogio.getAsLong();
+        AtomicLong balde = baldes.get(chave);
+        if (balde == null) {
+            balde = baldes.computeIfAbsent(chave, k -> new AtomicLong(agora));
+        }
+
+        while (true) {
+            long atual = balde.get();
+            long novo = Math.max(atual, agora) + intervaloNanos;
+            long ocupado = novo - agora;
+
+            if (ocupado > toleranciaNanos) {
+                long esperaNanos = ocupado - toleranciaNanos;
+                return new Resultado(false, capacidade, 0, Math.max(1, Duration.ofNanos(esperaNanos).toSeconds() + 1));
+            }
+            if (balde.compareAndSet(atual, novo)) {
+                int restantes = (int) ((toleranciaNanos - ocupado) / intervaloNanos);
+                return new Resultado(true, capacidade, restantes, 0);
+            }
+        }
+    }
+
+    /**
+     * Remove os baldes que já voltaram a ficar cheios
+     * Um balde cheio equivale a uma chave sem histórico
+     */
+    public void removerInativos() {
+        long agora = relogio.getAsLong();
+        baldes.values().removeIf(balde -> balde.get() - agora <= 0);
+    }
+
+    public int tamanho() {
+        return baldes.size();
+    }
+
+    public record Resultado(boolean permitido, int limite, int restantes, long retryAfterSegundos) {
+    }
+}
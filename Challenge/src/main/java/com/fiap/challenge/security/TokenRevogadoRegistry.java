@@ -0,0 +1,111 @@
+package com.fiap.challenge.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registro em memória dos access tokens revogados (pelo claim jti)
+ * Um filtro de Bloom responde em O(1) que a grande maioria dos tokens não foi
+ * revogada; só os positivos consultam o conjunto exato. Entradas saem do
+ * registro quando o próprio token expira, e o filtro é reconstruído na limpeza
+ */
+@Component
+public class TokenRevogadoRegistry {
+
+    private static final int NUMERO_HASHES = 5;
+
+    @Value("${jwt.revogacao.bloom-bits:1048576}")
+    private int bloomBits;
+
+    // jti -> instante de expiração do token (epoch millis)
+    private final Map<String, Long> revogados = new ConcurrentHashMap<>();
+
+    private volatile AtomicLongArray bloom;
+
+    @PostConstruct
+    void init() {
+        this.bloom = new AtomicLongArray(Math.max(1, bloomBits / 64));
+    }
+
+    /**
+     * Revoga um access token até a sua expiração
+     * @param jti ID do token
+     * @param expiracao Expiração do token
+     */
+    public void revogar(String jti, Date expiracao) {
+        if (jti == null || expiracao == null || expiracao.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revogados.put(jti, expiracao.getTime());
+        adicionar(bloom, jti);
+    }
+
+    public boolean isRevogado(String jti) {
+        if (jti == null || !contem(bloom, jti)) {
+            return false;
+        }
+        return revogados.containsKey(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revogacao.limpeza-intervalo-ms:60000}")
+    void limparExpirados() {
+        long agora = System.currentTimeMillis();
+        revogados.values().removeIf(expiracao -> expiracao <= agora);
+
+        AtomicLongArray novo = new AtomicLongArray(bloom.length());
+        revogados.keySet().forEach(jti -> adicionar(novo, jti));
+        bloom = novo;
+        // Revogações registradas no filtro antigo durante a reconstrução
+        revogados.keySet().forEach(jti -> adicionar(novo, jti));
+    }
+
+    private static void adicionar(AtomicLongArray bits, String chave) {
+        long hash = hash64(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long totalBits = (long) bits.length() * 64;
+
+        for (int i = 0; i < NUMERO_HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, totalBits);
+            int posicao = (int) (bit >>> 6);
+            long mascara = 1L << (bit & 63);
+            long atual;
+            do {
+                atual = bits.get(posicao);
+            } while ((atual & mascara) == 0 && !bits.compareAndSet(posicao, atual, atual | mascara));
+        }
+    }
+
+    private static boolean contem(AtomicLongArray bits, String chave) {
+        long hash = hash64(chave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long totalBits = (long) bits.length() * 64;
+
+        for (int i = 0; i < NUMERO_HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits
+    private static long hash64(String chave) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
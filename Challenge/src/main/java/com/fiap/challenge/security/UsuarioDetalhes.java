@@ -0,0 +1,46 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.model.Usuario;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável dos dados de autenticação de um usuário, usada pelo cache do CustomUserDetailsService
+ * Pode ser compartilhada entre threads; a entidade gerenciada é obtida pelo ID apenas onde for necessária
+ */
+@Getter
+public final class UsuarioDetalhes extends UsuarioAutenticado {
+
+    private final String senha;
+    private final boolean ativo;
+    private final int tokenVersao;
+    private final LocalDateTime dataCriacao;
+
+    private UsuarioDetalhes(Usuario usuario) {
+        super(usuario.getId(), usuario.getEmail(), usuario.getNome());
+        this.senha = usuario.getSenha();
+        this.ativo = Boolean.TRUE.equals(usuario.getAtivo());
+        this.tokenVersao = usuario.getTokenVersao() != null ? usuario.getTokenVersao() : 0;
+        this.dataCriacao = usuario.getDataCriacao();
+    }
+
+    /**
+     * Copia os dados de autenticação do usuário
+     * @param usuario Usuário carregado do banco
+     * @return UsuarioDetalhes imutável
+     */
+    public static UsuarioDetalhes de(Usuario usuario) {
+        return new UsuarioDetalhes(usuario);
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ativo;
+    }
+}
@@ -0,0 +1,78 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.repository.UsuarioRepository.UsuarioStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache de curta duração do status (ativo e versão de token) dos usuários
+ * Permite rejeitar usuários desativados sem consultar o banco a cada requisição
+ */
+@Component
+@RequiredArgsConstructor
+public class UsuarioStatusCache {
+
+    private final UsuarioRepository usuarioRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.status-cache.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${jwt.status-cache.max-size:10000}")
+    private long maxSize;
+
+    // Limitado e com expiração; invalidate() aguarda uma carga em andamento e descarta o valor lido por ela
+    private Cache<Long, Entrada> entradas;
+
+    @PostConstruct
+    void init() {
+        this.entradas = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entradas, "usuarios.status");
+    }
+
+    /**
+     * Verifica se os tokens emitidos com a versão informada ainda são válidos
+     * @param usuarioId ID do usuário do token
+     * @param versaoToken Versão gravada no token
+     * @return true se o usuário existe, está ativo e a versão confere
+     */
+    public boolean isTokenValido(Long usuarioId, int versaoToken) {
+        Entrada entrada = entradas.get(usuarioId, id -> usuarioRepository.findStatusById(id)
+                .map(status -> new Entrada(isAtivo(status), versao(status)))
+                .orElseGet(() -> new Entrada(false, -1)));
+
+        return entrada.ativo && entrada.versao == versaoToken;
+    }
+
+    /**
+     * Descarta o status em cache, forçando nova leitura na próxima requisição
+     * @param usuarioId ID do usuário alterado
+     */
+    public void invalidar(Long usuarioId) {
+        entradas.invalidate(usuarioId);
+    }
+
+    private static boolean isAtivo(UsuarioStatus status) {
+        return Boolean.TRUE.equals(status.getAtivo());
+    }
+
+    private static int versao(UsuarioStatus status) {
+        return status.getTokenVersao() != null ? status.getTokenVersao() : 0;
+    }
+
+    private record Entrada(boolean ativo, int versao) {
+    }
+}
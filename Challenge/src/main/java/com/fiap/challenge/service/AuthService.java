@@ -6,13 +6,19 @@ import com.fiap.challenge.dto.RegisterRequest;
 import com.fiap.challenge.dto.UserResponse;
 import com.fiap.challenge.model.Usuario;
 import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.security.CurrentUserProvider;
+import com.fiap.challenge.security.JwtToken;
 import com.fiap.challenge.security.JwtUtil;
+import com.fiap.challenge.security.SenhaHashExecutor;
+import com.fiap.challenge.security.TokenRevogadoRegistry;
+import com.fiap.challenge.security.UsuarioDetalhes;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,44 +30,100 @@ public class AuthService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final CustomUserDetailsService userDetailsService;
+    private final SenhaHashExecutor senhaHashExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevogadoRegistry tokenRevogadoRegistry;
+    private final CurrentUserProvider currentUserProvider;
+
+    // Hash usado para igualar o tempo de resposta de emails não cadastrados
+    private volatile String hashFicticio;
 
     /**
      * Realiza o login do usuário
+     * Sem transação: nenhuma conexão fica presa enquanto a requisição aguarda o pool do BCrypt
      * @param loginRequest Dados de login (email e senha)
      * @return LoginResponse contendo o token JWT e os dados do usuário
      */
-    @Transactional(readOnly = true)
     public LoginResponse login(LoginRequest loginRequest) {
-        // Autentica o usuário
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getSenha()
-                )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        // Gera o token JWT
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtUtil.generateToken(userDetails);
-
-        // Busca os dados completos do usuário
-        Usuario usuario = usuarioRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        // O usuário é carregado antes do pool: a thread do BCrypt não acessa o banco
+        UsuarioDetalhes usuario = carregarUsuario(loginRequest.getEmail());
+
+        senhaHashExecutor.executar(() -> {
+            verificarSenha(usuario, loginRequest.getSenha());
+            return null;
+        });
+        if (!usuario.isEnabled()) {
+            throw new DisabledException("Usuário desativado");
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(usuario, null, usuario.getAuthorities()));
+
+        // Gera o access token JWT com id, nome e versão do usuário; o refresh token é gravado em transação própria
+        String token = jwtUtil.generateToken(usuario);
+        String refreshToken = refreshTokenService.emitir(usuario.getId());
 
         UserResponse userResponse = new UserResponse(usuario);
 
-        return new LoginResponse(token, userResponse);
+        return new LoginResponse(token, refreshToken, userResponse);
+    }
+
+    /**
+     * Troca um refresh token válido por um novo par de tokens
+     * O refresh token usado é revogado (rotação)
+     * @param refreshToken Refresh token recebido do cliente
+     * @return LoginResponse com o novo access token e o novo refresh token
+     */
+    @Transactional
+    public LoginResponse refresh(String refreshToken) {
+        Usuario usuario = refreshTokenService.consumir(refreshToken);
+
+        if (!usuario.isEnabled()) {
+            throw new RuntimeException("Usuário desativado");
+        }
+
+        String token = jwtUtil.generateToken(usuario);
+        String novoRefreshToken = refreshTokenService.emitir(usuario.getId());
+
+        return new LoginResponse(token, novoRefreshToken, new UserResponse(usuario));
+    }
+
+    /**
+     * Encerra a sessão revogando o refresh token e o access token atual
+     * @param refreshToken Refresh token da sessão
+     * @param accessToken Access token atual (opcional)
+     */
+    @Transactional
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revogar(refreshToken);
+
+        if (accessToken != null) {
+            try {
+                JwtToken token = jwtUtil.parseToken(accessToken);
+                tokenRevogadoRegistry.revogar(token.getId(), token.getExpiration());
+            } catch (RuntimeException e) {
+                // Token inválido ou expirado não precisa ser revogado
+            }
+        }
+    }
+
+    /**
+     * Encerra todas as sessões do usuário logado
+     * Revoga os refresh tokens e incrementa a versão de token, invalidando os access tokens já emitidos
+     */
+    @Transactional
+    public void logoutTodos() {
+        Usuario usuario = currentUserProvider.getUsuario();
+        refreshTokenService.revogarSessoes(usuario.getId(), usuario.getEmail());
     }
 
     /**
      * Registra um novo usuário
+     * Sem transação envolvendo o hash: a verificação do email e a gravação usam conexões apenas pelo tempo do comando
      * @param registerRequest Dados do novo usuário
      * @return UserResponse com os dados do usuário criado
      */
-    @Transactional
     public UserResponse register(RegisterRequest registerRequest) {
         // Verifica se o email já está em uso
         if (usuarioRepository.existsByEmail(registerRequest.getEmail())) {
@@ -72,11 +134,12 @@ public class AuthService {
         Usuario usuario = new Usuario();
         usuario.setNome(registerRequest.getNome());
         usuario.setEmail(registerRequest.getEmail());
-        usuario.setSenha(passwordEncoder.encode(registerRequest.getSenha()));
+        usuario.setSenha(senhaHashExecutor.executar(() -> passwordEncoder.encode(registerRequest.getSenha())));
         usuario.setAtivo(true);
 
         // Salva no banco de dados
         Usuario usuarioSalvo = usuarioRepository.save(usuario);
+        userDetailsService.evict(usuarioSalvo.getEmail());
 
         return new UserResponse(usuarioSalvo);
     }
@@ -99,4 +162,36 @@ public class AuthService {
 
         return new UserResponse(usuario);
     }
+
+    /**
+     * Carrega o usuário do login, ou null se o email não estiver cadastrado
+     */
+    private UsuarioDetalhes carregarUsuario(String email) {
+        try {
+            return userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compara a senha com o hash do usuário (executado no pool do BCrypt, sem acesso ao banco)
+     * Email inexistente também paga o custo de um hash, para não ser distinguível pelo tempo de resposta
+     */
+    private void verificarSenha(UsuarioDetalhes usuario, String senha) {
+        if (usuario == null) {
+            passwordEncoder.matches(senha, hashFicticio());
+            throw new BadCredentialsException("Credenciais inválidas");
+        }
+        if (senha == null || !passwordEncoder.matches(senha, usuario.getPassword())) {
+            throw new BadCredentialsException("Credenciais inválidas");
+        }
+    }
+
+    private String hashFicticio() {
+        if (hashFicticio == null) {
+            hashFicticio = passwordEncoder.encode("senha-inexistente");
+        }
+        return hashFicticio;
+    }
 }
@@ -1,21 +1,64 @@
 package com.fiap.challenge.service;
 
 import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.security.UsuarioDetalhes;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${usuarios.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    // Tempo máximo que uma conta desativada ainda pode ser servida pelo cache
+    @Value("${usuarios.cache.ttl:60s}")
+    private Duration cacheTtl;
+
+    // Cópias imutáveis, compartilhadas entre requisições sem expor a entidade gerenciada
+    private Cache<String, UsuarioDetalhes> usuariosPorEmail;
+
+    @PostConstruct
+    void init() {
+        this.usuariosPorEmail = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosPorEmail, "usuarios.detalhes");
+    }
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com email: " + email));
+    public UsuarioDetalhes loadUserByUsername(String email) throws UsernameNotFoundException {
+        UsuarioDetalhes usuario = usuariosPorEmail.get(email,
+                chave -> usuarioRepository.findByEmail(chave).map(UsuarioDetalhes::de).orElse(null));
+
+        if (usuario == null) {
+            throw new UsernameNotFoundException("Usuário não encontrado com email: " + email);
+        }
+
+        return usuario;
+    }
+
+    /**
+     * Remove o usuário do cache após qualquer alteração no cadastro
+     * @param email Email do usuário alterado
+     */
+    public void evict(String email) {
+        usuariosPorEmail.invalidate(email);
     }
 }
@@ -0,0 +1,142 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.event.VendaAlteradaEvent;
+import com.fiap.challenge.event.VendasAlteradasEmLoteEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache por usuário dos resultados do dashboard (cards, agrupamentos, tipos e séries)
+ * Cada usuário tem um snapshot com os resultados já calculados, descartado inteiro após o commit
+ * de qualquer gravação de vendas do usuário. Consultas concorrentes iguais sem resultado aguardam
+ * um único cálculo. Um cálculo iniciado antes de um descarte grava no snapshot antigo, que não é
+ * mais lido, então nunca há resultado anterior ao commit servido depois dele.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${dashboard.cache.max-usuarios:1000}")
+    private long maximoUsuarios;
+
+    // Limite de segurança para alterações que não passam pelos eventos (ex.: edição direta no banco)
+    @Value("${dashboard.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${dashboard.cache.max-consultas-por-usuario:64}")
+    private int maximoConsultas;
+
+    private Cache<Long, Snapshot> snapshots;
+    private Counter acertos;
+    private Counter falhas;
+
+    /**
+     * Resultados calculados para um usuário, por consulta (nome e parâmetros)
+     */
+    private static final class Snapshot {
+        private final ConcurrentMap<Object, CompletableFuture<Object>> resultados = new ConcurrentHashMap<>();
+    }
+
+    @PostConstruct
+    void init() {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximoUsuarios)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "dashboard.snapshots");
+        // Mesmos nomes das métricas do Caffeine, por consulta: taxa de acerto = hit / (hit + miss)
+        this.acertos = Counter.builder("cache.gets").tag("cache", "dashboard").tag("result", "hit")
+                .description("Consultas do dashboard servidas pelo cache").register(meterRegistry);
+        this.falhas = Counter.builder("cache.gets").tag("cache", "dashboard").tag("result", "miss")
+                .description("Consultas do dashboard calculadas no banco").register(meterRegistry);
+    }
+
+    /**
+     * Recupera o resultado de uma consulta do usuário, calculando-o se ainda não estiver no snapshot
+     * Chamadas concorrentes para a mesma consulta aguardam um único cálculo; se ele falhar, a
+     * exceção é repassada a todas e nada é guardado
+     * @param usuarioId ID do usuário
+     * @param consulta Identificação da consulta (nome e parâmetros, com equals e hashCode)
+     * @param calculo Cálculo do resultado no banco
+     * @return Resultado, compartilhado entre as requisições (não deve ser alterado)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obter(Long usuarioId, Object consulta, Supplier<T> calculo) {
+        Snapshot snapshot = snapshots.get(usuarioId, id -> new Snapshot());
+        CompletableFuture<Object> resultado = snapshot.resultados.get(consulta);
+        if (resultado == null) {
+            if (snapshot.resultados.size() >= maximoConsultas) {
+                falhas.increment();
+                return calculo.get();
+            }
+            CompletableFuture<Object> novo = new CompletableFuture<>();
+            resultado = snapshot.resultados.putIfAbsent(consulta, novo);
+            if (resultado == null) {
+                falhas.increment();
+                return (T) calcular(snapshot, consulta, novo, calculo);
+            }
+        }
+
+        acertos.increment();
+        try {
+            return (T) resultado.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+
+    /**
+     * Descarta o snapshot do usuário, forçando novo cálculo no próximo acesso
+     */
+    public void invalidar(Long usuarioId) {
+        snapshots.invalidate(usuarioId);
+    }
+
+    /**
+     * Qualquer venda criada, alterada ou removida descarta o snapshot do usuário após o commit
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        invalidar(event.usuarioId());
+    }
+
+    /**
+     * fallbackExecution: a importação grava vários lotes, cada um em sua transação, e publica fora delas
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasAlteradasEmLote(VendasAlteradasEmLoteEvent event) {
+        invalidar(event.usuarioId());
+    }
+
+    private Object calcular(Snapshot snapshot, Object consulta, CompletableFuture<Object> resultado,
+                            Supplier<?> calculo) {
+        try {
+            Object valor = calculo.get();
+            resultado.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            snapshot.resultados.remove(consulta, resultado);
+            resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
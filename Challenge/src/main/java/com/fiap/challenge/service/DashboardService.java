@@ -2,21 +2,40 @@ package com.fiap.challenge.service;
 
 import com.fiap.challenge.dto.CardInfoResponse;
 import com.fiap.challenge.dto.CreateVendaRequest;
+import com.fiap.challenge.dto.PaginaResponse;
+import com.fiap.challenge.dto.SerieResponse;
+import com.fiap.challenge.dto.TotaisDiaResponse;
 import com.fiap.challenge.dto.VendaPorTipoResponse;
 import com.fiap.challenge.dto.VendaResponse;
+import com.fiap.challenge.dto.VerificacaoResumoResponse;
+import com.fiap.challenge.event.VendaAlteradaEvent;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.model.Usuario;
 import com.fiap.challenge.model.Venda;
-import com.fiap.challenge.repository.UsuarioRepository;
 import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.repository.VendaResumoDiarioRepository;
+import com.fiap.challenge.security.CurrentUserProvider;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,18 +43,45 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
     private final VendaRepository vendaRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final VendaResumoDiarioRepository resumoRepository;
+    private final ResumoDiarioService resumoDiarioService;
+    private final CurrentUserProvider currentUserProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DashboardCache dashboardCache;
+    private final PlatformTransactionManager transactionManager;
 
-    @Transactional(readOnly = true)
-    public CardInfoResponse getCardInfo() {
-        Usuario usuario = getUsuarioLogado();
+    @Value("${dashboard.serie.maximo-intervalos:3700}")
+    private int maximoIntervalosSerie;
+
+    // Transação somente leitura aberta apenas quando o resultado não está no cache
+    private TransactionTemplate leitura;
+
+    @PostConstruct
+    void init() {
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    /**
+     * Calcula as estatísticas dos cards, opcionalmente restritas a um período
+     * Servidas pelo cache do dashboard enquanto o usuário não gravar vendas
+     * @param de Primeiro dia do período, inclusivo (opcional)
+     * @param ate Último dia do período, inclusivo (opcional)
+     * @return CardInfoResponse com as estatísticas
+     */
+    public CardInfoResponse getCardInfo(LocalDate de, LocalDate ate) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Periodo periodo = Periodo.de(de, ate);
+        return dashboardCache.obter(usuarioId, List.of("cards", periodo),
+                () -> leitura.execute(status -> calcularCardInfo(usuarioId, periodo)));
+    }
 
-        BigDecimal totalVendas = vendaRepository.calcularTotalVendas(usuario);
-        BigDecimal totalVendasConcluidas = vendaRepository.calcularTotalVendasConcluidas(usuario);
-        Long quantidadeVendas = vendaRepository.countByUsuario(usuario);
-        Long vendasConcluidas = vendaRepository.countByUsuarioAndStatus(usuario, "Concluída");
-        Long vendasPendentes = vendaRepository.countByUsuarioAndStatus(usuario, "Pendente");
-        Long vendasCanceladas = vendaRepository.countByUsuarioAndStatus(usuario, "Cancelada");
+    private CardInfoResponse calcularCardInfo(Long usuarioId, Periodo periodo) {
+        // Uma única consulta com agregações condicionais sobre o resumo diário calcula todos os cards
+        VendaResumoDiarioRepository.ResumoCards resumo = resumoRepository.calcularResumoCards(
+                usuarioId, periodo.diaInicio(), periodo.diaFim());
+        BigDecimal totalVendas = resumo.getTotalVendas();
+        Long quantidadeVendas = resumo.getQuantidadeVendas();
 
         BigDecimal ticketMedio = BigDecimal.ZERO;
         if (quantidadeVendas > 0) {
@@ -48,19 +94,20 @@ public class DashboardService {
 
         return new CardInfoResponse(
                 totalVendas,
-                totalVendasConcluidas,
+                resumo.getTotalVendasConcluidas(),
                 quantidadeVendas,
-                vendasConcluidas,
-                vendasPendentes,
-                vendasCanceladas,
+                resumo.getVendasConcluidas(),
+                resumo.getVendasPendentes(),
+                resumo.getVendasCanceladas(),
                 ticketMedio
         );
     }
 
     @Transactional(readOnly = true)
-    public List<VendaResponse> getVendasUsuario() {
-        Usuario usuario = getUsuarioLogado();
-        List<Venda> vendas = vendaRepository.findByUsuarioOrderByDataVendaDesc(usuario);
+    public List<VendaResponse> getVendasUsuario(LocalDate de, LocalDate ate) {
+        Usuario usuario = currentUserProvider.getUsuario();
+        Periodo periodo = Periodo.de(de, ate);
+        List<Venda> vendas = vendaRepository.findByUsuarioNoPeriodo(usuario, periodo.inicio(), periodo.fim());
 
         return vendas.stream()
                 .map(VendaResponse::new)
@@ -68,9 +115,10 @@ public class DashboardService {
     }
 
     @Transactional(readOnly = true)
-    public List<VendaResponse> getVendasPorTipo(String tipo) {
-        Usuario usuario = getUsuarioLogado();
-        List<Venda> vendas = vendaRepository.findByUsuarioAndTipoOrderByDataVendaDesc(usuario, tipo);
+    public List<VendaResponse> getVendasPorTipo(String tipo, LocalDate de, LocalDate ate) {
+        Usuario usuario = currentUserProvider.getUsuario();
+        Periodo periodo = Periodo.de(de, ate);
+        List<Venda> vendas = vendaRepository.findByUsuarioAndTipoNoPeriodo(usuario, tipo, periodo.inicio(), periodo.fim());
 
         return vendas.stream()
                 .map(VendaResponse::new)
@@ -78,32 +126,207 @@ public class DashboardService {
     }
 
     @Transactional(readOnly = true)
-    public List<VendaResponse> getVendasPorStatus(String status) {
-        Usuario usuario = getUsuarioLogado();
-        List<Venda> vendas = vendaRepository.findByUsuarioAndStatusOrderByDataVendaDesc(usuario, status);
+    public List<VendaResponse> getVendasPorStatus(String status, LocalDate de, LocalDate ate) {
+        Usuario usuario = currentUserProvider.getUsuario();
+        Periodo periodo = Periodo.de(de, ate);
+        List<Venda> vendas = vendaRepository.findByUsuarioAndStatusNoPeriodo(usuario, status, periodo.inicio(), periodo.fim());
 
         return vendas.stream()
                 .map(VendaResponse::new)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recupera uma página das vendas do usuário, opcionalmente filtradas por tipo ou status
+     * @param tipo Tipo da venda (opcional)
+     * @param status Status da venda (opcional)
+     * @param cursor Cursor retornado pela página anterior (nulo na primeira página)
+     * @param limite Quantidade máxima de itens da página
+     * @param de Primeiro dia do período, inclusivo (opcional)
+     * @param ate Último dia do período, inclusivo (opcional)
+     * @return Página de VendaResponse com o cursor da próxima página
+     */
     @Transactional(readOnly = true)
-    public List<VendaPorTipoResponse> getVendasAgrupadasPorTipo() {
-        Usuario usuario = getUsuarioLogado();
-        List<String> tipos = vendaRepository.findDistinctTiposByUsuario(usuario);
-
-        return tipos.stream()
-                .map(tipo -> {
-                    BigDecimal valorTotal = vendaRepository.calcularTotalVendasPorTipo(usuario, tipo);
-                    int quantidade = vendaRepository.findByUsuarioAndTipoOrderByDataVendaDesc(usuario, tipo).size();
-                    return new VendaPorTipoResponse(tipo, valorTotal, (long) quantidade);
-                })
-                .collect(Collectors.toList());
+    public PaginaResponse<VendaResponse> getVendasPaginadas(String tipo, String status, String cursor, Integer limite,
+                                                            LocalDate de, LocalDate ate) {
+        Usuario usuario = currentUserProvider.getUsuario();
+        Periodo periodo = Periodo.de(de, ate);
+        VendaCursor posicao = VendaCursor.decodificar(cursor);
+        int tamanho = VendaCursor.limite(limite);
+
+        List<Venda> vendas;
+        if (tipo != null) {
+            vendas = vendaRepository.findPaginaByUsuarioAndTipo(
+                    usuario, tipo, periodo.inicio(), periodo.fim(), posicao.dataVenda(), posicao.id(), VendaCursor.consulta(tamanho));
+        } else if (status != null) {
+            vendas = vendaRepository.findPaginaByUsuarioAndStatus(
+                    usuario, status, periodo.inicio(), periodo.fim(), posicao.dataVenda(), posicao.id(), VendaCursor.consulta(tamanho));
+        } else {
+            vendas = vendaRepository.findPaginaByUsuario(
+                    usuario, periodo.inicio(), periodo.fim(), posicao.dataVenda(), posicao.id(), VendaCursor.consulta(tamanho));
+        }
+
+        return VendaCursor.montarPagina(vendas, tamanho, VendaResponse::new);
+    }
+
+    /**
+     * Agrupa as vendas por tipo com valor total e quantidade, em uma única consulta ao resumo diário
+     * @param de Primeiro dia do período, inclusivo (opcional)
+     * @param ate Último dia do período, inclusivo (opcional)
+     * @param status Considera apenas vendas com este status (opcional)
+     * @param porStatus true para detalhar cada tipo por status
+     * @return Lista de VendaPorTipoResponse ordenada por tipo (e status)
+     */
+    public List<VendaPorTipoResponse> getVendasAgrupadasPorTipo(LocalDate de, LocalDate ate, String status, boolean porStatus) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Periodo periodo = Periodo.de(de, ate);
+        String filtroStatus = status != null && !status.isBlank() ? status : null;
+
+        return dashboardCache.obter(usuarioId, Arrays.asList("por-tipo", periodo, filtroStatus, porStatus),
+                () -> leitura.execute(transacao -> porStatus
+                        ? resumoRepository.agruparPorTipoEStatus(usuarioId, filtroStatus, periodo.diaInicio(), periodo.diaFim())
+                        : resumoRepository.agruparPorTipo(usuarioId, filtroStatus, periodo.diaInicio(), periodo.diaFim())));
+    }
+
+    /**
+     * Monta a série temporal de faturamento e quantidade de vendas a partir do resumo diário
+     * Os dias do período são somados em intervalos (dia, semana iniciada na segunda-feira ou mês)
+     * e os intervalos sem vendas aparecem zerados
+     * @param granularidade dia (padrão), semana ou mes
+     * @param por tipo ou status para separar uma série por grupo (opcional)
+     * @param de Primeiro dia do período, inclusivo (opcional; padrão: primeiro dia com vendas)
+     * @param ate Último dia do período, inclusivo (opcional; padrão: hoje)
+     * @return SerieResponse com uma série por grupo, ou uma única série total
+     */
+    public SerieResponse getSerie(String granularidade, String por, LocalDate de, LocalDate ate) {
+        Granularidade intervalo = Granularidade.de(granularidade);
+        Agrupamento agrupamento = Agrupamento.de(por);
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        // Sem data final, a chave inclui o dia atual para a série avançar na virada do dia
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+
+        return dashboardCache.obter(usuarioId, Arrays.asList("serie", intervalo, agrupamento, de, fim),
+                () -> leitura.execute(status -> calcularSerie(usuarioId, intervalo, agrupamento, de, ate, fim)));
+    }
+
+    private SerieResponse calcularSerie(Long usuarioId, Granularidade intervalo, Agrupamento agrupamento,
+                                        LocalDate de, LocalDate ate, LocalDate fim) {
+        LocalDate inicio = de;
+        if (inicio == null) {
+            LocalDate primeiroDia = resumoRepository.findPrimeiroDia(usuarioId);
+            inicio = primeiroDia != null && primeiroDia.isBefore(fim) ? primeiroDia : fim;
+        } else if (ate == null && inicio.isAfter(fim)) {
+            fim = inicio;
+        }
+        Periodo periodo = Periodo.de(inicio, fim);
+
+        List<LocalDate> intervalos = new ArrayList<>();
+        for (LocalDate dia = intervalo.inicio(inicio); !dia.isAfter(fim); dia = intervalo.proximo(dia)) {
+            if (intervalos.size() >= maximoIntervalosSerie) {
+                throw new RequisicaoInvalidaException("Período excede o máximo de " + maximoIntervalosSerie + " intervalos");
+            }
+            intervalos.add(dia);
+        }
+        Map<LocalDate, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < intervalos.size(); i++) {
+            posicoes.put(intervalos.get(i), i);
+        }
+
+        List<TotaisDiaResponse> totais;
+        if (agrupamento == Agrupamento.TIPO) {
+            totais = resumoRepository.totalizarPorDiaETipo(usuarioId, periodo.diaInicio(), periodo.diaFim());
+        } else if (agrupamento == Agrupamento.STATUS) {
+            totais = resumoRepository.totalizarPorDiaEStatus(usuarioId, periodo.diaInicio(), periodo.diaFim());
+        } else {
+            totais = resumoRepository.totalizarPorDia(usuarioId, periodo.diaInicio(), periodo.diaFim());
+        }
+
+        // Séries ordenadas pelo grupo; a série total (grupo nulo) existe mesmo sem vendas
+        Map<String, SerieResponse.Serie> series = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        if (agrupamento == null) {
+            series.put(null, serieZerada(null, intervalos));
+        }
+        for (TotaisDiaResponse total : totais) {
+            SerieResponse.Serie serie = series.computeIfAbsent(total.grupo(), grupo -> serieZerada(grupo, intervalos));
+            SerieResponse.Ponto ponto = serie.getPontos().get(posicoes.get(intervalo.inicio(total.dia())));
+            ponto.setValorTotal(ponto.getValorTotal().add(total.valorTotal()));
+            ponto.setQuantidade(ponto.getQuantidade() + total.quantidadeVendas());
+        }
+
+        return new SerieResponse(intervalo.name().toLowerCase(Locale.ROOT), inicio, fim,
+                agrupamento != null ? agrupamento.name().toLowerCase(Locale.ROOT) : null,
+                new ArrayList<>(series.values()));
+    }
+
+    private static SerieResponse.Serie serieZerada(String grupo, List<LocalDate> intervalos) {
+        List<SerieResponse.Ponto> pontos = new ArrayList<>(intervalos.size());
+        for (LocalDate inicio : intervalos) {
+            pontos.add(new SerieResponse.Ponto(inicio, BigDecimal.ZERO, 0L));
+        }
+        return new SerieResponse.Serie(grupo, pontos);
+    }
+
+    /**
+     * Tamanho dos intervalos de uma série temporal
+     */
+    public enum Granularidade {
+        DIA, SEMANA, MES;
+
+        public static Granularidade de(String granularidade) {
+            if (granularidade == null || granularidade.isBlank()) {
+                return DIA;
+            }
+            try {
+                return valueOf(granularidade.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RequisicaoInvalidaException("Granularidade inválida: " + granularidade);
+            }
+        }
+
+        /**
+         * Primeiro dia do intervalo que contém o dia informado
+         */
+        LocalDate inicio(LocalDate dia) {
+            return switch (this) {
+                case DIA -> dia;
+                case SEMANA -> dia.with(DayOfWeek.MONDAY);
+                case MES -> dia.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate proximo(LocalDate inicio) {
+            return switch (this) {
+                case DIA -> inicio.plusDays(1);
+                case SEMANA -> inicio.plusWeeks(1);
+                case MES -> inicio.plusMonths(1);
+            };
+        }
+    }
+
+    /**
+     * Campo usado para separar uma série temporal em várias
+     */
+    public enum Agrupamento {
+        TIPO, STATUS;
+
+        /**
+         * @return Agrupamento informado, ou null para uma única série total
+         */
+        public static Agrupamento de(String agrupamento) {
+            if (agrupamento == null || agrupamento.isBlank()) {
+                return null;
+            }
+            try {
+                return valueOf(agrupamento.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RequisicaoInvalidaException("Agrupamento inválido: " + agrupamento);
+            }
+        }
     }
 
     @Transactional
     public VendaResponse criarVenda(CreateVendaRequest request) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
 
         Venda venda = new Venda();
         venda.setProduto(request.getProduto());
@@ -115,24 +338,37 @@ public class DashboardService {
         venda.setUsuario(usuario);
 
         Venda vendaSalva = vendaRepository.save(venda);
+        eventPublisher.publishEvent(VendaAlteradaEvent.criada(vendaSalva));
         return new VendaResponse(vendaSalva);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Lista os tipos de venda do usuário logado, servidos pelo cache do dashboard
+     * @return Tipos distintos, em ordem alfabética
+     */
     public List<String> getTiposDisponiveis() {
-        Usuario usuario = getUsuarioLogado();
-        return vendaRepository.findDistinctTiposByUsuario(usuario);
+        return dashboardCache.obter(currentUserProvider.getUsuarioId(), List.of("tipos"),
+                () -> leitura.execute(status -> vendaRepository.findDistinctTiposByUsuario(currentUserProvider.getUsuario())));
     }
 
-    private Usuario getUsuarioLogado() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    /**
+     * Compara o resumo diário do usuário logado com as vendas, sem alterar nada
+     * @return Resultado da verificação
+     */
+    public VerificacaoResumoResponse verificarResumoDiario() {
+        return resumoDiarioService.verificar(currentUserProvider.getUsuarioId());
+    }
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("Usuário não autenticado");
+    /**
+     * Reconstrói o resumo diário do usuário logado a partir das vendas
+     * @return Divergências encontradas e corrigidas
+     */
+    public VerificacaoResumoResponse reconstruirResumoDiario() {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        VerificacaoResumoResponse verificacao = resumoDiarioService.reconstruir(usuarioId);
+        if (!verificacao.getConsistente()) {
+            dashboardCache.invalidar(usuarioId);
         }
-
-        String email = authentication.getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        return verificacao;
     }
 }
@@ -0,0 +1,46 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Intervalo semiaberto [inicio, fim) de datas de venda
+ * Limites não informados viram valores extremos, mantendo uma única forma de consulta
+ * (e o mesmo uso do índice usuario_id, data_venda) com ou sem filtro de período
+ */
+record Periodo(LocalDateTime inicio, LocalDateTime fim) {
+
+    private static final LocalDateTime MINIMO = LocalDateTime.of(1900, 1, 1, 0, 0);
+    // Limites à meia-noite, para que o período sempre corresponda a dias inteiros (resumo diário)
+    private static final LocalDateTime MAXIMO = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    /**
+     * @param de Primeiro dia do período, inclusivo (opcional)
+     * @param ate Último dia do período, inclusivo (opcional)
+     */
+    static Periodo de(LocalDate de, LocalDate ate) {
+        if (de != null && ate != null && de.isAfter(ate)) {
+            throw new RequisicaoInvalidaException("Período inválido: data inicial posterior à data final");
+        }
+        return new Periodo(
+                de != null ? de.atStartOfDay() : MINIMO,
+                ate != null ? ate.plusDays(1).atStartOfDay() : MAXIMO
+        );
+    }
+
+    /**
+     * Primeiro dia do período (inclusivo), para consultas ao resumo diário
+     */
+    LocalDate diaInicio() {
+        return inicio.toLocalDate();
+    }
+
+    /**
+     * Dia seguinte ao último dia do período (exclusivo), para consultas ao resumo diário
+     */
+    LocalDate diaFim() {
+        return fim.toLocalDate();
+    }
+}
@@ -1,26 +1,63 @@
 package com.fiap.challenge.service;
 
+import com.fiap.challenge.busca.IndiceEspacial;
+import com.fiap.challenge.busca.IndiceTrigramas;
+import com.fiap.challenge.busca.PontoVendaGeoIndice;
+import com.fiap.challenge.busca.PontoVendaIndice;
+import com.fiap.challenge.dto.AlteracaoAtivoLoteRequest;
+import com.fiap.challenge.dto.ColunaPDVResponse;
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaResponse;
 import com.fiap.challenge.dto.CreatePDVRequest;
+import com.fiap.challenge.dto.ExclusaoLoteRequest;
+import com.fiap.challenge.dto.OperacaoLoteResponse;
+import com.fiap.challenge.dto.PDVBuscaResponse;
+import com.fiap.challenge.dto.PDVProximoResponse;
 import com.fiap.challenge.dto.PDVResponse;
+import com.fiap.challenge.event.PontoVendaAlteradoEvent;
+import com.fiap.challenge.event.PontosVendaRemovidosEmLoteEvent;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.model.PontoVenda;
 import com.fiap.challenge.model.Usuario;
 import com.fiap.challenge.repository.PontoVendaRepository;
-import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.security.CurrentUserProvider;
+import com.fiap.challenge.specification.ConsultaSpecification;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PontoVendaService {
 
+    // Campos consultáveis definidos pelos metadados da tabela de pontos de venda
+    private static final ConsultaSpecification<PontoVenda> CONSULTA = new ConsultaSpecification<>(
+            Arrays.stream(ColunaPDVResponse.getColunas())
+                    .map(coluna -> new ConsultaSpecification.Coluna(coluna.getCampo(), coluna.getTipo(), coluna.isOrdenavel()))
+                    .toList(),
+            Sort.by(Sort.Direction.DESC, "dataCriacao"));
+
+    public static final int PROXIMOS_PADRAO = 10;
+    public static final int PROXIMOS_MAXIMO = 100;
+
     private final PontoVendaRepository pontoVendaRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final PontoVendaIndice pontoVendaIndice;
+    private final PontoVendaGeoIndice pontoVendaGeoIndice;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Recupera todos os pontos de venda do usuário logado
@@ -28,7 +65,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getAllPDVs() {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioOrderByDataCriacaoDesc(usuario);
 
         return pdvs.stream()
@@ -36,6 +73,22 @@ public class PontoVendaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Consulta pontos de venda do usuário logado com filtros combinados, ordenação e paginação
+     * executados em uma única consulta SQL
+     * @param request Filtros, ordenação e página desejada
+     * @return ConsultaResponse com a página de PDVResponse
+     */
+    @Transactional(readOnly = true)
+    public ConsultaResponse<PDVResponse> consultar(ConsultaRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+
+        return new ConsultaResponse<>(pontoVendaRepository.findAll(
+                CONSULTA.especificacao(usuarioId, request.getFiltros()),
+                CONSULTA.paginacao(request)
+        ).map(PDVResponse::new));
+    }
+
     /**
      * Busca um PDV específico por ID
      * @param id ID do PDV
@@ -43,47 +96,93 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public PDVResponse getPDVById(Long id) {
-        Usuario usuario = getUsuarioLogado();
+        PontoVenda pdv = buscarPDVDoUsuario(id);
 
-        PontoVenda pdv = pontoVendaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Ponto de venda não encontrado"));
+        return new PDVResponse(pdv);
+    }
 
-        // Verifica se o PDV pertence ao usuário logado
-        if (!pdv.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: este ponto de venda não pertence ao usuário logado");
+    /**
+     * Busca aproximada de PDVs por nome, endereço e bairro, tolerante a trechos e erros de digitação
+     * @param consulta Texto da busca
+     * @param campo Campo a pesquisar (nome, endereco ou bairro), ou nulo para todos
+     * @param pagina Página desejada, começando em 0
+     * @param tamanho Quantidade de itens por página (máximo 100)
+     * @return ConsultaResponse com os PDVs e a similaridade de cada um
+     */
+    @Transactional(readOnly = true)
+    public ConsultaResponse<PDVBuscaResponse> buscar(String consulta, String campo, Integer pagina, Integer tamanho) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new RequisicaoInvalidaException("Termo de busca obrigatório");
         }
 
-        return new PDVResponse(pdv);
+        int numeroPagina = pagina != null ? Math.max(pagina, 0) : 0;
+        int tamanhoPagina = tamanho != null && tamanho > 0
+                ? Math.min(tamanho, ConsultaSpecification.TAMANHO_MAXIMO)
+                : ConsultaSpecification.TAMANHO_PADRAO;
+
+        IndiceTrigramas.Resultado resultado = pontoVendaIndice.buscar(currentUserProvider.getUsuarioId(), consulta,
+                campoBusca(campo), numeroPagina * tamanhoPagina, tamanhoPagina);
+
+        Map<Long, PontoVenda> pdvs = carregar(resultado.acertos());
+        List<PDVBuscaResponse> itens = resultado.acertos().stream()
+                .filter(acerto -> pdvs.containsKey(acerto.id()))
+                .map(acerto -> new PDVBuscaResponse(new PDVResponse(pdvs.get(acerto.id())), acerto.similaridade()))
+                .collect(Collectors.toList());
+
+        int totalPaginas = (resultado.total() + tamanhoPagina - 1) / tamanhoPagina;
+        return new ConsultaResponse<>(itens, numeroPagina, tamanhoPagina, (long) resultado.total(), totalPaginas);
+    }
+
+    /**
+     * Busca os PDVs georreferenciados mais próximos de uma coordenada
+     * PDVs sem latitude e longitude não participam da busca
+     * @param latitude Latitude da origem, entre -90 e 90
+     * @param longitude Longitude da origem, entre -180 e 180
+     * @param quantidade Quantidade máxima de PDVs (padrão 10, máximo 100)
+     * @param raioKm Distância máxima em km (opcional)
+     * @return Lista de PDVProximoResponse, do mais próximo ao mais distante
+     */
+    @Transactional(readOnly = true)
+    public List<PDVProximoResponse> getPDVsProximos(Double latitude, Double longitude, Integer quantidade, Double raioKm) {
+        if (latitude == null || longitude == null || !Double.isFinite(latitude) || !Double.isFinite(longitude)
+                || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new RequisicaoInvalidaException("Coordenadas inválidas");
+        }
+        if (raioKm != null && (!Double.isFinite(raioKm) || raioKm <= 0)) {
+            throw new RequisicaoInvalidaException("Raio inválido");
+        }
+        int k = quantidade != null && quantidade > 0 ? Math.min(quantidade, PROXIMOS_MAXIMO) : PROXIMOS_PADRAO;
+
+        List<IndiceEspacial.Vizinho> vizinhos = pontoVendaGeoIndice.buscar(
+                currentUserProvider.getUsuarioId(), latitude, longitude, k, raioKm);
+
+        Map<Long, PontoVenda> pdvs = pontoVendaRepository.findAllByIdInAndUsuarioId(
+                        vizinhos.stream().map(IndiceEspacial.Vizinho::id).toList(), currentUserProvider.getUsuarioId()).stream()
+                .collect(Collectors.toMap(PontoVenda::getId, Function.identity()));
+        return vizinhos.stream()
+                .filter(vizinho -> pdvs.containsKey(vizinho.id()))
+                .map(vizinho -> new PDVProximoResponse(new PDVResponse(pdvs.get(vizinho.id())), vizinho.distanciaKm()))
+                .collect(Collectors.toList());
     }
 
     /**
-     * Busca PDVs filtrados por endereço
+     * Busca PDVs filtrados por endereço (busca aproximada no índice de trigramas)
      * @param endereco Endereço ou parte do endereço
      * @return Lista de PDVResponse filtradas por endereço
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByEndereco(String endereco) {
-        Usuario usuario = getUsuarioLogado();
-        List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndEnderecoContainingIgnoreCase(usuario, endereco);
-
-        return pdvs.stream()
-                .map(PDVResponse::new)
-                .collect(Collectors.toList());
+        return buscarTodos(endereco, PontoVendaIndice.Campo.ENDERECO);
     }
 
     /**
-     * Busca PDVs filtrados por nome
+     * Busca PDVs filtrados por nome (busca aproximada no índice de trigramas)
      * @param nome Nome ou parte do nome do PDV
      * @return Lista de PDVResponse filtradas por nome
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByNome(String nome) {
-        Usuario usuario = getUsuarioLogado();
-        List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndNomeContainingIgnoreCase(usuario, nome);
-
-        return pdvs.stream()
-                .map(PDVResponse::new)
-                .collect(Collectors.toList());
+        return buscarTodos(nome, PontoVendaIndice.Campo.NOME);
     }
 
     /**
@@ -93,7 +192,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByCidade(String cidade) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndCidadeOrderByDataCriacaoDesc(usuario, cidade);
 
         return pdvs.stream()
@@ -108,7 +207,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByEstado(String estado) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndEstadoOrderByDataCriacaoDesc(usuario, estado);
 
         return pdvs.stream()
@@ -117,18 +216,13 @@ public class PontoVendaService {
     }
 
     /**
-     * Busca PDVs filtrados por bairro
+     * Busca PDVs filtrados por bairro (busca aproximada no índice de trigramas)
      * @param bairro Bairro
      * @return Lista de PDVResponse filtradas por bairro
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByBairro(String bairro) {
-        Usuario usuario = getUsuarioLogado();
-        List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndBairroContainingIgnoreCase(usuario, bairro);
-
-        return pdvs.stream()
-                .map(PDVResponse::new)
-                .collect(Collectors.toList());
+        return buscarTodos(bairro, PontoVendaIndice.Campo.BAIRRO);
     }
 
     /**
@@ -138,7 +232,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByTipo(String tipo) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndTipoOrderByDataCriacaoDesc(usuario, tipo);
 
         return pdvs.stream()
@@ -153,7 +247,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<PDVResponse> getPDVsByAtivo(Boolean ativo) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<PontoVenda> pdvs = pontoVendaRepository.findByUsuarioAndAtivoOrderByDataCriacaoDesc(usuario, ativo);
 
         return pdvs.stream()
@@ -167,7 +261,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<String> getTiposDisponiveis() {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         return pontoVendaRepository.findDistinctTiposByUsuario(usuario);
     }
 
@@ -177,7 +271,7 @@ public class PontoVendaService {
      */
     @Transactional(readOnly = true)
     public List<String> getCidadesDisponiveis() {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         return pontoVendaRepository.findDistinctCidadesByUsuario(usuario);
     }
 
@@ -188,7 +282,7 @@ public class PontoVendaService {
      */
     @Transactional
     public PDVResponse createPDV(CreatePDVRequest request) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
 
         PontoVenda pdv = new PontoVenda();
         pdv.setNome(request.getNome());
@@ -197,6 +291,8 @@ public class PontoVendaService {
         pdv.setCidade(request.getCidade());
         pdv.setEstado(request.getEstado());
         pdv.setCep(request.getCep());
+        pdv.setLatitude(request.getLatitude());
+        pdv.setLongitude(request.getLongitude());
         pdv.setTelefone(request.getTelefone());
         pdv.setEmail(request.getEmail());
         pdv.setResponsavel(request.getResponsavel());
@@ -206,6 +302,7 @@ public class PontoVendaService {
         pdv.setUsuario(usuario);
 
         PontoVenda pdvSalvo = pontoVendaRepository.save(pdv);
+        eventPublisher.publishEvent(PontoVendaAlteradoEvent.salvo(pdvSalvo));
         return new PDVResponse(pdvSalvo);
     }
 
@@ -217,15 +314,7 @@ public class PontoVendaService {
      */
     @Transactional
     public PDVResponse updatePDV(Long id, CreatePDVRequest request) {
-        Usuario usuario = getUsuarioLogado();
-
-        PontoVenda pdv = pontoVendaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Ponto de venda não encontrado"));
-
-        // Verifica se o PDV pertence ao usuário logado
-        if (!pdv.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: este ponto de venda não pertence ao usuário logado");
-        }
+        PontoVenda pdv = buscarPDVDoUsuario(id);
 
         // Atualiza os campos
         pdv.setNome(request.getNome());
@@ -234,6 +323,8 @@ public class PontoVendaService {
         pdv.setCidade(request.getCidade());
         pdv.setEstado(request.getEstado());
         pdv.setCep(request.getCep());
+        pdv.setLatitude(request.getLatitude());
+        pdv.setLongitude(request.getLongitude());
         pdv.setTelefone(request.getTelefone());
         pdv.setEmail(request.getEmail());
         pdv.setResponsavel(request.getResponsavel());
@@ -244,6 +335,7 @@ public class PontoVendaService {
         }
 
         PontoVenda pdvAtualizado = pontoVendaRepository.save(pdv);
+        eventPublisher.publishEvent(PontoVendaAlteradoEvent.salvo(pdvAtualizado));
         return new PDVResponse(pdvAtualizado);
     }
 
@@ -253,32 +345,90 @@ public class PontoVendaService {
      */
     @Transactional
     public void deletePDV(Long id) {
-        Usuario usuario = getUsuarioLogado();
+        PontoVenda pdv = buscarPDVDoUsuario(id);
 
-        PontoVenda pdv = pontoVendaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Ponto de venda não encontrado"));
+        pontoVendaRepository.delete(pdv);
+        eventPublisher.publishEvent(PontoVendaAlteradoEvent.removido(pdv.getUsuario().getId(), id));
+    }
 
-        // Verifica se o PDV pertence ao usuário logado
-        if (!pdv.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: este ponto de venda não pertence ao usuário logado");
-        }
+    /**
+     * Busca os PDVs similares em um campo, do mais para o menos similar
+     * Limitada aos mais similares, como o filtro de vendas por IDs, para manter a carga em uma consulta IN
+     * de tamanho fixo; a busca paginada (/busca) percorre todos os resultados
+     */
+    private List<PDVResponse> buscarTodos(String consulta, PontoVendaIndice.Campo campo) {
+        IndiceTrigramas.Resultado resultado = pontoVendaIndice.buscar(
+                currentUserProvider.getUsuarioId(), consulta, campo, 0, VendaService.MAXIMO_IDS_FILTRO);
+
+        Map<Long, PontoVenda> pdvs = carregar(resultado.acertos());
+        return resultado.acertos().stream()
+                .map(acerto -> pdvs.get(acerto.id()))
+                .filter(Objects::nonNull)
+                .map(PDVResponse::new)
+                .collect(Collectors.toList());
+    }
 
-        pontoVendaRepository.delete(pdv);
+    private Map<Long, PontoVenda> carregar(List<IndiceTrigramas.Acerto> acertos) {
+        List<Long> ids = acertos.stream().map(IndiceTrigramas.Acerto::id).toList();
+        return pontoVendaRepository.findAllByIdInAndUsuarioId(ids, currentUserProvider.getUsuarioId()).stream()
+                .collect(Collectors.toMap(PontoVenda::getId, Function.identity()));
+    }
+
+    private static PontoVendaIndice.Campo campoBusca(String campo) {
+        if (campo == null || campo.isBlank()) {
+            return null;
+        }
+        try {
+            return PontoVendaIndice.Campo.valueOf(campo.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException("Campo de busca inválido: " + campo);
+        }
     }
 
     /**
-     * Recupera o usuário logado
-     * @return Usuario logado
+     * Ativa ou desativa vários PDVs do usuário logado com um único UPDATE
+     * @param request IDs e novo valor de ativo
+     * @return OperacaoLoteResponse com a quantidade alterada e os IDs não encontrados
      */
-    private Usuario getUsuarioLogado() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    @Transactional
+    public OperacaoLoteResponse atualizarAtivoEmLote(AlteracaoAtivoLoteRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+
+        List<Long> encontrados = pontoVendaRepository.findIdsByUsuarioIdAndIdIn(usuarioId, ids);
+        int afetados = encontrados.isEmpty() ? 0 : pontoVendaRepository.atualizarAtivoEmLote(
+                usuarioId, encontrados, request.getAtivo(), LocalDateTime.now());
+        // ativo não faz parte dos índices de busca, então não há evento a publicar
+        return OperacaoLoteResponse.de(ids, encontrados, afetados);
+    }
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("Usuário não autenticado");
+    /**
+     * Exclui vários PDVs do usuário logado com um único DELETE
+     * @param request IDs a excluir
+     * @return OperacaoLoteResponse com a quantidade excluída e os IDs não encontrados
+     */
+    @Transactional
+    public OperacaoLoteResponse deletePDVsEmLote(ExclusaoLoteRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+
+        List<Long> encontrados = pontoVendaRepository.findIdsByUsuarioIdAndIdIn(usuarioId, ids);
+        int afetados = 0;
+        if (!encontrados.isEmpty()) {
+            afetados = pontoVendaRepository.deleteEmLote(usuarioId, encontrados);
+            eventPublisher.publishEvent(new PontosVendaRemovidosEmLoteEvent(usuarioId, encontrados));
         }
+        return OperacaoLoteResponse.de(ids, encontrados, afetados);
+    }
 
-        String email = authentication.getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    /**
+     * Busca um PDV do usuário logado pela chave primária já filtrada pelo proprietário
+     * Só quando não encontra consulta a existência, para diferenciar inexistente de outro usuário
+     */
+    private PontoVenda buscarPDVDoUsuario(Long id) {
+        return pontoVendaRepository.findByIdAndUsuarioId(id, currentUserProvider.getUsuarioId())
+                .orElseThrow(() -> pontoVendaRepository.existsById(id)
+                        ? new RuntimeException("Acesso negado: este ponto de venda não pertence ao usuário logado")
+                        : new RuntimeException("Ponto de venda não encontrado"));
     }
 }
@@ -1,26 +1,54 @@
 package com.fiap.challenge.service;
 
+import com.fiap.challenge.dto.AlteracaoAtivoLoteRequest;
+import com.fiap.challenge.dto.ColunaProdutoResponse;
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaResponse;
 import com.fiap.challenge.dto.CreateProdutoRequest;
+import com.fiap.challenge.busca.IndiceInvertido;
+import com.fiap.challenge.busca.ProdutoIndice;
+import com.fiap.challenge.dto.ExclusaoLoteRequest;
+import com.fiap.challenge.dto.OperacaoLoteResponse;
 import com.fiap.challenge.dto.ProdutoResponse;
+import com.fiap.challenge.event.ProdutoAlteradoEvent;
+import com.fiap.challenge.event.ProdutosRemovidosEmLoteEvent;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.model.Produto;
 import com.fiap.challenge.model.Usuario;
 import com.fiap.challenge.repository.ProdutoRepository;
-import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.security.CurrentUserProvider;
+import com.fiap.challenge.specification.ConsultaSpecification;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProdutoService {
 
+    // Campos consultáveis definidos pelos metadados da tabela de produtos
+    private static final ConsultaSpecification<Produto> CONSULTA = new ConsultaSpecification<>(
+            Arrays.stream(ColunaProdutoResponse.getColunas())
+                    .map(coluna -> new ConsultaSpecification.Coluna(coluna.getCampo(), coluna.getTipo(), coluna.isOrdenavel()))
+                    .toList(),
+            Sort.by(Sort.Direction.DESC, "dataCriacao"));
+
     private final ProdutoRepository produtoRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final ProdutoIndice produtoIndice;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Recupera todos os produtos do usuário logado
@@ -28,7 +56,7 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public List<ProdutoResponse> getAllProdutos() {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<Produto> produtos = produtoRepository.findByUsuarioOrderByDataCriacaoDesc(usuario);
 
         return produtos.stream()
@@ -36,6 +64,22 @@ public class ProdutoService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Consulta produtos do usuário logado com filtros combinados, ordenação e paginação
+     * executados em uma única consulta SQL
+     * @param request Filtros, ordenação e página desejada
+     * @return ConsultaResponse com a página de ProdutoResponse
+     */
+    @Transactional(readOnly = true)
+    public ConsultaResponse<ProdutoResponse> consultar(ConsultaRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+
+        return new ConsultaResponse<>(produtoRepository.findAll(
+                CONSULTA.especificacao(usuarioId, request.getFiltros()),
+                CONSULTA.paginacao(request)
+        ).map(ProdutoResponse::new));
+    }
+
     /**
      * Busca um produto específico por ID
      * @param id ID do produto
@@ -43,30 +87,63 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public ProdutoResponse getProdutoById(Long id) {
-        Usuario usuario = getUsuarioLogado();
+        Produto produto = buscarProdutoDoUsuario(id);
 
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
+        return new ProdutoResponse(produto);
+    }
 
-        // Verifica se o produto pertence ao usuário logado
-        if (!produto.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: este produto não pertence ao usuário logado");
+    /**
+     * Busca textual de produtos por nome, descrição e fabricante, ignorando acentos
+     * Os resultados vêm do índice em memória, ordenados por relevância
+     * @param consulta Texto da busca (o último termo também casa por prefixo)
+     * @param pagina Página desejada, começando em 0
+     * @param tamanho Quantidade de itens por página (máximo 100)
+     * @return ConsultaResponse com os produtos da página
+     */
+    @Transactional(readOnly = true)
+    public ConsultaResponse<ProdutoResponse> buscar(String consulta, Integer pagina, Integer tamanho) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new RequisicaoInvalidaException("Termo de busca obrigatório");
         }
 
-        return new ProdutoResponse(produto);
+        int numeroPagina = pagina != null ? Math.max(pagina, 0) : 0;
+        int tamanhoPagina = tamanho != null && tamanho > 0
+                ? Math.min(tamanho, ConsultaSpecification.TAMANHO_MAXIMO)
+                : ConsultaSpecification.TAMANHO_PADRAO;
+
+        IndiceInvertido.Resultado resultado = produtoIndice.buscar(
+                currentUserProvider.getUsuarioId(), consulta, numeroPagina * tamanhoPagina, tamanhoPagina);
+
+        int totalPaginas = (resultado.total() + tamanhoPagina - 1) / tamanhoPagina;
+        return new ConsultaResponse<>(carregarNaOrdem(resultado.ids()), numeroPagina, tamanhoPagina,
+                (long) resultado.total(), totalPaginas);
     }
 
     /**
      * Busca produtos filtrados por nome
+     * Usa o mesmo índice textual da busca, retornando os resultados mais relevantes, no máximo
+     * o mesmo limite do filtro de vendas por IDs; a busca paginada percorre todos os resultados
      * @param nome Nome ou parte do nome do produto
      * @return Lista de ProdutoResponse filtradas por nome
      */
     @Transactional(readOnly = true)
     public List<ProdutoResponse> getProdutosByNome(String nome) {
-        Usuario usuario = getUsuarioLogado();
-        List<Produto> produtos = produtoRepository.findByUsuarioAndNomeContainingIgnoreCase(usuario, nome);
+        IndiceInvertido.Resultado resultado = produtoIndice.buscar(
+                currentUserProvider.getUsuarioId(), nome, 0, VendaService.MAXIMO_IDS_FILTRO);
 
-        return produtos.stream()
+        return carregarNaOrdem(resultado.ids());
+    }
+
+    /**
+     * Carrega os produtos em uma única consulta preservando a ordem de relevância
+     */
+    private List<ProdutoResponse> carregarNaOrdem(List<Long> ids) {
+        Map<Long, Produto> produtos = produtoRepository.findAllByIdInAndUsuarioId(ids, currentUserProvider.getUsuarioId()).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+
+        return ids.stream()
+                .map(produtos::get)
+                .filter(Objects::nonNull)
                 .map(ProdutoResponse::new)
                 .collect(Collectors.toList());
     }
@@ -78,7 +155,7 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public List<ProdutoResponse> getProdutosByCategoria(String categoria) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<Produto> produtos = produtoRepository.findByUsuarioAndCategoriaOrderByDataCriacaoDesc(usuario, categoria);
 
         return produtos.stream()
@@ -93,7 +170,7 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public List<ProdutoResponse> getProdutosByAtivo(Boolean ativo) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<Produto> produtos = produtoRepository.findByUsuarioAndAtivoOrderByDataCriacaoDesc(usuario, ativo);
 
         return produtos.stream()
@@ -108,7 +185,7 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public ProdutoResponse getProdutoByCodigo(String codigo) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
 
         Produto produto = produtoRepository.findByUsuarioAndCodigo(usuario, codigo)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com o código: " + codigo));
@@ -122,7 +199,7 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public List<String> getCategoriasDisponiveis() {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         return produtoRepository.findDistinctCategoriasByUsuario(usuario);
     }
 
@@ -133,7 +210,7 @@ public class ProdutoService {
      */
     @Transactional(readOnly = true)
     public List<ProdutoResponse> getProdutosComEstoqueBaixo(Integer limite) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
         List<Produto> produtos = produtoRepository.findProdutosComEstoqueBaixo(usuario, limite);
 
         return produtos.stream()
@@ -148,7 +225,7 @@ public class ProdutoService {
      */
     @Transactional
     public ProdutoResponse createProduto(CreateProdutoRequest request) {
-        Usuario usuario = getUsuarioLogado();
+        Usuario usuario = currentUserProvider.getUsuario();
 
         // Verifica se o código já existe para o usuário
         if (produtoRepository.existsByCodigoAndUsuario(request.getCodigo(), usuario)) {
@@ -168,6 +245,7 @@ public class ProdutoService {
         produto.setUsuario(usuario);
 
         Produto produtoSalvo = produtoRepository.save(produto);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.salvo(produtoSalvo));
         return new ProdutoResponse(produtoSalvo);
     }
 
@@ -179,19 +257,11 @@ public class ProdutoService {
      */
     @Transactional
     public ProdutoResponse updateProduto(Long id, CreateProdutoRequest request) {
-        Usuario usuario = getUsuarioLogado();
-
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
-
-        // Verifica se o produto pertence ao usuário logado
-        if (!produto.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: este produto não pertence ao usuário logado");
-        }
+        Produto produto = buscarProdutoDoUsuario(id);
 
         // Verifica se o novo código já existe (se estiver mudando o código)
         if (!produto.getCodigo().equals(request.getCodigo())) {
-            if (produtoRepository.existsByCodigoAndUsuario(request.getCodigo(), usuario)) {
+            if (produtoRepository.existsByCodigoAndUsuario(request.getCodigo(), produto.getUsuario())) {
                 throw new RuntimeException("Já existe um produto com o código: " + request.getCodigo());
             }
         }
@@ -210,6 +280,7 @@ public class ProdutoService {
         }
 
         Produto produtoAtualizado = produtoRepository.save(produto);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.salvo(produtoAtualizado));
         return new ProdutoResponse(produtoAtualizado);
     }
 
@@ -219,32 +290,56 @@ public class ProdutoService {
      */
     @Transactional
     public void deleteProduto(Long id) {
-        Usuario usuario = getUsuarioLogado();
-
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
-
-        // Verifica se o produto pertence ao usuário logado
-        if (!produto.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: este produto não pertence ao usuário logado");
-        }
+        Produto produto = buscarProdutoDoUsuario(id);
 
         produtoRepository.delete(produto);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.removido(produto.getUsuario().getId(), id));
     }
 
     /**
-     * Recupera o usuário logado
-     * @return Usuario logado
+     * Ativa ou desativa vários produtos do usuário logado com um único UPDATE
+     * @param request IDs e novo valor de ativo
+     * @return OperacaoLoteResponse com a quantidade alterada e os IDs não encontrados
      */
-    private Usuario getUsuarioLogado() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    @Transactional
+    public OperacaoLoteResponse atualizarAtivoEmLote(AlteracaoAtivoLoteRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+
+        List<Long> encontrados = produtoRepository.findIdsByUsuarioIdAndIdIn(usuarioId, ids);
+        int afetados = encontrados.isEmpty() ? 0 : produtoRepository.atualizarAtivoEmLote(
+                usuarioId, encontrados, request.getAtivo(), LocalDateTime.now());
+        // ativo não faz parte dos índices de busca, então não há evento a publicar
+        return OperacaoLoteResponse.de(ids, encontrados, afetados);
+    }
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("Usuário não autenticado");
+    /**
+     * Exclui vários produtos do usuário logado com um único DELETE
+     * @param request IDs a excluir
+     * @return OperacaoLoteResponse com a quantidade excluída e os IDs não encontrados
+     */
+    @Transactional
+    public OperacaoLoteResponse deleteProdutosEmLote(ExclusaoLoteRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+
+        List<Long> encontrados = produtoRepository.findIdsByUsuarioIdAndIdIn(usuarioId, ids);
+        int afetados = 0;
+        if (!encontrados.isEmpty()) {
+            afetados = produtoRepository.deleteEmLote(usuarioId, encontrados);
+            eventPublisher.publishEvent(new ProdutosRemovidosEmLoteEvent(usuarioId, encontrados));
         }
+        return OperacaoLoteResponse.de(ids, encontrados, afetados);
+    }
 
-        String email = authentication.getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    /**
+     * Busca um produto do usuário logado pela chave primária já filtrada pelo proprietário
+     * Só quando não encontra consulta a existência, para diferenciar inexistente de outro usuário
+     */
+    private Produto buscarProdutoDoUsuario(Long id) {
+        return produtoRepository.findByIdAndUsuarioId(id, currentUserProvider.getUsuarioId())
+                .orElseThrow(() -> produtoRepository.existsById(id)
+                        ? new RuntimeException("Acesso negado: este produto não pertence ao usuário logado")
+                        : new RuntimeException("Produto não encontrado"));
     }
 }
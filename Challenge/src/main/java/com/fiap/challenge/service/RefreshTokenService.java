@@ -0,0 +1,171 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.model.RefreshToken;
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.repository.RefreshTokenRepository;
+import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.security.UsuarioStatusCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioStatusCache usuarioStatusCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final PlatformTransactionManager transactionManager;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh.ttl:30d}")
+    private Duration refreshTtl;
+
+    @Value("${jwt.refresh.tolerancia-rotacao:10s}")
+    private Duration toleranciaRotacao;
+
+    /**
+     * Emite um novo refresh token para o usuário
+     * @param usuarioId ID do usuário dono do token
+     * @return Token opaco a ser devolvido ao cliente (apenas o hash é persistido)
+     */
+    @Transactional
+    public String emitir(Long usuarioId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+        refreshToken.setExpiraEm(LocalDateTime.now().plus(refreshTtl));
+        refreshToken.setRevogado(false);
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    /**
+     * Consome um refresh token válido, revogando-o (rotação)
+     * A reutilização de um token já revogado revoga todas as sessões do usuário, exceto quando ele foi
+     * rotacionado há menos de jwt.refresh.tolerancia-rotacao (renovações simultâneas do mesmo cliente,
+     * reenvio após falha de rede): nesse caso apenas esta requisição é recusada
+     * @param token Refresh token recebido do cliente
+     * @return Usuário dono do token
+     */
+    @Transactional
+    public Usuario consumir(String token) {
+        String tokenHash = hash(token);
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new RuntimeException("Refresh token inválido"));
+
+        if (Boolean.TRUE.equals(refreshToken.getRevogado())) {
+            rejeitarReutilizacao(refreshToken.getUsuario(), refreshToken.getRotacionadoEm());
+        }
+        if (refreshToken.getExpiraEm().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Refresh token expirado");
+        }
+
+        // Revogação condicional: se outra renovação consumiu o token depois da leitura, é reutilização
+        if (refreshTokenRepository.revogarSeAtivo(tokenHash, LocalDateTime.now()) == 0) {
+            rejeitarReutilizacao(refreshToken.getUsuario(),
+                    refreshTokenRepository.findRotacionadoEmByTokenHash(tokenHash).orElse(null));
+        }
+        return refreshToken.getUsuario();
+    }
+
+    /**
+     * Revoga um refresh token, se existir
+     * @param token Refresh token recebido do cliente
+     */
+    @Transactional
+    public void revogar(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> refreshToken.setRevogado(true));
+    }
+
+    /**
+     * Revoga todas as sessões do usuário: os refresh tokens e, pela versão de token, os access tokens já emitidos
+     * @param usuarioId ID do usuário
+     * @param email Email do usuário (chave do cache de detalhes usado no login)
+     */
+    @Transactional
+    public void revogarSessoes(Long usuarioId, String email) {
+        revogarTodasAsSessoes(usuarioId, email);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.limpeza-intervalo-ms:3600000}")
+    @Transactional
+    public void removerExpirados() {
+        refreshTokenRepository.deleteExpirados(LocalDateTime.now());
+    }
+
+    /**
+     * Recusa um refresh token já revogado
+     * Dentro da tolerância após a rotação, recusa apenas a requisição; fora dela (ou se o token foi revogado
+     * por logout) trata como reutilização
+     * @param usuario Dono do token
+     * @param rotacionadoEm Momento da rotação, ou null se o token não foi consumido por uma renovação
+     */
+    private void rejeitarReutilizacao(Usuario usuario, LocalDateTime rotacionadoEm) {
+        if (rotacionadoEm != null && rotacionadoEm.isAfter(LocalDateTime.now().minus(toleranciaRotacao))) {
+            throw new RuntimeException("Refresh token inválido");
+        }
+        revogarPorReutilizacao(usuario);
+    }
+
+    /**
+     * Reação à reutilização de um refresh token já consumido: revoga todas as sessões do usuário
+     * Transação própria: a revogação precisa sobreviver ao rollback da renovação
+     */
+    private void revogarPorReutilizacao(Usuario usuario) {
+        Long usuarioId = usuario.getId();
+        String email = usuario.getEmail();
+        TransactionTemplate novaTransacao = new TransactionTemplate(transactionManager);
+        novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        novaTransacao.executeWithoutResult(status -> revogarTodasAsSessoes(usuarioId, email));
+        throw new RuntimeException("Refresh token inválido");
+    }
+
+    private void revogarTodasAsSessoes(Long usuarioId, String email) {
+        refreshTokenRepository.revogarTodosDoUsuario(usuarioId);
+        usuarioRepository.incrementarTokenVersao(usuarioId);
+
+        // Após o commit, para que a releitura do status e do usuário já veja a nova versão
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                usuarioStatusCache.invalidar(usuarioId);
+                userDetailsService.evict(email);
+            }
+        });
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
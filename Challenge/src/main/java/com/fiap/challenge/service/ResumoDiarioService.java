@@ -0,0 +1,340 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.dto.VerificacaoResumoResponse;
+import com.fiap.challenge.event.VendaAlteradaEvent;
+import com.fiap.challenge.model.VendaResumoDiario;
+import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.repository.VendaResumoDiarioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manutenção do resumo diário de vendas (vendas_resumo_diario)
+ * Cada gravação de vendas soma ou subtrai sua diferença no resumo dentro da mesma transação:
+ * as diferenças são acumuladas por (usuário, dia, tipo, status) durante a transação e gravadas
+ * antes do commit com um upsert por chave, em ordem fixa de chave para evitar deadlocks entre
+ * transações concorrentes. Se a transação for desfeita, nada é gravado.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumoDiarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoDiarioService.class);
+
+    private static final Comparator<VendaResumoDiario.Chave> ORDEM_CHAVES = Comparator
+            .comparing(VendaResumoDiario.Chave::getUsuarioId)
+            .thenComparing(VendaResumoDiario.Chave::getDia)
+            .thenComparing(VendaResumoDiario.Chave::getTipo)
+            .thenComparing(VendaResumoDiario.Chave::getStatus);
+
+    private static final String REMOVER_VAZIA = "DELETE FROM vendas_resumo_diario " +
+            "WHERE usuario_id = ? AND dia = ? AND tipo = ? AND status = ? AND quantidade_vendas = 0";
+
+    private final VendaResumoDiarioRepository resumoRepository;
+    private final VendaRepository vendaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${vendas.resumo-diario.reconstruir-na-inicializacao:false}")
+    private boolean reconstruirNaInicializacao;
+
+    private String upsert;
+
+    @PostConstruct
+    void init() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect instanceof PostgreSQLDialect) {
+            upsert = "INSERT INTO vendas_resumo_diario AS r " +
+                    "(usuario_id, dia, tipo, status, quantidade_vendas, quantidade_itens, valor_total) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (usuario_id, dia, tipo, status) DO UPDATE SET " +
+                    "quantidade_vendas = r.quantidade_vendas + EXCLUDED.quantidade_vendas, " +
+                    "quantidade_itens = r.quantidade_itens + EXCLUDED.quantidade_itens, " +
+                    "valor_total = r.valor_total + EXCLUDED.valor_total";
+        } else {
+            // MERGE do SQL padrão (H2 e demais bancos)
+            upsert = "MERGE INTO vendas_resumo_diario r USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), " +
+                    "CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(30)), CAST(? AS BIGINT), CAST(? AS BIGINT), " +
+                    "CAST(? AS NUMERIC(19, 2)))) AS d (usuario_id, dia, tipo, status, quantidade_vendas, " +
+                    "quantidade_itens, valor_total) " +
+                    "ON r.usuario_id = d.usuario_id AND r.dia = d.dia AND r.tipo = d.tipo AND r.status = d.status " +
+                    "WHEN MATCHED THEN UPDATE SET quantidade_vendas = r.quantidade_vendas + d.quantidade_vendas, " +
+                    "quantidade_itens = r.quantidade_itens + d.quantidade_itens, valor_total = r.valor_total + d.valor_total " +
+                    "WHEN NOT MATCHED THEN INSERT (usuario_id, dia, tipo, status, quantidade_vendas, quantidade_itens, valor_total) " +
+                    "VALUES (d.usuario_id, d.dia, d.tipo, d.status, d.quantidade_vendas, d.quantidade_itens, d.valor_total)";
+        }
+    }
+
+    /**
+     * Aplica ao resumo a diferença de uma venda criada, alterada ou removida
+     * Executado de forma síncrona, na transação que publicou o evento
+     */
+    @EventListener
+    public void onVendaAlterada(VendaAlteradaEvent evento) {
+        Alteracoes alteracoes = alteracoesDaTransacao();
+        if (evento.anterior() != null) {
+            alteracoes.somar(evento.usuarioId(), evento.anterior(), -1);
+        }
+        if (evento.atual() != null) {
+            alteracoes.somar(evento.usuarioId(), evento.atual(), 1);
+        }
+        aplicarSeForaDeTransacao(alteracoes);
+    }
+
+    /**
+     * Soma ao resumo uma venda gravada fora do JPA (importação via JDBC)
+     * @param usuarioId ID do usuário proprietário da venda
+     * @param dia Dia da venda
+     * @param tipo Tipo da venda
+     * @param status Status da venda
+     * @param quantidade Quantidade vendida
+     * @param valorTotal Valor total da venda
+     */
+    public void somar(Long usuarioId, LocalDate dia, String tipo, String status, int quantidade, BigDecimal valorTotal) {
+        Alteracoes alteracoes = alteracoesDaTransacao();
+        alteracoes.somar(new VendaResumoDiario.Chave(usuarioId, dia, tipo, status), 1, quantidade, valorTotal);
+        aplicarSeForaDeTransacao(alteracoes);
+    }
+
+    /**
+     * Soma ao resumo os totais atuais das vendas informadas (após uma alteração em lote)
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param ids IDs das vendas
+     */
+    public void somar(Long usuarioId, Collection<Long> ids) {
+        acumularTotais(usuarioId, ids, 1);
+    }
+
+    /**
+     * Retira do resumo os totais atuais das vendas informadas (antes de uma alteração ou exclusão em lote)
+     * @param usuarioId ID do usuário proprietário das vendas
+     * @param ids IDs das vendas
+     */
+    public void retirar(Long usuarioId, Collection<Long> ids) {
+        acumularTotais(usuarioId, ids, -1);
+    }
+
+    /**
+     * Compara o resumo de um usuário com os totais calculados a partir das vendas
+     * @param usuarioId ID do usuário
+     * @return Resultado da verificação, com as linhas divergentes
+     */
+    @Transactional(readOnly = true)
+    public VerificacaoResumoResponse verificar(Long usuarioId) {
+        Map<VendaResumoDiario.Chave, VerificacaoResumoResponse.Totais> esperado = new HashMap<>();
+        for (VendaRepository.TotaisDiarios totais : vendaRepository.totalizarPorDia(usuarioId)) {
+            esperado.put(new VendaResumoDiario.Chave(usuarioId, totais.getDia(), totais.getTipo(), totais.getStatus()),
+                    new VerificacaoResumoResponse.Totais(totais.getQuantidadeVendas(), totais.getQuantidadeItens(),
+                            totais.getValorTotal()));
+        }
+        Map<VendaResumoDiario.Chave, VerificacaoResumoResponse.Totais> registrado = new HashMap<>();
+        for (VendaResumoDiario linha : resumoRepository.findByUsuarioId(usuarioId)) {
+            registrado.put(new VendaResumoDiario.Chave(usuarioId, linha.getDia(), linha.getTipo(), linha.getStatus()),
+                    new VerificacaoResumoResponse.Totais(linha.getQuantidadeVendas(), linha.getQuantidadeItens(),
+                            linha.getValorTotal()));
+        }
+
+        List<VendaResumoDiario.Chave> chaves = new ArrayList<>(esperado.keySet());
+        registrado.keySet().stream().filter(chave -> !esperado.containsKey(chave)).forEach(chaves::add);
+        chaves.sort(ORDEM_CHAVES);
+
+        List<VerificacaoResumoResponse.Divergencia> divergencias = new ArrayList<>();
+        for (VendaResumoDiario.Chave chave : chaves) {
+            VerificacaoResumoResponse.Totais totaisEsperados = esperado.get(chave);
+            VerificacaoResumoResponse.Totais totaisRegistrados = registrado.get(chave);
+            if (!iguais(totaisEsperados, totaisRegistrados)) {
+                divergencias.add(new VerificacaoResumoResponse.Divergencia(
+                        chave.getDia(), chave.getTipo(), chave.getStatus(), totaisEsperados, totaisRegistrados));
+            }
+        }
+        return new VerificacaoResumoResponse(divergencias.isEmpty(), esperado.size(), registrado.size(), divergencias);
+    }
+
+    /**
+     * Reconstrói o resumo de um usuário a partir das vendas, se ele estiver divergente
+     * Deve ser executado com poucas gravações de vendas do usuário em andamento; gravações
+     * concorrentes podem ser contadas em dobro ou perdidas (uma nova verificação as detecta)
+     * @param usuarioId ID do usuário
+     * @return Verificação feita antes da reconstrução (as divergências listadas foram corrigidas)
+     */
+    @Transactional
+    public VerificacaoResumoResponse reconstruir(Long usuarioId) {
+        VerificacaoResumoResponse verificacao = verificar(usuarioId);
+        if (verificacao.getConsistente()) {
+            return verificacao;
+        }
+
+        resumoRepository.deleteByUsuario(usuarioId);
+        Alteracoes alteracoes = new Alteracoes();
+        for (VendaRepository.TotaisDiarios totais : vendaRepository.totalizarPorDia(usuarioId)) {
+            alteracoes.somar(new VendaResumoDiario.Chave(usuarioId, totais.getDia(), totais.getTipo(), totais.getStatus()),
+                    totais.getQuantidadeVendas(), totais.getQuantidadeItens(), totais.getValorTotal());
+        }
+        aplicar(alteracoes);
+        log.info("Resumo diário de vendas do usuário {} reconstruído: {} divergências corrigidas, {} linhas",
+                usuarioId, verificacao.getDivergencias().size(), verificacao.getLinhasEsperadas());
+        return verificacao;
+    }
+
+    /**
+     * Reconstrói o resumo de todos os usuários na inicialização quando configurado, ou quando o
+     * resumo está vazio e há vendas (banco criado antes do resumo existir)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSeNecessario() {
+        if (!reconstruirNaInicializacao && (resumoRepository.count() > 0 || vendaRepository.count() == 0)) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Long> usuarios = vendaRepository.findDistinctUsuarioIds();
+        for (Long usuarioId : usuarios) {
+            // Uma transação por usuário, para não manter um único lock longo
+            transacao.executeWithoutResult(status -> reconstruir(usuarioId));
+        }
+        log.info("Resumo diário de vendas verificado para {} usuários em {} ms",
+                usuarios.size(), System.currentTimeMillis() - inicio);
+    }
+
+    private void acumularTotais(Long usuarioId, Collection<Long> ids, int sinal) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Alteracoes alteracoes = alteracoesDaTransacao();
+        for (VendaRepository.TotaisDiarios totais : vendaRepository.totalizarPorDia(usuarioId, ids)) {
+            alteracoes.somar(new VendaResumoDiario.Chave(usuarioId, totais.getDia(), totais.getTipo(), totais.getStatus()),
+                    sinal * totais.getQuantidadeVendas(), sinal * totais.getQuantidadeItens(),
+                    sinal > 0 ? totais.getValorTotal() : totais.getValorTotal().negate());
+        }
+        aplicarSeForaDeTransacao(alteracoes);
+    }
+
+    /**
+     * Diferenças acumuladas na transação atual, gravadas antes do commit
+     * Fora de uma transação, retorna um acumulador avulso (aplicado na hora pelo chamador)
+     */
+    private Alteracoes alteracoesDaTransacao() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Alteracoes();
+        }
+        Alteracoes alteracoes = (Alteracoes) TransactionSynchronizationManager.getResource(this);
+        if (alteracoes == null) {
+            Alteracoes novas = new Alteracoes();
+            TransactionSynchronizationManager.bindResource(this, novas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    aplicar(novas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ResumoDiarioService.this);
+                }
+            });
+            alteracoes = novas;
+        }
+        return alteracoes;
+    }
+
+    private void aplicarSeForaDeTransacao(Alteracoes alteracoes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(alteracoes);
+        }
+    }
+
+    /**
+     * Grava as diferenças com um upsert por chave e remove as linhas que ficaram sem vendas
+     */
+    private void aplicar(Alteracoes alteracoes) {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> remocoes = new ArrayList<>();
+        alteracoes.diferencas.entrySet().stream()
+                .filter(diferenca -> !diferenca.getValue().vazia())
+                .sorted(Map.Entry.comparingByKey(ORDEM_CHAVES))
+                .forEach(diferenca -> {
+                    VendaResumoDiario.Chave chave = diferenca.getKey();
+                    Diferenca valores = diferenca.getValue();
+                    Object[] parametrosChave = {chave.getUsuarioId(), Date.valueOf(chave.getDia()), chave.getTipo(), chave.getStatus()};
+                    upserts.add(new Object[]{parametrosChave[0], parametrosChave[1], parametrosChave[2], parametrosChave[3],
+                            valores.quantidadeVendas, valores.quantidadeItens, valores.valorTotal});
+                    if (valores.quantidadeVendas < 0) {
+                        remocoes.add(parametrosChave);
+                    }
+                });
+        alteracoes.diferencas.clear();
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(upsert, upserts);
+        }
+        if (!remocoes.isEmpty()) {
+            jdbcTemplate.batchUpdate(REMOVER_VAZIA, remocoes);
+        }
+    }
+
+    private static boolean iguais(VerificacaoResumoResponse.Totais a, VerificacaoResumoResponse.Totais b) {
+        return a != null && b != null
+                && a.getQuantidadeVendas().equals(b.getQuantidadeVendas())
+                && a.getQuantidadeItens().equals(b.getQuantidadeItens())
+                && a.getValorTotal().compareTo(b.getValorTotal()) == 0;
+    }
+
+    /**
+     * Diferenças pendentes por chave do resumo
+     */
+    private static final class Alteracoes {
+
+        private final Map<VendaResumoDiario.Chave, Diferenca> diferencas = new LinkedHashMap<>();
+
+        void somar(Long usuarioId, VendaAlteradaEvent.DadosVenda venda, int sinal) {
+            BigDecimal valorTotal = venda.valorTotal() != null ? venda.valorTotal() : BigDecimal.ZERO;
+            somar(new VendaResumoDiario.Chave(usuarioId, venda.dataVenda().toLocalDate(), venda.tipo(), venda.status()),
+                    sinal, (long) sinal * venda.quantidade(), sinal > 0 ? valorTotal : valorTotal.negate());
+        }
+
+        void somar(VendaResumoDiario.Chave chave, long quantidadeVendas, long quantidadeItens, BigDecimal valorTotal) {
+            Diferenca diferenca = diferencas.computeIfAbsent(chave, c -> new Diferenca());
+            diferenca.quantidadeVendas += quantidadeVendas;
+            diferenca.quantidadeItens += quantidadeItens;
+            diferenca.valorTotal = diferenca.valorTotal.add(valorTotal);
+        }
+    }
+
+    private static final class Diferenca {
+
+        private long quantidadeVendas;
+        private long quantidadeItens;
+        private BigDecimal valorTotal = BigDecimal.ZERO;
+
+        boolean vazia() {
+            return quantidadeVendas == 0 && quantidadeItens == 0 && valorTotal.signum() == 0;
+        }
+    }
+}
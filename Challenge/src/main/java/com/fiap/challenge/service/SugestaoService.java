@@ -0,0 +1,43 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.busca.SugestaoIndice;
+import com.fiap.challenge.dto.SugestaoResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+import com.fiap.challenge.security.CurrentUserProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SugestaoService {
+
+    public static final int LIMITE_PADRAO = 10;
+    public static final int LIMITE_MAXIMO = 50;
+    private static final int TAMANHO_MAXIMO_PREFIXO = 100;
+
+    private final SugestaoIndice sugestaoIndice;
+    private final CurrentUserProvider currentUserProvider;
+
+    /**
+     * Sugestões de autocompletar do usuário logado para o texto digitado
+     * Combina nomes e códigos de produtos, nomes e cidades de PDVs e produtos vendidos
+     * @param prefixo Texto digitado (início do texto ou de qualquer palavra)
+     * @param limite Quantidade máxima de sugestões
+     * @return Lista de SugestaoResponse, das mais relevantes para as menos relevantes
+     */
+    public List<SugestaoResponse> sugerir(String prefixo, Integer limite) {
+        if (prefixo == null || prefixo.isBlank()) {
+            throw new RequisicaoInvalidaException("Termo de busca obrigatório");
+        }
+        if (prefixo.length() > TAMANHO_MAXIMO_PREFIXO) {
+            prefixo = prefixo.substring(0, TAMANHO_MAXIMO_PREFIXO);
+        }
+        int quantidade = limite != null && limite > 0 ? Math.min(limite, LIMITE_MAXIMO) : LIMITE_PADRAO;
+
+        return sugestaoIndice.sugerir(currentUserProvider.getUsuarioId(), prefixo, quantidade).stream()
+                .map(resultado -> new SugestaoResponse(resultado.texto(), resultado.tipo(), resultado.ocorrencias()))
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.dto.PaginaResponse;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+import com.fiap.challenge.model.Venda;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor opaco da paginação por keyset de vendas, ordenadas por (dataVenda, id) decrescente
+ * O custo de cada página independe da profundidade, ao contrário de OFFSET
+ */
+record VendaCursor(LocalDateTime dataVenda, Long id) {
+
+    static final int LIMITE_PADRAO = 20;
+    static final int LIMITE_MAXIMO = 100;
+
+    // Posição anterior a qualquer venda, usada na primeira página
+    private static final VendaCursor INICIO = new VendaCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    static VendaCursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new VendaCursor(LocalDateTime.parse(valor.substring(0, separador)), Long.parseLong(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new RequisicaoInvalidaException("Cursor inválido");
+        }
+    }
+
+    String codificar() {
+        String valor = dataVenda + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int limite(Integer solicitado) {
+        if (solicitado == null || solicitado < 1) {
+            return LIMITE_PADRAO;
+        }
+        return Math.min(solicitado, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Busca um item a mais que o limite para saber se existe próxima página
+     */
+    static Pageable consulta(int limite) {
+        return PageRequest.of(0, limite + 1);
+    }
+
+    static <T> PaginaResponse<T> montarPagina(List<Venda> vendas, int limite, Function<Venda, T> conversor) {
+        boolean temProxima = vendas.size() > limite;
+        List<Venda> pagina = temProxima ? vendas.subList(0, limite) : vendas;
+
+        String proximoCursor = null;
+        if (temProxima) {
+            Venda ultima = pagina.get(pagina.size() - 1);
+            proximoCursor = new VendaCursor(ultima.getDataVenda(), ultima.getId()).codificar();
+        }
+
+        return new PaginaResponse<>(pagina.stream().map(conversor).toList(), proximoCursor, limite);
+    }
+}
@@ -0,0 +1,224 @@
+package com.fiap.challenge.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+import com.fiap.challenge.model.Venda;
+import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.security.CurrentUserProvider;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class VendaExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(VendaExportService.class);
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    // Colunas exportadas, na ordem do arquivo (mesmos nomes dos campos da API)
+    private static final List<Coluna> COLUNAS = List.of(
+            new Coluna("id", Venda::getId),
+            new Coluna("produto", Venda::getProduto),
+            new Coluna("quantidade", Venda::getQuantidade),
+            new Coluna("valor", Venda::getValor),
+            new Coluna("valorTotal", Venda::getValorTotal),
+            new Coluna("tipo", Venda::getTipo),
+            new Coluna("status", Venda::getStatus),
+            new Coluna("dataVenda", Venda::getDataVenda),
+            new Coluna("observacoes", Venda::getObservacoes),
+            new Coluna("dataCriacao", Venda::getDataCriacao),
+            new Coluna("dataAtualizacao", Venda::getDataAtualizacao)
+    );
+
+    private final VendaRepository vendaRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Formatos de exportação suportados
+     */
+    public enum Formato {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String tipoConteudo;
+        private final String extensao;
+
+        Formato(String tipoConteudo, String extensao) {
+            this.tipoConteudo = tipoConteudo;
+            this.extensao = extensao;
+        }
+
+        public String getTipoConteudo() {
+            return tipoConteudo;
+        }
+
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+
+    /**
+     * Parâmetros validados de uma exportação
+     * O usuário é resolvido na requisição, pois o arquivo é escrito depois, fora da thread original
+     */
+    public record Exportacao(Formato formato, Long usuarioId, String tipo, String status,
+                             LocalDateTime inicio, LocalDateTime fim) {
+
+        public String nomeArquivo() {
+            return "vendas-" + LocalDate.now() + "." + formato.getExtensao();
+        }
+    }
+
+    private record Coluna(String nome, Function<Venda, Object> valor) {
+    }
+
+    /**
+     * Valida os parâmetros da exportação do usuário logado antes de iniciar a resposta
+     * @param formato csv ou ndjson (padrão csv)
+     * @param de Primeiro dia do período (opcional)
+     * @param ate Último dia do período (opcional)
+     * @param tipo Tipo da venda (opcional)
+     * @param status Status da venda (opcional)
+     * @return Exportacao pronta para ser escrita
+     */
+    public Exportacao preparar(String formato, LocalDate de, LocalDate ate, String tipo, String status) {
+        Formato formatoExportacao;
+        try {
+            formatoExportacao = formato == null || formato.isBlank()
+                    ? Formato.CSV
+                    : Formato.valueOf(formato.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException("Formato de exportação inválido: " + formato);
+        }
+        Periodo periodo = Periodo.de(de, ate);
+
+        return new Exportacao(formatoExportacao, currentUserProvider.getUsuarioId(), vazioComoNulo(tipo),
+                vazioComoNulo(status), periodo.inicio(), periodo.fim());
+    }
+
+    /**
+     * Escreve as vendas no formato pedido, linha a linha
+     * A leitura usa um cursor do banco dentro de uma transação somente leitura (um único snapshot
+     * consistente), e cada entidade é desanexada após ser escrita, mantendo o uso de memória
+     * constante independentemente da quantidade de vendas
+     * @param exportacao Parâmetros validados por {@link #preparar}
+     * @param saida Stream da resposta HTTP
+     */
+    public void escrever(Exportacao exportacao, OutputStream saida) throws IOException {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        long inicio = System.currentTimeMillis();
+        try {
+            Long linhas = transacao.execute(status -> {
+                try (Stream<Venda> vendas = vendaRepository.streamParaExportacao(exportacao.usuarioId(),
+                        exportacao.tipo(), exportacao.status(), exportacao.inicio(), exportacao.fim())) {
+                    return exportacao.formato() == Formato.CSV
+                            ? escreverCsv(vendas.iterator(), writer)
+                            : escreverNdjson(vendas.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            log.info("Exportação de vendas ({}) do usuário {}: {} linhas em {} ms", exportacao.formato(),
+                    exportacao.usuarioId(), linhas, System.currentTimeMillis() - inicio);
+        } catch (UncheckedIOException e) {
+            // Normalmente o cliente encerrou o download
+            throw e.getCause();
+        }
+    }
+
+    private long escreverCsv(Iterator<Venda> vendas, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUNAS.stream().map(Coluna::nome).toList()));
+        writer.write("\r\n");
+
+        long linhas = 0;
+        while (vendas.hasNext()) {
+            Venda venda = vendas.next();
+            for (int i = 0; i < COLUNAS.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(valorCsv(COLUNAS.get(i).valor().apply(venda)));
+            }
+            writer.write("\r\n");
+            entityManager.detach(venda);
+            linhas++;
+        }
+        return linhas;
+    }
+
+    private long escreverNdjson(Iterator<Venda> vendas, Writer writer) throws IOException {
+        JsonGenerator gerador = objectMapper.createGenerator(writer);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gerador.setRootValueSeparator(null);
+
+        long linhas = 0;
+        while (vendas.hasNext()) {
+            Venda venda = vendas.next();
+            gerador.writeStartObject();
+            for (Coluna coluna : COLUNAS) {
+                gerador.writeObjectField(coluna.nome(), coluna.valor().apply(venda));
+            }
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+            entityManager.detach(venda);
+            linhas++;
+        }
+        gerador.flush();
+        return linhas;
+    }
+
+    /**
+     * Formata um valor para CSV (RFC 4180), protegendo textos que planilhas interpretariam como fórmula
+     */
+    private static String valorCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (!(valor instanceof String texto)) {
+            return valor.toString();
+        }
+        if (!texto.isEmpty() && "=+-@\t\r".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor;
+    }
+}
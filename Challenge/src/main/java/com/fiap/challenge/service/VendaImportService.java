@@ -0,0 +1,372 @@
+package com.fiap.challenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.challenge.config.SequenciasIds;
+import com.fiap.challenge.dto.ImportacaoResponse;
+import com.fiap.challenge.event.VendasAlteradasEmLoteEvent;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
+import com.fiap.challenge.importacao.LeitorCsv;
+import com.fiap.challenge.model.Venda;
+import com.fiap.challenge.security.CurrentUserProvider;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+@Service
+@RequiredArgsConstructor
+public class VendaImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(VendaImportService.class);
+
+    private static final String INSERT = "INSERT INTO vendas (id, produto, quantidade, valor, valor_total, tipo, status, " +
+            "usuario_id, data_venda, data_criacao, data_atualizacao, observacoes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] TIPOS_INSERT = {Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.NUMERIC, Types.NUMERIC,
+            Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR};
+
+    private static final List<String> CAMPOS_OBRIGATORIOS = List.of("produto", "quantidade", "valor", "tipo", "status");
+    // Limite das colunas numeric(10, 2)
+    private static final BigDecimal VALOR_MAXIMO = new BigDecimal("99999999.99");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenciasIds sequenciasIds;
+    private final PlatformTransactionManager transactionManager;
+    private final CurrentUserProvider currentUserProvider;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResumoDiarioService resumoDiarioService;
+
+    @Value("${importacao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    @Value("${importacao.max-erros-detalhados:1000}")
+    private int maximoErrosDetalhados;
+
+    /**
+     * Formatos de importação suportados
+     */
+    public enum Formato {
+        CSV, NDJSON;
+
+        /**
+         * Resolve o formato pelo parâmetro informado ou, na falta dele, pelo Content-Type
+         */
+        public static Formato de(String formato, String tipoConteudo) {
+            if (formato != null && !formato.isBlank()) {
+                try {
+                    return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new RequisicaoInvalidaException("Formato de importação inválido: " + formato);
+                }
+            }
+            return tipoConteudo != null && tipoConteudo.toLowerCase(Locale.ROOT).contains("json") ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * Importa vendas para o usuário logado a partir de um CSV (com cabeçalho) ou NDJSON
+     * As linhas são lidas e validadas conforme chegam e gravadas em lotes JDBC, cada lote em sua
+     * própria transação. Linhas inválidas são apenas reportadas; se o banco rejeitar um lote, ele é
+     * regravado linha a linha para isolar as linhas com problema sem perder as demais.
+     * Colunas: produto, quantidade, valor, tipo, status (obrigatórias), dataVenda e observacoes (opcionais)
+     * @param formato Formato da entrada
+     * @param entrada Corpo da requisição
+     * @return Relatório com totais e erros por linha
+     */
+    public ImportacaoResponse importar(Formato formato, InputStream entrada) throws IOException {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Importacao importacao = new Importacao(usuarioId, LocalDateTime.now());
+        long inicio = System.currentTimeMillis();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (formato == Formato.CSV) {
+                lerCsv(reader, importacao);
+            } else {
+                lerNdjson(reader, importacao);
+            }
+            importacao.gravarLote();
+        } finally {
+            // Cada lote já foi confirmado em sua transação: mesmo que a leitura falhe no meio
+            // (ex.: cliente abortou o envio), índices e caches precisam refletir o que foi gravado
+            if (importacao.importadas > 0) {
+                eventPublisher.publishEvent(new VendasAlteradasEmLoteEvent(usuarioId));
+            }
+        }
+        log.info("Importação de vendas ({}) do usuário {}: {} linhas, {} importadas, {} rejeitadas em {} ms",
+                formato, usuarioId, importacao.linhasLidas, importacao.importadas, importacao.rejeitadas,
+                System.currentTimeMillis() - inicio);
+
+        return new ImportacaoResponse(importacao.linhasLidas, importacao.importadas, importacao.rejeitadas,
+                importacao.erros, importacao.rejeitadas - importacao.erros.size());
+    }
+
+    private void lerCsv(BufferedReader reader, Importacao importacao) throws IOException {
+        LeitorCsv leitor = new LeitorCsv(reader);
+        List<String> cabecalho = leitor.proximo();
+        if (cabecalho == null) {
+            return;
+        }
+
+        Map<String, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            posicoes.put(cabecalho.get(i).trim(), i);
+        }
+        List<String> ausentes = CAMPOS_OBRIGATORIOS.stream().filter(campo -> !posicoes.containsKey(campo)).toList();
+        if (!ausentes.isEmpty()) {
+            throw new RequisicaoInvalidaException("Cabeçalho CSV inválido: colunas obrigatórias ausentes " + ausentes);
+        }
+
+        List<String> campos;
+        while ((campos = leitor.proximo()) != null) {
+            List<String> registro = campos;
+            importacao.processar(leitor.getLinhaRegistro(), nome -> {
+                Integer posicao = posicoes.get(nome);
+                return posicao != null && posicao < registro.size() ? registro.get(posicao) : null;
+            });
+        }
+    }
+
+    private void lerNdjson(BufferedReader reader, Importacao importacao) throws IOException {
+        String texto;
+        int linha = 0;
+        while ((texto = reader.readLine()) != null) {
+            linha++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            JsonNode objeto;
+            try {
+                objeto = objectMapper.readTree(texto);
+            } catch (JsonProcessingException e) {
+                importacao.rejeitar(linha, "JSON inválido");
+                continue;
+            }
+            if (!objeto.isObject()) {
+                importacao.rejeitar(linha, "JSON inválido: esperado um objeto por linha");
+                continue;
+            }
+            importacao.processar(linha, nome -> {
+                JsonNode valor = objeto.get(nome);
+                return valor == null || valor.isNull() ? null : valor.asText();
+            });
+        }
+    }
+
+    /**
+     * Estado de uma importação em andamento: lote pendente e contadores
+     */
+    private final class Importacao {
+
+        private final Long usuarioId;
+        private final Timestamp agora;
+        private final LongSupplier ids = sequenciasIds.reservar(Venda.class);
+        private final List<Object[]> lote = new ArrayList<>();
+        private final List<Integer> linhasLote = new ArrayList<>();
+        private final List<ImportacaoResponse.Erro> erros = new ArrayList<>();
+        private long linhasLidas;
+        private long importadas;
+        private long rejeitadas;
+
+        Importacao(Long usuarioId, LocalDateTime agora) {
+            this.usuarioId = usuarioId;
+            this.agora = Timestamp.valueOf(agora);
+        }
+
+        void processar(int linha, Function<String, String> campo) {
+            linhasLidas++;
+            Object[] valores;
+            try {
+                valores = converter(campo);
+            } catch (LinhaInvalidaException e) {
+                registrarErro(linha, e.getMessage());
+                return;
+            }
+            lote.add(valores);
+            linhasLote.add(linha);
+            if (lote.size() >= tamanhoLote) {
+                gravarLote();
+            }
+        }
+
+        void rejeitar(int linha, String mensagem) {
+            linhasLidas++;
+            registrarErro(linha, mensagem);
+        }
+
+        void gravarLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            try {
+                transacao.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT, lote, TIPOS_INSERT);
+                    lote.forEach(this::somarAoResumo);
+                });
+                importadas += lote.size();
+            } catch (DataAccessException e) {
+                // Um lote rejeitado é regravado linha a linha, cada uma em sua transação
+                log.warn("Lote de importação rejeitado pelo banco, regravando linha a linha: {}",
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                for (int i = 0; i < lote.size(); i++) {
+                    Object[] valores = lote.get(i);
+                    try {
+                        transacao.executeWithoutResult(status -> {
+                            jdbcTemplate.update(INSERT, valores, TIPOS_INSERT);
+                            somarAoResumo(valores);
+                        });
+                        importadas++;
+                    } catch (DataAccessException erroLinha) {
+                        registrarErro(linhasLote.get(i), "Rejeitada pelo banco: "
+                                + NestedExceptionUtils.getMostSpecificCause(erroLinha).getMessage());
+                    }
+                }
+            }
+            lote.clear();
+            linhasLote.clear();
+        }
+
+        /**
+         * Soma uma linha gravada ao resumo diário, na transação do lote
+         * @param valores Parâmetros do INSERT, na ordem de TIPOS_INSERT
+         */
+        private void somarAoResumo(Object[] valores) {
+            resumoDiarioService.somar(usuarioId, ((Timestamp) valores[8]).toLocalDateTime().toLocalDate(),
+                    (String) valores[5], (String) valores[6], (Integer) valores[2], (BigDecimal) valores[4]);
+        }
+
+        private void registrarErro(int linha, String mensagem) {
+            rejeitadas++;
+            if (erros.size() < maximoErrosDetalhados) {
+                erros.add(new ImportacaoResponse.Erro(linha, mensagem));
+            }
+        }
+
+        /**
+         * Valida uma linha com as mesmas regras de CreateVendaRequest e os limites das colunas
+         * @return Parâmetros do INSERT, na ordem de TIPOS_INSERT
+         */
+        private Object[] converter(Function<String, String> campo) {
+            String produto = texto(campo, "produto", 200, true);
+            Integer quantidade = inteiro(campo.apply("quantidade"));
+            BigDecimal valor = decimal(campo.apply("valor"));
+            String tipo = texto(campo, "tipo", 50, true);
+            String status = texto(campo, "status", 30, true);
+            String observacoes = texto(campo, "observacoes", 500, false);
+            LocalDateTime dataVenda = data(campo.apply("dataVenda"));
+
+            BigDecimal valorTotal = valor.multiply(BigDecimal.valueOf(quantidade));
+            if (valorTotal.compareTo(VALOR_MAXIMO) > 0) {
+                throw new LinhaInvalidaException("Valor total excede o máximo permitido");
+            }
+            return new Object[]{ids.getAsLong(), produto, quantidade, valor, valorTotal, tipo, status, usuarioId,
+                    dataVenda != null ? Timestamp.valueOf(dataVenda) : agora, agora, agora, observacoes};
+        }
+    }
+
+    private static String texto(Function<String, String> campo, String nome, int tamanhoMaximo,
+                                boolean obrigatorio) {
+        String valor = campo.apply(nome);
+        if (valor == null || valor.isBlank()) {
+            if (obrigatorio) {
+                throw new LinhaInvalidaException("Campo obrigatório ausente: " + nome);
+            }
+            return null;
+        }
+        valor = valor.trim();
+        if (valor.length() > tamanhoMaximo) {
+            throw new LinhaInvalidaException("Campo " + nome + " excede " + tamanhoMaximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private static Integer inteiro(String texto) {
+        if (texto == null || texto.isBlank()) {
+            throw new LinhaInvalidaException("Quantidade é obrigatória");
+        }
+        try {
+            int quantidade = Integer.parseInt(texto.trim());
+            if (quantidade < 1) {
+                throw new LinhaInvalidaException("Quantidade deve ser no mínimo 1");
+            }
+            return quantidade;
+        } catch (NumberFormatException e) {
+            throw new LinhaInvalidaException("Quantidade inválida: " + texto);
+        }
+    }
+
+    private static BigDecimal decimal(String texto) {
+        if (texto == null || texto.isBlank()) {
+            throw new LinhaInvalidaException("Valor é obrigatório");
+        }
+        String numero = texto.trim();
+        if (numero.indexOf(',') >= 0 && numero.indexOf('.') < 0) {
+            // Vírgula decimal, comum em planilhas exportadas em português
+            numero = numero.replace(',', '.');
+        }
+        BigDecimal valor;
+        try {
+            valor = new BigDecimal(numero);
+        } catch (NumberFormatException e) {
+            throw new LinhaInvalidaException("Valor inválido: " + texto);
+        }
+        valor = valor.stripTrailingZeros();
+        if (valor.compareTo(new BigDecimal("0.01")) < 0) {
+            throw new LinhaInvalidaException("Valor deve ser maior que zero");
+        }
+        if (valor.scale() > 2 || valor.compareTo(VALOR_MAXIMO) > 0) {
+            throw new LinhaInvalidaException("Valor fora do formato permitido (até 8 dígitos e 2 casas decimais): " + texto);
+        }
+        return valor.setScale(2);
+    }
+
+    private static LocalDateTime data(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        String valor = texto.trim();
+        try {
+            return valor.length() == 10 ? LocalDate.parse(valor).atStartOfDay() : LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new LinhaInvalidaException("Data da venda inválida: " + texto);
+        }
+    }
+
+    /**
+     * Linha rejeitada na validação; não interrompe a importação
+     */
+    private static final class LinhaInvalidaException extends RuntimeException {
+        LinhaInvalidaException(String mensagem) {
+            super(mensagem);
+        }
+    }
+}
@@ -1,40 +1,187 @@
 package com.fiap.challenge.service;
 
+import com.fiap.challenge.dto.AlteracaoVendasLoteRequest;
+import com.fiap.challenge.dto.ColunaVendaResponse;
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaResponse;
+import com.fiap.challenge.dto.CreateVendaRequest;
+import com.fiap.challenge.dto.ExclusaoLoteRequest;
+import com.fiap.challenge.dto.OperacaoLoteResponse;
+import com.fiap.challenge.dto.PaginaResponse;
 import com.fiap.challenge.dto.VendaDetalhadaResponse;
+import com.fiap.challenge.dto.VendaLoteResponse;
+import com.fiap.challenge.event.VendaAlteradaEvent;
+import com.fiap.challenge.event.VendasAlteradasEmLoteEvent;
+import com.fiap.challenge.exception.RequisicaoInvalidaException;
 import com.fiap.challenge.model.Usuario;
 import com.fiap.challenge.model.Venda;
-import com.fiap.challenge.repository.UsuarioRepository;
 import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.security.CurrentUserProvider;
+import com.fiap.challenge.specification.ConsultaSpecification;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class VendaService {
 
+    // Campos consultáveis definidos pelos metadados da tabela de vendas
+    private static final ConsultaSpecification<Venda> CONSULTA = new ConsultaSpecification<>(
+            Arrays.stream(ColunaVendaResponse.getColunas())
+                    .map(coluna -> new ConsultaSpecification.Coluna(coluna.getCampo(), coluna.getTipo(), coluna.isOrdenavel()))
+                    .toList(),
+            Sort.by(Sort.Direction.DESC, "dataVenda"));
+
+    public static final int MAXIMO_IDS_FILTRO = 1000;
+
+    // Limite da coluna valor_total, numeric(10, 2)
+    private static final BigDecimal VALOR_TOTAL_MAXIMO = new BigDecimal("99999999.99");
+
     private final VendaRepository vendaRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ResumoDiarioService resumoDiarioService;
+
+    @Value("${vendas.lote.maximo:1000}")
+    private int maximoLote;
 
     /**
      * Recupera todas as vendas do usuário logado com informações detalhadas
+     * @param de Primeiro dia do período, inclusivo (opcional)
+     * @param ate Último dia do período, inclusivo (opcional)
      * @return Lista de VendaDetalhadaResponse
      */
     @Transactional(readOnly = true)
-    public List<VendaDetalhadaResponse> getAllVendas() {
-        Usuario usuario = getUsuarioLogado();
-        List<Venda> vendas = vendaRepository.findByUsuarioOrderByDataVendaDesc(usuario);
+    public List<VendaDetalhadaResponse> getAllVendas(LocalDate de, LocalDate ate) {
+        Usuario usuario = currentUserProvider.getUsuario();
+        Periodo periodo = Periodo.de(de, ate);
+        List<Venda> vendas = vendaRepository.findByUsuarioNoPeriodo(usuario, periodo.inicio(), periodo.fim());
 
         return vendas.stream()
                 .map(VendaDetalhadaResponse::new)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Consulta vendas do usuário logado com filtros combinados, ordenação e paginação
+     * executados em uma única consulta SQL
+     * @param request Filtros, ordenação e página desejada
+     * @return ConsultaResponse com a página de VendaDetalhadaResponse
+     */
+    @Transactional(readOnly = true)
+    public ConsultaResponse<VendaDetalhadaResponse> consultar(ConsultaRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+
+        return new ConsultaResponse<>(vendaRepository.findAll(
+                CONSULTA.especificacao(usuarioId, request.getFiltros()),
+                CONSULTA.paginacao(request)
+        ).map(VendaDetalhadaResponse::new));
+    }
+
+    /**
+     * Recupera uma página das vendas do usuário logado, da mais recente para a mais antiga
+     * @param cursor Cursor retornado pela página anterior (nulo na primeira página)
+     * @param limite Quantidade máxima de itens da página
+     * @param de Primeiro dia do período, inclusivo (opcional)
+     * @param ate Último dia do período, inclusivo (opcional)
+     * @return Página de VendaDetalhadaResponse com o cursor da próxima página
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<VendaDetalhadaResponse> getVendasPaginadas(String cursor, Integer limite, LocalDate de, LocalDate ate) {
+        Usuario usuario = currentUserProvider.getUsuario();
+        Periodo periodo = Periodo.de(de, ate);
+        VendaCursor posicao = VendaCursor.decodificar(cursor);
+        int tamanho = VendaCursor.limite(limite);
+
+        List<Venda> vendas = vendaRepository.findPaginaByUsuario(
+                usuario, periodo.inicio(), periodo.fim(), posicao.dataVenda(), posicao.id(), VendaCursor.consulta(tamanho));
+
+        return VendaCursor.montarPagina(vendas, tamanho, VendaDetalhadaResponse::new);
+    }
+
+    /**
+     * Cria várias vendas do usuário logado em uma única transação, com inserções agrupadas em lotes JDBC
+     * Cada venda é validada com as regras de CreateVendaRequest. No modo atômico, qualquer venda inválida
+     * rejeita o lote inteiro; no modo parcial, apenas as vendas válidas são gravadas.
+     * @param vendas Vendas a criar, na ordem em que os IDs serão retornados
+     * @param parcial true para gravar as vendas válidas mesmo que outras sejam rejeitadas
+     * @return VendaLoteResponse com os IDs criados e os erros por posição
+     */
+    @Transactional
+    public VendaLoteResponse criarVendasEmLote(List<CreateVendaRequest> vendas, boolean parcial) {
+        if (vendas == null || vendas.isEmpty()) {
+            throw new RequisicaoInvalidaException("Lote vazio");
+        }
+        if (vendas.size() > maximoLote) {
+            throw new RequisicaoInvalidaException("Lote excede o máximo de " + maximoLote + " vendas");
+        }
+
+        List<VendaLoteResponse.Erro> erros = new ArrayList<>();
+        for (int i = 0; i < vendas.size(); i++) {
+            String erro = validar(vendas.get(i));
+            if (erro != null) {
+                erros.add(new VendaLoteResponse.Erro(i, erro));
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(vendas.size());
+        if (!erros.isEmpty() && !parcial) {
+            return new VendaLoteResponse(ids, 0, erros.size(), erros);
+        }
+
+        Usuario usuario = currentUserProvider.getUsuario();
+        List<Venda> novas = new ArrayList<>(vendas.size());
+        int proximoErro = 0;
+        for (int i = 0; i < vendas.size(); i++) {
+            if (proximoErro < erros.size() && erros.get(proximoErro).getIndice() == i) {
+                proximoErro++;
+                novas.add(null);
+                continue;
+            }
+            CreateVendaRequest request = vendas.get(i);
+            Venda venda = new Venda();
+            venda.setProduto(request.getProduto());
+            venda.setQuantidade(request.getQuantidade());
+            venda.setValor(request.getValor());
+            venda.setTipo(request.getTipo());
+            venda.setStatus(request.getStatus());
+            venda.setObservacoes(request.getObservacoes());
+            venda.setUsuario(usuario);
+            novas.add(venda);
+        }
+
+        // IDs vêm da sequência em memória (pooled-lo), então os INSERTs são enviados em lotes no flush
+        vendaRepository.saveAll(novas.stream().filter(Objects::nonNull).toList());
+        for (Venda venda : novas) {
+            ids.add(venda != null ? venda.getId() : null);
+            if (venda != null) {
+                eventPublisher.publishEvent(VendaAlteradaEvent.criada(venda));
+            }
+        }
+
+        return new VendaLoteResponse(ids, vendas.size() - erros.size(), erros.size(), erros);
+    }
+
     /**
      * Busca uma venda específica por ID
      * @param id ID da venda
@@ -42,15 +189,7 @@ public class VendaService {
      */
     @Transactional(readOnly = true)
     public VendaDetalhadaResponse getVendaById(Long id) {
-        Usuario usuario = getUsuarioLogado();
-
-        Venda venda = vendaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Venda não encontrada"));
-
-        // Verifica se a venda pertence ao usuário logado
-        if (!venda.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: esta venda não pertence ao usuário logado");
-        }
+        Venda venda = buscarVendaDoUsuario(id);
 
         return new VendaDetalhadaResponse(venda);
     }
@@ -62,13 +201,19 @@ public class VendaService {
      */
     @Transactional(readOnly = true)
     public List<VendaDetalhadaResponse> getVendasByIds(List<Long> ids) {
-        Usuario usuario = getUsuarioLogado();
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        distintos.remove(null);
+        if (distintos.size() > MAXIMO_IDS_FILTRO) {
+            throw new RequisicaoInvalidaException("Máximo de " + MAXIMO_IDS_FILTRO + " IDs por consulta");
+        }
+        if (distintos.isEmpty()) {
+            return List.of();
+        }
 
-        List<Venda> vendas = vendaRepository.findAllById(ids);
+        // O filtro por usuário é feito no banco, sem carregar vendas de outros usuários
+        List<Venda> vendas = vendaRepository.findAllByIdInAndUsuarioId(distintos, currentUserProvider.getUsuarioId());
 
-        // Filtra apenas vendas do usuário logado
         return vendas.stream()
-                .filter(venda -> venda.getUsuario().getId().equals(usuario.getId()))
                 .map(VendaDetalhadaResponse::new)
                 .collect(Collectors.toList());
     }
@@ -88,15 +233,9 @@ public class VendaService {
     public VendaDetalhadaResponse updateVenda(Long id, String produto, Integer quantidade,
                                              java.math.BigDecimal valor, String tipo,
                                              String status, String observacoes) {
-        Usuario usuario = getUsuarioLogado();
-
-        Venda venda = vendaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Venda não encontrada"));
+        Venda venda = bloquearVendaDoUsuario(id);
 
-        // Verifica se a venda pertence ao usuário logado
-        if (!venda.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: esta venda não pertence ao usuário logado");
-        }
+        VendaAlteradaEvent.DadosVenda anterior = VendaAlteradaEvent.DadosVenda.de(venda);
 
         // Atualiza os campos
         if (produto != null) venda.setProduto(produto);
@@ -107,6 +246,7 @@ public class VendaService {
         if (observacoes != null) venda.setObservacoes(observacoes);
 
         Venda vendaAtualizada = vendaRepository.save(venda);
+        eventPublisher.publishEvent(VendaAlteradaEvent.alterada(anterior, vendaAtualizada));
         return new VendaDetalhadaResponse(vendaAtualizada);
     }
 
@@ -116,32 +256,101 @@ public class VendaService {
      */
     @Transactional
     public void deleteVenda(Long id) {
-        Usuario usuario = getUsuarioLogado();
+        Venda venda = bloquearVendaDoUsuario(id);
 
-        Venda venda = vendaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Venda não encontrada"));
+        vendaRepository.delete(venda);
+        eventPublisher.publishEvent(VendaAlteradaEvent.removida(venda.getUsuario().getId(), VendaAlteradaEvent.DadosVenda.de(venda)));
+    }
 
-        // Verifica se a venda pertence ao usuário logado
-        if (!venda.getUsuario().getId().equals(usuario.getId())) {
-            throw new RuntimeException("Acesso negado: esta venda não pertence ao usuário logado");
+    /**
+     * Altera status e/ou tipo de várias vendas do usuário logado com um único UPDATE
+     * @param request IDs e campos a alterar
+     * @return OperacaoLoteResponse com a quantidade alterada e os IDs não encontrados
+     */
+    @Transactional
+    public OperacaoLoteResponse atualizarVendasEmLote(AlteracaoVendasLoteRequest request) {
+        if (request.getStatus() == null && request.getTipo() == null) {
+            throw new RequisicaoInvalidaException("Nenhum campo para alterar");
         }
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
 
-        vendaRepository.delete(venda);
+        List<Long> encontrados = vendaRepository.findIdsByUsuarioIdAndIdIn(usuarioId, ids);
+        int afetados = 0;
+        if (!encontrados.isEmpty()) {
+            // As vendas encontradas ficam bloqueadas; o resumo diário recebe a diferença entre os totais
+            // antes e depois do UPDATE sem que outra transação as altere no meio
+            resumoDiarioService.retirar(usuarioId, encontrados);
+            afetados = vendaRepository.atualizarEmLote(usuarioId, encontrados,
+                    trim(request.getStatus()), trim(request.getTipo()), LocalDateTime.now());
+            resumoDiarioService.somar(usuarioId, encontrados);
+            eventPublisher.publishEvent(new VendasAlteradasEmLoteEvent(usuarioId));
+        }
+        return OperacaoLoteResponse.de(ids, encontrados, afetados);
     }
 
     /**
-     * Recupera o usuário logado
-     * @return Usuario logado
+     * Exclui várias vendas do usuário logado com um único DELETE
+     * @param request IDs a excluir
+     * @return OperacaoLoteResponse com a quantidade excluída e os IDs não encontrados
      */
-    private Usuario getUsuarioLogado() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    @Transactional
+    public OperacaoLoteResponse deleteVendasEmLote(ExclusaoLoteRequest request) {
+        Long usuarioId = currentUserProvider.getUsuarioId();
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+
+        List<Long> encontrados = vendaRepository.findIdsByUsuarioIdAndIdIn(usuarioId, ids);
+        int afetados = 0;
+        if (!encontrados.isEmpty()) {
+            resumoDiarioService.retirar(usuarioId, encontrados);
+            afetados = vendaRepository.deleteEmLote(usuarioId, encontrados);
+            eventPublisher.publishEvent(new VendasAlteradasEmLoteEvent(usuarioId));
+        }
+        return OperacaoLoteResponse.de(ids, encontrados, afetados);
+    }
 
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new RuntimeException("Usuário não autenticado");
+    /**
+     * Valida uma venda do lote
+     * @return Mensagens de erro separadas por "; ", ou null se a venda for válida
+     */
+    private String validar(CreateVendaRequest request) {
+        if (request == null) {
+            return "Venda ausente";
         }
+        List<String> mensagens = validator.validate(request).stream()
+                .sorted(Comparator.comparing(violacao -> violacao.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (mensagens.isEmpty() && request.getValor().multiply(BigDecimal.valueOf(request.getQuantidade()))
+                .compareTo(VALOR_TOTAL_MAXIMO) > 0) {
+            mensagens.add("Valor total excede o máximo permitido");
+        }
+        return mensagens.isEmpty() ? null : String.join("; ", mensagens);
+    }
+
+    /**
+     * Busca uma venda do usuário logado pela chave primária já filtrada pelo proprietário
+     * Só quando não encontra consulta a existência, para diferenciar inexistente de outro usuário
+     */
+    private Venda buscarVendaDoUsuario(Long id) {
+        return exigirVendaDoUsuario(id, vendaRepository.findByIdAndUsuarioId(id, currentUserProvider.getUsuarioId()));
+    }
+
+    /**
+     * Busca a venda do usuário logado bloqueando a linha até o fim da transação
+     * Alterações concorrentes da mesma venda (inclusive em lote) calculam o delta do resumo diário em sequência
+     */
+    private Venda bloquearVendaDoUsuario(Long id) {
+        return exigirVendaDoUsuario(id, vendaRepository.findParaAlteracaoByIdAndUsuarioId(id, currentUserProvider.getUsuarioId()));
+    }
+
+    private Venda exigirVendaDoUsuario(Long id, Optional<Venda> venda) {
+        return venda.orElseThrow(() -> vendaRepository.existsById(id)
+                        ? new RuntimeException("Acesso negado: esta venda não pertence ao usuário logado")
+                        : new RuntimeException("Venda não encontrada"));
+    }
 
-        String email = authentication.getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    private static String trim(String valor) {
+        return valor != null ? valor.trim() : null;
     }
 }
@@ -0,0 +1,238 @@
+package com.fiap.challenge.specification;
+
+import com.fiap.challenge.dto.ConsultaRequest;
+import com.fiap.challenge.dto.ConsultaRequest.Filtro;
+import com.fiap.challenge.exception.ConsultaInvalidaException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compila uma ConsultaRequest em uma única consulta SQL (Specification + Pageable)
+ * Somente os campos declarados nos metadados de colunas são aceitos, e a ordenação
+ * apenas nos marcados como ordenáveis. Toda consulta é restrita ao usuário informado.
+ */
+public final class ConsultaSpecification<E> {
+
+    public static final int TAMANHO_PADRAO = 20;
+    public static final int TAMANHO_MAXIMO = 100;
+    private static final int MAXIMO_FILTROS = 20;
+    private static final int MAXIMO_VALORES = 100;
+
+    private final Map<String, Coluna> colunas = new LinkedHashMap<>();
+    private final Sort ordenacaoPadrao;
+
+    /**
+     * Metadados de uma coluna consultável
+     * @param campo Nome do atributo da entidade
+     * @param tipo Tipo exibido no frontend (string, number, currency, boolean, datetime)
+     * @param ordenavel Indica se a coluna aceita ordenação
+     */
+    public record Coluna(String campo, String tipo, boolean ordenavel) {
+    }
+
+    public ConsultaSpecification(List<Coluna> colunas, Sort ordenacaoPadrao) {
+        colunas.forEach(coluna -> this.colunas.put(coluna.campo(), coluna));
+        this.ordenacaoPadrao = ordenacaoPadrao;
+    }
+
+    /**
+     * Monta o predicado com os filtros combinados por AND, sempre restrito ao usuário
+     * @param usuarioId ID do usuário proprietário dos registros
+     * @param filtros Filtros da consulta (pode ser nulo)
+     * @return Specification pronta para o repositório
+     */
+    public Specification<E> especificacao(Long usuarioId, List<Filtro> filtros) {
+        List<Filtro> lista = filtros != null ? List.copyOf(filtros) : List.of();
+        if (lista.size() > MAXIMO_FILTROS) {
+            throw new ConsultaInvalidaException("Máximo de " + MAXIMO_FILTROS + " filtros por consulta");
+        }
+        // Valida antes de executar, para que erros não dependam do banco
+        lista.forEach(filtro -> Operador.de(filtro.getOperador()).validar(coluna(filtro.getCampo()), filtro));
+
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            predicados.add(cb.equal(root.get("usuario").get("id"), usuarioId));
+            for (Filtro filtro : lista) {
+                Path<Object> caminho = root.get(filtro.getCampo());
+                predicados.add(Operador.de(filtro.getOperador()).predicado(cb, caminho, filtro));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Monta a paginação e a ordenação da consulta, com o ID como desempate estável
+     * @param request Consulta recebida
+     * @return Pageable com página, tamanho (limitado) e ordenação validados
+     */
+    public Pageable paginacao(ConsultaRequest request) {
+        int pagina = request.getPagina() != null ? Math.max(request.getPagina(), 0) : 0;
+        int tamanho = request.getTamanho() != null && request.getTamanho() > 0
+                ? Math.min(request.getTamanho(), TAMANHO_MAXIMO)
+                : TAMANHO_PADRAO;
+
+        return PageRequest.of(pagina, tamanho, ordenacao(request.getOrdenarPor(), request.getDirecao()));
+    }
+
+    private Sort ordenacao(String ordenarPor, String direcao) {
+        if (ordenarPor == null || ordenarPor.isBlank()) {
+            return ordenacaoPadrao.and(Sort.by(Sort.Direction.DESC, "id"));
+        }
+
+        Coluna coluna = coluna(ordenarPor);
+        if (!coluna.ordenavel()) {
+            throw new ConsultaInvalidaException("Campo não ordenável: " + ordenarPor);
+        }
+
+        Sort.Direction sentido;
+        if (direcao == null || direcao.isBlank()) {
+            sentido = Sort.Direction.ASC;
+        } else {
+            sentido = Sort.Direction.fromOptionalString(direcao)
+                    .orElseThrow(() -> new ConsultaInvalidaException("Direção de ordenação inválida: " + direcao));
+        }
+
+        Sort sort = Sort.by(sentido, coluna.campo());
+        return "id".equals(coluna.campo()) ? sort : sort.and(Sort.by(sentido, "id"));
+    }
+
+    private Coluna coluna(String campo) {
+        Coluna coluna = campo != null ? colunas.get(campo) : null;
+        if (coluna == null) {
+            throw new ConsultaInvalidaException("Campo inválido: " + campo);
+        }
+        return coluna;
+    }
+
+    /**
+     * Operadores aceitos nos filtros
+     */
+    private enum Operador {
+        IGUAL, DIFERENTE, CONTEM, COMECA_COM, MAIOR, MAIOR_IGUAL, MENOR, MENOR_IGUAL, ENTRE, EM;
+
+        static Operador de(String nome) {
+            try {
+                return valueOf(nome.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new ConsultaInvalidaException("Operador inválido: " + nome);
+            }
+        }
+
+        void validar(Coluna coluna, Filtro filtro) {
+            boolean texto = "string".equals(coluna.tipo());
+            boolean booleano = "boolean".equals(coluna.tipo());
+
+            switch (this) {
+                case CONTEM, COMECA_COM -> {
+                    if (!texto || !(filtro.getValor() instanceof String)) {
+                        throw new ConsultaInvalidaException("Operador " + name().toLowerCase(Locale.ROOT)
+                                + " aceita apenas texto no campo " + coluna.campo());
+                    }
+                }
+                case MAIOR, MAIOR_IGUAL, MENOR, MENOR_IGUAL -> {
+                    if (booleano || filtro.getValor() == null) {
+                        throw new ConsultaInvalidaException("Comparação inválida no campo " + coluna.campo());
+                    }
+                }
+                case ENTRE -> {
+                    if (booleano || !(filtro.getValor() instanceof Collection<?> valores) || valores.size() != 2) {
+                        throw new ConsultaInvalidaException("Operador entre exige dois valores no campo " + coluna.campo());
+                    }
+                }
+                case EM -> {
+                    if (!(filtro.getValor() instanceof Collection<?> valores) || valores.isEmpty()
+                            || valores.size() > MAXIMO_VALORES) {
+                        throw new ConsultaInvalidaException("Operador em exige de 1 a " + MAXIMO_VALORES
+                                + " valores no campo " + coluna.campo());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate predicado(CriteriaBuilder cb, Path<Object> caminho, Filtro filtro) {
+            Class<?> tipo = caminho.getJavaType();
+            Object valor = filtro.getValor();
+            Expression comparavel = caminho;
+
+            return switch (this) {
+                case IGUAL -> valor == null ? cb.isNull(caminho) : cb.equal(caminho, converter(filtro, tipo, valor));
+                case DIFERENTE -> valor == null ? cb.isNotNull(caminho) : cb.notEqual(caminho, converter(filtro, tipo, valor));
+                case CONTEM -> cb.like(cb.lower(caminho.as(String.class)),
+                        "%" + escapar(valor.toString().toLowerCase(Locale.ROOT)) + "%", '\\');
+                case COMECA_COM -> cb.like(caminho.as(String.class), escapar(valor.toString()) + "%", '\\');
+                case MAIOR -> cb.greaterThan(comparavel, (Comparable) converter(filtro, tipo, valor));
+                case MAIOR_IGUAL -> cb.greaterThanOrEqualTo(comparavel, (Comparable) converter(filtro, tipo, valor));
+                case MENOR -> cb.lessThan(comparavel, (Comparable) converter(filtro, tipo, valor));
+                case MENOR_IGUAL -> cb.lessThanOrEqualTo(comparavel, (Comparable) converter(filtro, tipo, valor));
+                case ENTRE -> {
+                    List<?> limites = List.copyOf((Collection<?>) valor);
+                    yield cb.between(comparavel,
+                            (Comparable) converter(filtro, tipo, limites.get(0)),
+                            (Comparable) converter(filtro, tipo, limites.get(1)));
+                }
+                case EM -> {
+                    CriteriaBuilder.In<Object> in = cb.in(caminho);
+                    ((Collection<?>) valor).forEach(item -> in.value(converter(filtro, tipo, item)));
+                    yield in;
+                }
+            };
+        }
+
+        private static Object converter(Filtro filtro, Class<?> tipo, Object valor) {
+            if (valor == null) {
+                throw new ConsultaInvalidaException("Valor ausente no filtro do campo " + filtro.getCampo());
+            }
+            String texto = valor.toString().trim();
+            try {
+                if (tipo == String.class) {
+                    return valor.toString();
+                }
+                if (tipo == Boolean.class) {
+                    if (!"true".equalsIgnoreCase(texto) && !"false".equalsIgnoreCase(texto)) {
+                        throw new IllegalArgumentException(texto);
+                    }
+                    return Boolean.parseBoolean(texto);
+                }
+                if (tipo == Long.class) {
+                    return new BigDecimal(texto).longValueExact();
+                }
+                if (tipo == Integer.class) {
+                    return new BigDecimal(texto).intValueExact();
+                }
+                if (tipo == BigDecimal.class) {
+                    return new BigDecimal(texto);
+                }
+                if (tipo == LocalDateTime.class) {
+                    return texto.length() == 10 ? LocalDate.parse(texto).atStartOfDay() : LocalDateTime.parse(texto);
+                }
+            } catch (ArithmeticException | IllegalArgumentException | DateTimeParseException e) {
+                throw new ConsultaInvalidaException("Valor inválido para o campo " + filtro.getCampo() + ": " + texto);
+            }
+            throw new ConsultaInvalidaException("Campo não filtrável: " + filtro.getCampo());
+        }
+
+        private static String escapar(String texto) {
+            return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.fiap.challenge.busca;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de vizinhos mais próximos e por raio no IndiceEspacial com 10 mil e 100 mil PDVs de um usuário
+ * espalhados pelo Brasil, com e sem alterações pendentes (ainda fora da árvore)
+ * A referência (forcaBruta) calcula o haversine de todos os pontos e mantém os 10 mais próximos
+ *
+ * Execução: mvn -P benchmark test -DskipTests -Dbenchmark=IndiceEspacial
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndiceEspacialBenchmark {
+
+    private static final int CONSULTAS = 1024;
+
+    @Param({"10000", "100000"})
+    private int pontos;
+
+    @Param({"0", "1000"})
+    private int pendentes;
+
+    private IndiceEspacial indice;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[][] origens;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        indice = new IndiceEspacial();
+        latitudes = new double[pontos];
+        longitudes = new double[pontos];
+        for (int i = 0; i < pontos; i++) {
+            latitudes[i] = -34 + random.nextDouble() * 39;
+            longitudes[i] = -74 + random.nextDouble() * 40;
+            indice.carregar((long) i, latitudes[i], longitudes[i]);
+        }
+        indice.reconstruir();
+
+        // Movimentações abaixo do limite de reconstrução ficam na lista de pendentes, percorrida em toda consulta
+        for (int i = 0; i < pendentes; i++) {
+            int id = random.nextInt(pontos);
+            latitudes[id] = -34 + random.nextDouble() * 39;
+            longitudes[id] = -74 + random.nextDouble() * 40;
+            indice.indexar((long) id, latitudes[id], longitudes[id]);
+        }
+
+        origens = new double[CONSULTAS][];
+        for (int i = 0; i < CONSULTAS; i++) {
+            origens[i] = new double[]{-34 + random.nextDouble() * 39, -74 + random.nextDouble() * 40};
+        }
+    }
+
+    @Benchmark
+    public List<IndiceEspacial.Vizinho> vizinhosMaisProximos() {
+        double[] origem = proximaOrigem();
+        return indice.buscar(origem[0], origem[1], 10, null);
+    }
+
+    @Benchmark
+    public List<IndiceEspacial.Vizinho> vizinhosNoRaio() {
+        double[] origem = proximaOrigem();
+        return indice.buscar(origem[0], origem[1], Integer.MAX_VALUE, 50.0);
+    }
+
+    @Benchmark
+    public double forcaBruta() {
+        double[] origem = proximaOrigem();
+        // Max-heap com as 10 menores distâncias
+        PriorityQueue<Double> melhores = new PriorityQueue<>((a, b) -> Double.compare(b, a));
+        for (int i = 0; i < pontos; i++) {
+            double distancia = haversine(origem[0], origem[1], latitudes[i], longitudes[i]);
+            if (melhores.size() < 10) {
+                melhores.add(distancia);
+            } else if (distancia < melhores.peek()) {
+                melhores.poll();
+                melhores.add(distancia);
+            }
+        }
+        return melhores.peek();
+    }
+
+    private double[] proximaOrigem() {
+        proxima = (proxima + 1) & (CONSULTAS - 1);
+        return origens[proxima];
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * IndiceEspacial.RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
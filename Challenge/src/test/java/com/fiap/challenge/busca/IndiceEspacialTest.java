@@ -0,0 +1,163 @@
+package com.fiap.challenge.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndiceEspacialTest {
+
+    // O índice arredonda as distâncias para metros
+    private static final double TOLERANCIA_KM = 0.002;
+
+    private final Random random = new Random(42);
+    private final IndiceEspacial indice = new IndiceEspacial();
+    private final Map<Long, double[]> pontos = new HashMap<>();
+
+    @Test
+    void vizinhosMaisProximosConferemComForcaBruta() {
+        carregarAleatorios(5000, -34, 5, -74, -34);
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            double latitude = -34 + random.nextDouble() * 39;
+            double longitude = -74 + random.nextDouble() * 40;
+            conferirVizinhos(latitude, longitude, 1 + random.nextInt(20));
+        }
+    }
+
+    @Test
+    void buscaPorRaioConfereComForcaBruta() {
+        carregarAleatorios(5000, -25, -22, -48, -45);
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            double latitude = -25 + random.nextDouble() * 3;
+            double longitude = -48 + random.nextDouble() * 3;
+            double raioKm = 1 + random.nextDouble() * 30;
+
+            List<IndiceEspacial.Vizinho> vizinhos = indice.buscar(latitude, longitude, Integer.MAX_VALUE, raioKm);
+
+            Set<Long> encontrados = vizinhos.stream().map(IndiceEspacial.Vizinho::id).collect(Collectors.toSet());
+            for (Map.Entry<Long, double[]> ponto : pontos.entrySet()) {
+                double distancia = haversine(latitude, longitude, ponto.getValue()[0], ponto.getValue()[1]);
+                // Pontos praticamente sobre a borda do raio podem cair de qualquer lado por arredondamento
+                if (Math.abs(distancia - raioKm) < 1e-6) {
+                    continue;
+                }
+                assertThat(encontrados.contains(ponto.getKey()))
+                        .as("ponto %d a %.4f km com raio %.4f km", ponto.getKey(), distancia, raioKm)
+                        .isEqualTo(distancia < raioKm);
+            }
+            assertThat(vizinhos).isSortedAccordingTo(Comparator.comparingDouble(IndiceEspacial.Vizinho::distanciaKm));
+        }
+    }
+
+    @Test
+    void raioLimitaOsVizinhosMaisProximos() {
+        carregarAleatorios(2000, -24, -23, -47, -46);
+
+        List<IndiceEspacial.Vizinho> vizinhos = indice.buscar(-23.55, -46.63, 10, 2.0);
+
+        assertThat(vizinhos).hasSizeLessThanOrEqualTo(10);
+        assertThat(vizinhos).allSatisfy(vizinho -> assertThat(vizinho.distanciaKm()).isLessThanOrEqualTo(2.0));
+    }
+
+    @Test
+    void inclusoesAlteracoesERemocoesSaoConsideradasAntesEDepoisDaReconstrucao() {
+        carregarAleatorios(1000, -30, -10, -60, -40);
+
+        // Poucas alterações ficam pendentes; muitas disparam a reconstrução da árvore
+        for (int rodada : new int[]{10, 500}) {
+            for (int i = 0; i < rodada; i++) {
+                long id = 1 + random.nextInt(1200);
+                int operacao = random.nextInt(3);
+                if (operacao == 0 && pontos.containsKey(id)) {
+                    indice.remover(id);
+                    pontos.remove(id);
+                } else {
+                    double latitude = -30 + random.nextDouble() * 20;
+                    double longitude = -60 + random.nextDouble() * 20;
+                    indice.indexar(id, latitude, longitude);
+                    pontos.put(id, new double[]{latitude, longitude});
+                }
+            }
+            assertThat(indice.tamanho()).isEqualTo(pontos.size());
+            for (int consulta = 0; consulta < 50; consulta++) {
+                conferirVizinhos(-30 + random.nextDouble() * 20, -60 + random.nextDouble() * 20, 15);
+            }
+        }
+    }
+
+    @Test
+    void distanciasAtravessamALinhaDeDataEOsPolos() {
+        indice.indexar(1L, 0, 179.9);
+        indice.indexar(2L, 0, -179.9);
+        indice.indexar(3L, 0, 170);
+        indice.indexar(4L, 89.9, 0);
+        indice.indexar(5L, 89.9, 180);
+
+        List<IndiceEspacial.Vizinho> linhaDeData = indice.buscar(0, 179.95, 2, null);
+        assertThat(linhaDeData).extracting(IndiceEspacial.Vizinho::id).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(linhaDeData.get(1).distanciaKm()).isCloseTo(haversine(0, 179.95, 0, -179.9), within(TOLERANCIA_KM));
+
+        List<IndiceEspacial.Vizinho> polo = indice.buscar(90, 0, 2, null);
+        assertThat(polo).extracting(IndiceEspacial.Vizinho::id).containsExactlyInAnyOrder(4L, 5L);
+        assertThat(polo.get(0).distanciaKm()).isCloseTo(haversine(90, 0, 89.9, 0), within(TOLERANCIA_KM));
+    }
+
+    @Test
+    void quantidadeNaoPositivaOuIndiceVazioNaoRetornamNada() {
+        assertThat(indice.buscar(0, 0, 5, null)).isEmpty();
+
+        indice.indexar(1L, 0, 0);
+        assertThat(indice.buscar(0, 0, 0, null)).isEmpty();
+    }
+
+    /**
+     * Compara as distâncias dos k vizinhos do índice com as k menores distâncias calculadas por haversine
+     * A comparação é pela sequência de distâncias, que não depende da ordem entre empates
+     */
+    private void conferirVizinhos(double latitude, double longitude, int k) {
+        List<IndiceEspacial.Vizinho> vizinhos = indice.buscar(latitude, longitude, k, null);
+
+        List<Double> esperadas = pontos.values().stream()
+                .map(ponto -> haversine(latitude, longitude, ponto[0], ponto[1]))
+                .sorted()
+                .limit(k)
+                .toList();
+
+        assertThat(vizinhos).hasSize(esperadas.size());
+        for (int i = 0; i < vizinhos.size(); i++) {
+            IndiceEspacial.Vizinho vizinho = vizinhos.get(i);
+            double[] ponto = pontos.get(vizinho.id());
+            assertThat(ponto).as("vizinho %d existe", vizinho.id()).isNotNull();
+            assertThat(vizinho.distanciaKm()).isCloseTo(haversine(latitude, longitude, ponto[0], ponto[1]), within(TOLERANCIA_KM));
+            assertThat(vizinho.distanciaKm()).isCloseTo(esperadas.get(i), within(TOLERANCIA_KM));
+        }
+    }
+
+    private void carregarAleatorios(int quantidade, double latMin, double latMax, double lonMin, double lonMax) {
+        for (long id = 1; id <= quantidade; id++) {
+            double latitude = latMin + random.nextDouble() * (latMax - latMin);
+            double longitude = lonMin + random.nextDouble() * (lonMax - lonMin);
+            indice.carregar(id, latitude, longitude);
+            pontos.put(id, new double[]{latitude, longitude});
+        }
+        indice.reconstruir();
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * IndiceEspacial.RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
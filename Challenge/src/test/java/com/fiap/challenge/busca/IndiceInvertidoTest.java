@@ -0,0 +1,108 @@
+package com.fiap.challenge.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceInvertidoTest {
+
+    private final IndiceInvertido indice = new IndiceInvertido();
+
+    @Test
+    void documentoReindexadoContinuaSendoEncontrado() {
+        indexar(1L, "Notebook Dell Inspiron", "Dell");
+        indexar(2L, "Mouse Logitech", "Logitech");
+        assertThat(indice.buscar("notebook", 0, 10).total()).isEqualTo(1);
+
+        for (int i = 0; i < 3; i++) {
+            indexar(1L, "Notebook Dell Inspiron " + i, "Dell");
+        }
+
+        IndiceInvertido.Resultado resultado = indice.buscar("notebook", 0, 10);
+        assertThat(resultado.total()).isEqualTo(1);
+        assertThat(resultado.ids()).containsExactly(1L);
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void reindexacaoRepetidaDeUmDocumentoNaoAfetaOsDemais() {
+        indexar(1L, "Notebook Dell", "Dell");
+        indexar(2L, "Notebook Lenovo", "Lenovo");
+
+        for (int i = 0; i < 50; i++) {
+            indexar(1L, "Notebook Dell", "Dell");
+        }
+
+        assertThat(indice.buscar("notebook", 0, 10).ids()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(indice.buscar("lenovo", 0, 10).ids()).containsExactly(2L);
+    }
+
+    @Test
+    void termoRemovidoNaReindexacaoDeixaDeCasar() {
+        indexar(1L, "Notebook Dell", "Dell");
+        indexar(1L, "Monitor Dell", "Dell");
+
+        assertThat(indice.buscar("notebook", 0, 10).total()).isZero();
+        assertThat(indice.buscar("monitor", 0, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void documentoRemovidoNaoEhEncontrado() {
+        indexar(1L, "Notebook Dell", "Dell");
+        indexar(2L, "Notebook Lenovo", "Lenovo");
+
+        indice.remover(1L);
+
+        assertThat(indice.buscar("notebook", 0, 10).ids()).containsExactly(2L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void exigeTodosOsTermosEOUltimoCasaPorPrefixo() {
+        indexar(1L, "Notebook Dell Inspiron", "Dell");
+        indexar(2L, "Notebook Lenovo", "Lenovo");
+
+        assertThat(indice.buscar("notebook insp", 0, 10).ids()).containsExactly(1L);
+        assertThat(indice.buscar("note", 0, 10).total()).isEqualTo(2);
+        assertThat(indice.buscar("insp notebook", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void pesoDoCampoDefineARelevancia() {
+        // "dell" no nome (peso maior) deve vir antes de "dell" apenas no fabricante
+        indexar(1L, "Monitor UltraWide", "Dell");
+        indexar(2L, "Notebook Dell", "Acer");
+
+        assertThat(indice.buscar("dell", 0, 10).ids()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void paginaRespeitaInicioELimite() {
+        for (long id = 1; id <= 5; id++) {
+            indexar(id, "Cabo HDMI", "Elg");
+        }
+
+        IndiceInvertido.Resultado resultado = indice.buscar("cabo", 2, 2);
+        assertThat(resultado.total()).isEqualTo(5);
+        assertThat(resultado.ids()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void compactacaoPreservaOsDocumentosVivos() {
+        indexar(1L, "Notebook Dell", "Dell");
+        // Reindexações suficientes para disparar a compactação dos slots removidos
+        for (int i = 0; i < 3000; i++) {
+            indexar(2L, "Mouse Logitech " + i, "Logitech");
+        }
+
+        assertThat(indice.buscar("notebook", 0, 10).ids()).containsExactly(1L);
+        assertThat(indice.buscar("mouse 2999", 0, 10).ids()).containsExactly(2L);
+        assertThat(indice.buscar("mouse 0", 0, 10).total()).isZero();
+    }
+
+    private void indexar(Long id, String nome, String fabricante) {
+        indice.indexar(id, List.of(new IndiceInvertido.Campo(nome, 3f), new IndiceInvertido.Campo(fabricante, 1f)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.fiap.challenge.controller;
+
+import com.fiap.challenge.dto.VerificacaoResumoResponse;
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.model.Venda;
+import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.security.JwtUtil;
+import com.fiap.challenge.service.ResumoDiarioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Alterações concorrentes da mesma venda, individuais e em lote, mantêm o resumo diário consistente
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AlteracaoConcorrenteVendaTest {
+
+    private static final String[] STATUS = {"Concluída", "Pendente", "Cancelada"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private ResumoDiarioService resumoDiarioService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void alteracoesConcorrentesNaoFazemOResumoDivergir() throws Exception {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuario Concorrencia");
+        usuario.setEmail("concorrencia-" + UUID.randomUUID() + "@fiap.com");
+        usuario.setSenha("x");
+        usuario = usuarioRepository.save(usuario);
+
+        Venda venda = new Venda();
+        venda.setProduto("Notebook");
+        venda.setQuantidade(1);
+        venda.setValor(new BigDecimal("1000.00"));
+        venda.setTipo("Eletrônicos");
+        venda.setStatus("Concluída");
+        venda.setUsuario(usuario);
+        venda.setDataVenda(LocalDateTime.of(2025, 1, 10, 12, 0));
+        Long id = vendaRepository.save(venda).getId();
+
+        resumoDiarioService.reconstruir(usuario.getId());
+        String token = jwtUtil.generateToken(usuario);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> respostas = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                MockHttpServletRequestBuilder requisicao = i % 4 == 0
+                        ? patch("/api/vendas/lote")
+                                .content("{\"ids\":[" + id + "],\"status\":\"" + STATUS[i % 3] + "\"}")
+                        : put("/api/vendas/" + id)
+                                .content("{\"quantidade\":" + (1 + i % 5) + ",\"status\":\"" + STATUS[i % 3] + "\"}");
+                MockHttpServletRequestBuilder autenticada = requisicao
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token);
+                respostas.add(executor.submit(() -> {
+                    largada.await();
+                    return mockMvc.perform(autenticada).andReturn().getResponse().getStatus();
+                }));
+            }
+            largada.countDown();
+            for (Future<Integer> resposta : respostas) {
+                assertThat(resposta.get(60, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        VerificacaoResumoResponse verificacao = resumoDiarioService.verificar(usuario.getId());
+        assertThat(verificacao.getDivergencias()).isEmpty();
+        assertThat(verificacao.getConsistente()).isTrue();
+    }
+}
@@ -0,0 +1,130 @@
+package com.fiap.challenge.controller;
+
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.model.Venda;
+import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.security.JwtUtil;
+import com.fiap.challenge.service.ResumoDiarioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Os cards do dashboard são calculados com um único comando SQL e, em seguida, servidos pelo cache
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardCardsConsultaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private ResumoDiarioService resumoDiarioService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+    private String token;
+
+    @BeforeEach
+    void criarVendas() {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuario Cards");
+        usuario.setEmail("cards-" + UUID.randomUUID() + "@fiap.com");
+        usuario.setSenha("x");
+        usuario = usuarioRepository.save(usuario);
+
+        criarVenda(usuario, "Concluída", "100.00", 2);
+        criarVenda(usuario, "Concluída", "50.00", 1);
+        criarVenda(usuario, "Pendente", "30.00", 1);
+        criarVenda(usuario, "Cancelada", "20.00", 1);
+
+        resumoDiarioService.reconstruir(usuario.getId());
+        token = jwtUtil.generateToken(usuario);
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void desligarEstatisticas() {
+        estatisticas.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void cardsSaoCalculadosComUmUnicoComandoSql() throws Exception {
+        // Aquece o status do usuário usado na validação do JWT, com um período fora do cache dos cards
+        cards("?de=2000-01-01&ate=2000-01-01").andExpect(status().isOk());
+
+        estatisticas.clear();
+        cards("")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidadeVendas").value(4))
+                .andExpect(jsonPath("$.vendasConcluidas").value(2))
+                .andExpect(jsonPath("$.vendasPendentes").value(1))
+                .andExpect(jsonPath("$.vendasCanceladas").value(1))
+                .andExpect(jsonPath("$.totalVendas").value(300.0));
+
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void segundaChamadaEhServidaPeloCacheSemSql() throws Exception {
+        cards("").andExpect(status().isOk());
+
+        estatisticas.clear();
+        cards("")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidadeVendas").value(4));
+
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+    }
+
+    private ResultActions cards(String parametros) throws Exception {
+        return mockMvc.perform(get("/api/dashboard/cards" + parametros)
+                .header("Authorization", "Bearer " + token));
+    }
+
+    private void criarVenda(Usuario usuario, String status, String valor, int quantidade) {
+        Venda venda = new Venda();
+        venda.setProduto("Produto " + status);
+        venda.setQuantidade(quantidade);
+        venda.setValor(new BigDecimal(valor));
+        venda.setTipo("Eletrônicos");
+        venda.setStatus(status);
+        venda.setUsuario(usuario);
+        venda.setDataVenda(LocalDateTime.of(2025, 1, 10, 12, 0));
+        vendaRepository.save(venda);
+    }
+}
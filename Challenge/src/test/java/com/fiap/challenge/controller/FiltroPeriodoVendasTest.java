@@ -0,0 +1,163 @@
+package com.fiap.challenge.controller;
+
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.model.Venda;
+import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.repository.VendaRepository;
+import com.fiap.challenge.security.JwtUtil;
+import com.fiap.challenge.service.ResumoDiarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Filtros de período (de/ate) das listagens, da paginação e dos cards nos limites de cada dia
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FiltroPeriodoVendasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private ResumoDiarioService resumoDiarioService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void criarVendas() {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuario Periodo");
+        usuario.setEmail("periodo-" + UUID.randomUUID() + "@fiap.com");
+        usuario.setSenha("x");
+        usuario = usuarioRepository.save(usuario);
+
+        criarVenda(usuario, "Antes", "2025-01-09T23:59:59.999");
+        criarVenda(usuario, "Inicio do dia", "2025-01-10T00:00:00");
+        criarVenda(usuario, "Fim do dia", "2025-01-10T23:59:59.999");
+        criarVenda(usuario, "Depois", "2025-01-11T00:00:00");
+
+        resumoDiarioService.reconstruir(usuario.getId());
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    @Test
+    void diaUnicoIncluiOsDoisLimitesDoDia() throws Exception {
+        listar("/api/vendas", "de=2025-01-10&ate=2025-01-10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].produto", containsInAnyOrder("Inicio do dia", "Fim do dia")));
+
+        listar("/api/dashboard/vendas", "de=2025-01-10&ate=2025-01-10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].produto", containsInAnyOrder("Inicio do dia", "Fim do dia")));
+
+        listar("/api/vendas/pagina", "de=2025-01-10&ate=2025-01-10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[*].produto", containsInAnyOrder("Inicio do dia", "Fim do dia")));
+
+        listar("/api/dashboard/cards", "de=2025-01-10&ate=2025-01-10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidadeVendas").value(2))
+                .andExpect(jsonPath("$.totalVendas").value(20.0));
+    }
+
+    @Test
+    void apenasDeIncluiODiaInicialEmDiante() throws Exception {
+        listar("/api/vendas", "de=2025-01-10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].produto", containsInAnyOrder("Inicio do dia", "Fim do dia", "Depois")));
+
+        listar("/api/dashboard/cards", "de=2025-01-10")
+                .andExpect(jsonPath("$.quantidadeVendas").value(3));
+    }
+
+    @Test
+    void apenasAteIncluiODiaFinalInteiro() throws Exception {
+        listar("/api/vendas", "ate=2025-01-10")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].produto", containsInAnyOrder("Antes", "Inicio do dia", "Fim do dia")));
+
+        listar("/api/dashboard/cards", "ate=2025-01-10")
+                .andExpect(jsonPath("$.quantidadeVendas").value(3));
+    }
+
+    @Test
+    void semPeriodoRetornaTodas() throws Exception {
+        listar("/api/vendas", "")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)));
+
+        listar("/api/dashboard/cards", "")
+                .andExpect(jsonPath("$.quantidadeVendas").value(4));
+    }
+
+    @Test
+    void periodoSemVendasRetornaVazio() throws Exception {
+        listar("/api/vendas", "de=2025-01-12&ate=2025-01-31")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        listar("/api/dashboard/cards", "de=2025-01-12&ate=2025-01-31")
+                .andExpect(jsonPath("$.quantidadeVendas").value(0));
+    }
+
+    @Test
+    void periodoInvertidoRetornaBadRequestComMotivo() throws Exception {
+        for (String endpoint : new String[]{"/api/vendas", "/api/vendas/pagina", "/api/dashboard/vendas",
+                "/api/dashboard/cards", "/api/dashboard/vendas/por-tipo", "/api/vendas/export"}) {
+            listar(endpoint, "de=2025-01-11&ate=2025-01-10")
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", startsWith("Período inválido")));
+        }
+    }
+
+    @Test
+    void dataMalFormatadaRetornaBadRequest() throws Exception {
+        listar("/api/vendas", "de=10/01/2025")
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions listar(String endpoint, String parametros) throws Exception {
+        return mockMvc.perform(get(endpoint + (parametros.isEmpty() ? "" : "?" + parametros))
+                .header("Authorization", "Bearer " + token));
+    }
+
+    private void criarVenda(Usuario usuario, String produto, String dataVenda) {
+        Venda venda = new Venda();
+        venda.setProduto(produto);
+        venda.setQuantidade(1);
+        venda.setValor(new BigDecimal("10.00"));
+        venda.setTipo("Eletrônicos");
+        venda.setStatus("Concluída");
+        venda.setUsuario(usuario);
+        venda.setDataVenda(LocalDateTime.parse(dataVenda));
+        vendaRepository.save(venda);
+    }
+}
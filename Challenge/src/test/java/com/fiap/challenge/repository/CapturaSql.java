@@ -0,0 +1,40 @@
+package com.fiap.challenge.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra o SQL gerado pelo Hibernate na thread atual enquanto uma captura estiver ativa
+ * Configurado no perfil de teste (hibernate.session_factory.statement_inspector); fora de uma captura não faz nada
+ */
+public class CapturaSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> COMANDOS = new ThreadLocal<>();
+
+    /**
+     * Executa a ação registrando os comandos SQL preparados por ela
+     * @param acao Ação que acessa o banco pelo Hibernate
+     * @return Comandos SQL, na ordem de execução
+     */
+    public static List<String> capturar(Runnable acao) {
+        List<String> comandos = new ArrayList<>();
+        COMANDOS.set(comandos);
+        try {
+            acao.run();
+        } finally {
+            COMANDOS.remove();
+        }
+        return comandos;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> comandos = COMANDOS.get();
+        if (comandos != null) {
+            comandos.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,113 @@
+package com.fiap.challenge.repository;
+
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.model.Venda;
+import jakarta.persistence.EntityManager;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IDs pooled-lo e INSERTs em lote: salvar 1000 vendas não consulta a sequência por linha
+ * nem executa um INSERT por linha
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InsercaoEmLoteTest {
+
+    private static final int VENDAS = 1000;
+    private static final int TAMANHO_LOTE = 50;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void milVendasSaoInseridasEmLotesDeCinquentaComUmaChamadaASequenciaPorLote() {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Usuario Lote");
+        usuario.setEmail("lote-" + UUID.randomUUID() + "@fiap.com");
+        usuario.setSenha("x");
+        Usuario dono = usuarioRepository.save(usuario);
+
+        long sequenciaAntes = valorSequencia();
+        ContadorJdbc contador = new ContadorJdbc();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).addEventListeners(contador);
+
+            List<Venda> vendas = new ArrayList<>();
+            for (int i = 0; i < VENDAS; i++) {
+                Venda venda = new Venda();
+                venda.setProduto("Produto " + i);
+                venda.setQuantidade(1);
+                venda.setValor(new BigDecimal("10.00"));
+                venda.setTipo("Livros");
+                venda.setStatus("Concluída");
+                venda.setDataVenda(LocalDateTime.now());
+                venda.setUsuario(dono);
+                vendas.add(venda);
+            }
+            vendaRepository.saveAll(vendas);
+            entityManager.flush();
+        });
+
+        // allocationSize = 50: cada chamada à sequência reserva 50 IDs (20 blocos para as 1000 vendas,
+        // mais um quando o bloco corrente já estava em uso no início)
+        long chamadasSequencia = (valorSequencia() - sequenciaAntes) / TAMANHO_LOTE;
+        assertThat(chamadasSequencia).isLessThanOrEqualTo(VENDAS / TAMANHO_LOTE + 1);
+
+        // batch_size = 50: 20 lotes JDBC com 50 INSERTs cada; fora deles, só as chamadas à sequência
+        assertThat(contador.lotes).isEqualTo(VENDAS / TAMANHO_LOTE);
+        assertThat(contador.execucoesIndividuais).isEqualTo(chamadasSequencia);
+        assertThat(vendaRepository.countByUsuario(dono)).isEqualTo(VENDAS);
+    }
+
+    private long valorSequencia() {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'VENDAS_SEQ'", Long.class);
+    }
+
+    /**
+     * Conta as execuções JDBC da sessão: lotes (executeBatch) e comandos executados individualmente
+     */
+    private static final class ContadorJdbc extends BaseSessionEventListener {
+        private int lotes;
+        private int execucoesIndividuais;
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            lotes++;
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            execucoesIndividuais++;
+        }
+    }
+}
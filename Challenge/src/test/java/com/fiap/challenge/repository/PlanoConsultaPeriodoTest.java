@@ -0,0 +1,148 @@
+package com.fiap.challenge.repository;
+
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.model.Venda;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As consultas por período (usuario_id, data_venda) usam os índices compostos de vendas,
+ * conferido pelo EXPLAIN do SQL gerado pelo Hibernate
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PlanoConsultaPeriodoTest {
+
+    private static final String INDICE_DATA = "IDX_VENDAS_USUARIO_DATA";
+    private static final String INDICE_TIPO = "IDX_VENDAS_USUARIO_TIPO_DATA";
+    private static final String INDICE_STATUS = "IDX_VENDAS_USUARIO_STATUS_DATA";
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime FIM = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void criarVendas() {
+        usuario = new Usuario();
+        usuario.setNome("Usuario Plano");
+        usuario.setEmail("plano-" + UUID.randomUUID() + "@fiap.com");
+        usuario.setSenha("x");
+        usuario = usuarioRepository.save(usuario);
+
+        String[] tipos = {"Eletrônicos", "Livros", "Roupas", "Casa"};
+        String[] status = {"Concluída", "Pendente", "Cancelada"};
+        List<Venda> vendas = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Venda venda = new Venda();
+            venda.setProduto("Produto " + i);
+            venda.setQuantidade(1);
+            venda.setValor(new BigDecimal("10.00"));
+            venda.setTipo(tipos[i % tipos.length]);
+            venda.setStatus(status[i % status.length]);
+            venda.setUsuario(usuario);
+            venda.setDataVenda(LocalDateTime.of(2024, 6, 1, 0, 0).plusHours(i * 17L));
+            vendas.add(venda);
+        }
+        vendaRepository.saveAll(vendas);
+
+        // Estatísticas atualizadas para o otimizador do H2
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void listagensPorPeriodoUsamOIndiceDeUsuarioEData() {
+        assertUsaIndice(() -> vendaRepository.findByUsuarioNoPeriodo(usuario, INICIO, FIM), INDICE_DATA);
+        assertUsaIndice(() -> vendaRepository.findByUsuarioAndTipoNoPeriodo(usuario, "Livros", INICIO, FIM), INDICE_TIPO);
+        assertUsaIndice(() -> vendaRepository.findByUsuarioAndStatusNoPeriodo(usuario, "Pendente", INICIO, FIM), INDICE_STATUS);
+    }
+
+    @Test
+    void paginasPorCursorUsamOIndiceDeUsuarioEData() {
+        PageRequest limite = PageRequest.of(0, 20);
+
+        assertUsaIndice(() -> vendaRepository.findPaginaByUsuario(usuario, INICIO, FIM, FIM, Long.MAX_VALUE, limite), INDICE_DATA);
+        assertUsaIndice(() -> vendaRepository.findPaginaByUsuarioAndTipo(
+                usuario, "Livros", INICIO, FIM, FIM, Long.MAX_VALUE, limite), INDICE_TIPO);
+        assertUsaIndice(() -> vendaRepository.findPaginaByUsuarioAndStatus(
+                usuario, "Pendente", INICIO, FIM, FIM, Long.MAX_VALUE, limite), INDICE_STATUS);
+    }
+
+    @Test
+    void exportacaoPorPeriodoUsaOIndiceDeUsuarioEData() {
+        assertUsaIndice(() -> {
+            try (Stream<Venda> vendas = vendaRepository.streamParaExportacao(usuario.getId(), null, null, INICIO, FIM)) {
+                vendas.forEach(venda -> { });
+            }
+        }, INDICE_DATA);
+    }
+
+    /**
+     * Confere que o plano da consulta acessa vendas pelo índice informado, com a igualdade em usuario_id
+     * e o intervalo em data_venda entre as condições de acesso ao índice mostradas pelo H2
+     */
+    private void assertUsaIndice(Runnable consulta, String indice) {
+        String plano = plano(consulta);
+        int inicio = plano.indexOf("/* PUBLIC." + indice + ":");
+        assertThat(inicio).as("índice %s no plano: %s", indice, plano).isNotNegative();
+
+        String condicoesDoIndice = plano.substring(inicio, plano.indexOf("*/", inicio));
+        assertThat(condicoesDoIndice).contains("USUARIO_ID =", "DATA_VENDA >=", "DATA_VENDA <");
+    }
+
+    /**
+     * Executa a consulta capturando o SQL gerado e retorna o plano do H2 para ele
+     */
+    private String plano(Runnable consulta) {
+        List<String> comandos = CapturaSql.capturar(
+                () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> consulta.run()));
+        assertThat(comandos).hasSize(1);
+        return explain(comandos.get(0));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexao -> {
+            try (PreparedStatement comando = conexao.prepareStatement("EXPLAIN " + sql)) {
+                int parametros = comando.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    comando.setObject(i, null);
+                }
+                try (ResultSet resultado = comando.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1).toUpperCase();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.model.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private static final long VALIDADE_MS = 60_000;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void criarJwtUtil() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", "dGVzdGUtdGVzdGUtdGVzdGUtdGVzdGUtdGVzdGUtdGVzdGUtdGVzdGU=");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", VALIDADE_MS);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        jwtUtil.init();
+    }
+
+    @Test
+    void tokenVerificadoEhReaproveitado() {
+        String token = jwtUtil.generateToken(usuario(1L));
+
+        JwtToken primeiro = jwtUtil.parseToken(token);
+
+        assertThat(jwtUtil.parseToken(token)).isSameAs(primeiro);
+        assertThat(primeiro.getSubject()).isEqualTo("usuario1@fiap.com");
+    }
+
+    @Test
+    void entradaExpiraAteOExpDoToken() {
+        String token = jwtUtil.generateToken(usuario(1L));
+        JwtToken jwt = jwtUtil.parseToken(token);
+
+        Optional<Duration> restante = tokensVerificados().policy().expireVariably().orElseThrow()
+                .getExpiresAfter(token);
+
+        long ateOExp = jwt.getExpiration().getTime() - System.currentTimeMillis();
+        assertThat(restante).isPresent();
+        assertThat(restante.get().toMillis()).isPositive().isLessThanOrEqualTo(Math.max(ateOExp, 0) + 1000);
+    }
+
+    @Test
+    void tamanhoDoCacheEhLimitado() {
+        for (long id = 1; id <= 1000; id++) {
+            jwtUtil.parseToken(jwtUtil.generateToken(usuario(id)));
+        }
+
+        Cache<String, JwtToken> cache = tokensVerificados();
+        cache.cleanUp();
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, JwtToken> tokensVerificados() {
+        return (Cache<String, JwtToken>) ReflectionTestUtils.getField(jwtUtil, "tokensVerificados");
+    }
+
+    private static Usuario usuario(Long id) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNome("Usuario " + id);
+        usuario.setEmail("usuario" + id + "@fiap.com");
+        usuario.setSenha("x");
+        usuario.setAtivo(true);
+        usuario.setTokenVersao(0);
+        return usuario;
+    }
+}
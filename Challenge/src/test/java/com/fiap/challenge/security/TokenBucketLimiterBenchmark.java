@@ -0,0 +1,101 @@
+package com.fiap.challenge.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de tentarConsumir no caminho comum: muitas chaves, todas abaixo do limite
+ * A referência (buscaNoMapa) é só a consulta ao ConcurrentHashMap com as mesmas chaves,
+ * o piso de qualquer limitador por chave
+ *
+ * Execução: mvn -P benchmark test -DskipTests -Dbenchmark=TokenBucketLimiter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBucketLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int chaves;
+
+    private String[] ips;
+    private TokenBucketLimiter limiter;
+    private ConcurrentMap<String, Object> mapa;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ips = new String[chaves];
+        for (int i = 0; i < chaves; i++) {
+            ips[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+
+        // Capacidade alta: nenhuma chave atinge o limite durante a medição
+        limiter = new TokenBucketLimiter(1_000_000, Duration.ofSeconds(1));
+        mapa = new ConcurrentHashMap<>();
+        for (String ip : ips) {
+            limiter.tentarConsumir(ip);
+            mapa.put(ip, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Posição de cada thread na lista de chaves; threads começam em pontos diferentes,
+     * como requisições de clientes distintos
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int posicao;
+
+        @Setup(Level.Trial)
+        public void iniciar(TokenBucketLimiterBenchmark estado) {
+            posicao = ThreadLocalRandom.current().nextInt(estado.chaves);
+        }
+
+        int proxima(int total) {
+            posicao = posicao + 1 == total ? 0 : posicao + 1;
+            return posicao;
+        }
+    }
+
+    @Benchmark
+    public boolean tentarConsumir(Cursor cursor) {
+        return limiter.tentarConsumir(ips[cursor.proxima(chaves)]).permitido();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean tentarConsumirConcorrente(Cursor cursor) {
+        return limiter.tentarConsumir(ips[cursor.proxima(chaves)]).permitido();
+    }
+
+    @Benchmark
+    public Object buscaNoMapa(Cursor cursor) {
+        return mapa.get(ips[cursor.proxima(chaves)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object buscaNoMapaConcorrente(Cursor cursor) {
+        return mapa.get(ips[cursor.proxima(chaves)]);
+    }
+}
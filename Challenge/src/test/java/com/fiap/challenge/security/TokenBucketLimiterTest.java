@@ -0,0 +1,123 @@
+package com.fiap.challenge.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong agora = new AtomicLong(1_000_000_000L);
+
+    // 5 requisições em rajada, um token a cada segundo
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(5, Duration.ofSeconds(5), agora::get);
+
+    @Test
+    void permiteRajadaAteACapacidadeENegaASeguinte() {
+        for (int i = 0; i < 5; i++) {
+            TokenBucketLimiter.Resultado resultado = limiter.tentarConsumir("ip");
+            assertThat(resultado.permitido()).isTrue();
+            assertThat(resultado.restantes()).isEqualTo(4 - i);
+            assertThat(resultado.limite()).isEqualTo(5);
+        }
+
+        TokenBucketLimiter.Resultado negado = limiter.tentarConsumir("ip");
+        assertThat(negado.permitido()).isFalse();
+        assertThat(negado.restantes()).isZero();
+        assertThat(negado.retryAfterSegundos()).isBetween(1L, 2L);
+    }
+
+    @Test
+    void reabasteceUmTokenPorIntervalo() {
+        esgotar("ip");
+
+        avancar(Duration.ofMillis(999));
+        assertThat(limiter.tentarConsumir("ip").permitido()).isFalse();
+
+        avancar(Duration.ofMillis(1));
+        assertThat(limiter.tentarConsumir("ip").permitido()).isTrue();
+        assertThat(limiter.tentarConsumir("ip").permitido()).isFalse();
+
+        avancar(Duration.ofSeconds(2));
+        assertThat(limiter.tentarConsumir("ip").permitido()).isTrue();
+        assertThat(limiter.tentarConsumir("ip").permitido()).isTrue();
+        assertThat(limiter.tentarConsumir("ip").permitido()).isFalse();
+    }
+
+    @Test
+    void baldeOciosoNaoAcumulaAlemDaCapacidade() {
+        esgotar("ip");
+
+        avancar(Duration.ofHours(1));
+        assertThat(esgotar("ip")).isEqualTo(5);
+    }
+
+    @Test
+    void chavesTemBaldesIndependentes() {
+        esgotar("a");
+
+        assertThat(limiter.tentarConsumir("a").permitido()).isFalse();
+        assertThat(limiter.tentarConsumir("b").permitido()).isTrue();
+    }
+
+    @Test
+    void removerInativosDescartaSomenteBaldesCheios() {
+        esgotar("a");
+        limiter.tentarConsumir("b");
+        assertThat(limiter.tamanho()).isEqualTo(2);
+
+        // "b" volta a ficar cheio após 1s; "a" só após 5s
+        avancar(Duration.ofSeconds(1));
+        limiter.removerInativos();
+        assertThat(limiter.tamanho()).isEqualTo(1);
+
+        avancar(Duration.ofSeconds(4));
+        limiter.removerInativos();
+        assertThat(limiter.tamanho()).isZero();
+    }
+
+    @Test
+    void consumoConcorrenteNuncaPassaDaCapacidade() throws InterruptedException {
+        TokenBucketLimiter concorrente = new TokenBucketLimiter(100, Duration.ofHours(1));
+        AtomicInteger permitidos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (concorrente.tentarConsumir("ip").permitido()) {
+                    permitidos.incrementAndGet();
+                }
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(permitidos.get()).isEqualTo(100);
+    }
+
+    private int esgotar(String chave) {
+        int permitidos = 0;
+        while (limiter.tentarConsumir(chave).permitido()) {
+            permitidos++;
+        }
+        return permitidos;
+    }
+
+    private void avancar(Duration duracao) {
+        agora.addAndGet(duracao.toNanos());
+    }
+}
@@ -0,0 +1,116 @@
+package com.fiap.challenge.security;
+
+import com.fiap.challenge.repository.UsuarioRepository;
+import com.fiap.challenge.repository.UsuarioRepository.UsuarioStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsuarioStatusCacheTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private UsuarioStatusCache cache;
+
+    @BeforeEach
+    void criarCache() {
+        cache = new UsuarioStatusCache(usuarioRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+    }
+
+    @Test
+    void statusEhLidoUmaVezEnquantoEstaEmCache() {
+        when(usuarioRepository.findStatusById(1L)).thenReturn(Optional.of(status(true, 0)));
+
+        assertThat(cache.isTokenValido(1L, 0)).isTrue();
+        assertThat(cache.isTokenValido(1L, 0)).isTrue();
+        assertThat(cache.isTokenValido(1L, 1)).isFalse();
+
+        verify(usuarioRepository, times(1)).findStatusById(1L);
+    }
+
+    @Test
+    void usuarioInexistenteOuDesativadoNaoTemTokenValido() {
+        when(usuarioRepository.findStatusById(1L)).thenReturn(Optional.empty());
+        when(usuarioRepository.findStatusById(2L)).thenReturn(Optional.of(status(false, 0)));
+
+        assertThat(cache.isTokenValido(1L, 0)).isFalse();
+        assertThat(cache.isTokenValido(2L, 0)).isFalse();
+    }
+
+    @Test
+    void invalidacaoDuranteUmaCargaDescartaOStatusAntigo() throws Exception {
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        AtomicInteger leituras = new AtomicInteger();
+        when(usuarioRepository.findStatusById(anyLong())).thenAnswer(invocacao -> {
+            if (leituras.getAndIncrement() == 0) {
+                // Leitura feita antes do commit do "sair de todas as sessões": ainda vê a versão 0
+                cargaIniciada.countDown();
+                liberarCarga.await(5, TimeUnit.SECONDS);
+                return Optional.of(status(true, 0));
+            }
+            return Optional.of(status(true, 1));
+        });
+
+        Thread requisicao = new Thread(() -> cache.isTokenValido(1L, 0));
+        requisicao.start();
+        assertThat(cargaIniciada.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread invalidacao = new Thread(() -> cache.invalidar(1L));
+        invalidacao.start();
+        invalidacao.join(200);
+        assertThat(invalidacao.isAlive()).as("invalidar aguarda a carga em andamento").isTrue();
+
+        liberarCarga.countDown();
+        requisicao.join(5000);
+        invalidacao.join(5000);
+
+        assertThat(cache.isTokenValido(1L, 0)).isFalse();
+        assertThat(cache.isTokenValido(1L, 1)).isTrue();
+    }
+
+    @Test
+    void tamanhoDoCacheEhLimitado() {
+        when(usuarioRepository.findStatusById(anyLong())).thenReturn(Optional.of(status(true, 0)));
+
+        for (long id = 1; id <= 1000; id++) {
+            cache.isTokenValido(id, 0);
+        }
+
+        @SuppressWarnings("unchecked")
+        Cache<Long, ?> entradas = (Cache<Long, ?>) ReflectionTestUtils.getField(cache, "entradas");
+        entradas.cleanUp();
+        assertThat(entradas.estimatedSize()).isLessThanOrEqualTo(100);
+    }
+
+    private static UsuarioStatus status(boolean ativo, int versao) {
+        return new UsuarioStatus() {
+            @Override
+            public Boolean getAtivo() {
+                return ativo;
+            }
+
+            @Override
+            public Integer getTokenVersao() {
+                return versao;
+            }
+        };
+    }
+}
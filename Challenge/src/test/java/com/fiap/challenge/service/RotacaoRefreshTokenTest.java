@@ -0,0 +1,130 @@
+package com.fiap.challenge.service;
+
+import com.fiap.challenge.model.Usuario;
+import com.fiap.challenge.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reutilização de refresh token: dentro da tolerância após a rotação só a requisição é recusada;
+ * depois dela, todas as sessões do usuário são revogadas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RotacaoRefreshTokenTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void criarUsuario() {
+        usuario = new Usuario();
+        usuario.setNome("Usuario Rotacao");
+        usuario.setEmail("rotacao-" + UUID.randomUUID() + "@fiap.com");
+        usuario.setSenha("x");
+        usuario = usuarioRepository.save(usuario);
+    }
+
+    @Test
+    void reutilizacaoLogoAposARotacaoRecusaApenasARequisicao() {
+        String usado = refreshTokenService.emitir(usuario.getId());
+        refreshTokenService.consumir(usado);
+        String atual = refreshTokenService.emitir(usuario.getId());
+
+        assertThatThrownBy(() -> refreshTokenService.consumir(usado)).hasMessage("Refresh token inválido");
+
+        assertThat(tokenVersao()).isEqualTo(0);
+        assertThat(refreshTokenService.consumir(atual).getId()).isEqualTo(usuario.getId());
+    }
+
+    @Test
+    void renovacoesSimultaneasComOMesmoTokenNaoRevogamAsSessoes() throws Exception {
+        String token = refreshTokenService.emitir(usuario.getId());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                Callable<Boolean> renovacao = () -> {
+                    largada.await();
+                    try {
+                        refreshTokenService.consumir(token);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                };
+                resultados.add(executor.submit(renovacao));
+            }
+            largada.countDown();
+
+            int sucessos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(30, TimeUnit.SECONDS)) {
+                    sucessos++;
+                }
+            }
+            assertThat(sucessos).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(tokenVersao()).isEqualTo(0);
+    }
+
+    @Test
+    void reutilizacaoForaDaToleranciaRevogaTodasAsSessoes() {
+        String usado = refreshTokenService.emitir(usuario.getId());
+        refreshTokenService.consumir(usado);
+        String atual = refreshTokenService.emitir(usuario.getId());
+        jdbcTemplate.update("UPDATE refresh_tokens SET rotacionado_em = ? WHERE usuario_id = ? AND revogado = true",
+                LocalDateTime.now().minusMinutes(1), usuario.getId());
+
+        assertThatThrownBy(() -> refreshTokenService.consumir(usado)).hasMessage("Refresh token inválido");
+
+        assertThat(tokenVersao()).isEqualTo(1);
+        assertThatThrownBy(() -> refreshTokenService.consumir(atual)).hasMessage("Refresh token inválido");
+    }
+
+    @Test
+    void reutilizacaoDeTokenRevogadoNoLogoutRevogaTodasAsSessoes() {
+        String encerrado = refreshTokenService.emitir(usuario.getId());
+        refreshTokenService.revogar(encerrado);
+        String atual = refreshTokenService.emitir(usuario.getId());
+
+        assertThatThrownBy(() -> refreshTokenService.consumir(encerrado)).hasMessage("Refresh token inválido");
+
+        assertThat(tokenVersao()).isEqualTo(1);
+        assertThatThrownBy(() -> refreshTokenService.consumir(atual)).hasMessage("Refresh token inválido");
+    }
+
+    private int tokenVersao() {
+        return jdbcTemplate.queryForObject("SELECT token_versao FROM usuarios WHERE id = ?", Integer.class, usuario.getId());
+    }
+}